@@ -0,0 +1,45 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.MonthlyReturn;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 월별 결과 Writer를 감싸 청크를 쓴 뒤 바뀐 (종목 또는 지수, 월)을 CalcPriceChangedEvent로 발행하는 Writer
+ * 이벤트는 청크 트랜잭션 안에서 발행되며, 수신 측은 커밋 이후(@TransactionalEventListener)에 처리합니다.
+ */
+public class ChangePublishingItemWriter implements ItemWriter<MonthlyReturn> {
+    private final CalcPriceChangedEvent.Kind kind;
+    private final ItemWriter<MonthlyReturn> delegate;
+    private final ApplicationEventPublisher publisher;
+
+    public ChangePublishingItemWriter(CalcPriceChangedEvent.Kind kind, ItemWriter<MonthlyReturn> delegate,
+                                      ApplicationEventPublisher publisher) {
+        this.kind = kind;
+        this.delegate = delegate;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void write(Chunk<? extends MonthlyReturn> chunk) throws Exception {
+        delegate.write(chunk);
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Set<YearMonth>> monthsByInstrument = new HashMap<>();
+        for (MonthlyReturn item : chunk) {
+            monthsByInstrument.computeIfAbsent(item.instrumentId(), id -> new HashSet<>())
+                    .add(YearMonth.from(item.baseDate()));
+        }
+        publisher.publishEvent(new CalcPriceChangedEvent(kind, monthsByInstrument));
+    }
+}
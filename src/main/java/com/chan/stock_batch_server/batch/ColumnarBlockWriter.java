@@ -0,0 +1,84 @@
+package com.chan.stock_batch_server.batch;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * 월별 결과 행을 고정 크기 블록 단위 열 지향 이진 형식으로 쓰는 Writer
+ * 블록 하나만 메모리에 두므로 전체 행 수와 관계없이 heap 사용량이 일정합니다.
+ * 모든 값은 big-endian이며 구성은 다음과 같습니다.
+ * <pre>
+ * 헤더: magic "CPX1"(4) version(2) kind(1: 0=stock, 1=index)
+ * 블록: rowCount(4) instrumentId[rowCount](4) epochDay[rowCount](4)
+ *       price[rowCount](float 4) monthlyRor[rowCount](float 4) tradingDays[rowCount](4, NULL = -1)
+ * 끝:   rowCount 0
+ * </pre>
+ * NULL인 price, monthlyRor는 NaN으로 씁니다.
+ */
+public class ColumnarBlockWriter implements AutoCloseable {
+    static final int MAGIC = 0x43505831; // "CPX1"
+    static final short VERSION = 1;
+    static final int BLOCK_ROWS = 8192;
+
+    private final DataOutputStream out;
+    private final int[] instrumentIds = new int[BLOCK_ROWS];
+    private final int[] epochDays = new int[BLOCK_ROWS];
+    private final float[] prices = new float[BLOCK_ROWS];
+    private final float[] rors = new float[BLOCK_ROWS];
+    private final int[] tradingDays = new int[BLOCK_ROWS];
+    private int size;
+
+    public ColumnarBlockWriter(OutputStream out, int kind) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(MAGIC);
+        this.out.writeShort(VERSION);
+        this.out.writeByte(kind);
+    }
+
+    public void write(int instrumentId, LocalDate baseDate, float price, float monthlyRor, int tradingDays)
+            throws IOException {
+        instrumentIds[size] = instrumentId;
+        epochDays[size] = (int) baseDate.toEpochDay();
+        prices[size] = price;
+        rors[size] = monthlyRor;
+        this.tradingDays[size] = tradingDays;
+        if (++size == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * 남은 블록과 끝 표시를 쓰고 스트림을 flush, 하위 스트림은 닫지 않습니다.
+     */
+    @Override
+    public void close() throws IOException {
+        flushBlock();
+        out.writeInt(0);
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        if (size == 0) {
+            return;
+        }
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(instrumentIds[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(epochDays[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeFloat(prices[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeFloat(rors[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(tradingDays[i]);
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 커넥션 풀 크기에 맞춘 Semaphore로 작업의 동시 실행 수를 제한하는 TaskDecorator
+ * 가상 스레드 모드에서는 스레드 수 대신 이 permit 수가 실제 DB 동시 작업 수를 결정합니다.
+ */
+public class ConnectionPermitTaskDecorator implements TaskDecorator {
+    private final Semaphore permits;
+
+    public ConnectionPermitTaskDecorator(int permits) {
+        this.permits = new Semaphore(Math.max(permits, 1), true);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return () -> {
+            permits.acquireUninterruptibly();
+            try {
+                runnable.run();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
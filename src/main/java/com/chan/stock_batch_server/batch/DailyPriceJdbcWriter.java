@@ -0,0 +1,304 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 일별 시세 레코드를 StockPrice / IndexPrice 테이블에 JDBC 배치 UPSERT 하는 Writer
+ * 종목(isinCode)과 지수(name, category)는 InstrumentLookupCache로 id에 매핑하며, 처음 보는 종목/지수는 자동 등록됩니다.
+ * 저장된 값과 같은 행은 건너뛰고, 새로 들어왔거나 값이 바뀐 행의 (종목, 월)만 같은 트랜잭션에서 Dirty 테이블에 표시하여
+ * 증분 Job이 다시 계산하도록 하고, DailyPriceChangedEvent로도 알립니다.
+ * 이미 있던 종목 시세의 값이 바뀌면 stock_price_correction에도 남겨 시세 스냅샷이 해당 종목을 다시 작성하게 합니다.
+ */
+@Slf4j
+public class DailyPriceJdbcWriter implements ItemWriter<DailyPriceRecord>, StepExecutionListener {
+    static final String STOCK_PRICE_UPSERT_SQL = """
+            INSERT INTO stock_price (close_price, open_price, low_price, high_price,
+                                     trade_quantity, trade_amount, issued_count, base_date, stock_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                close_price    = VALUES(close_price),
+                open_price     = VALUES(open_price),
+                low_price      = VALUES(low_price),
+                high_price     = VALUES(high_price),
+                trade_quantity = VALUES(trade_quantity),
+                trade_amount   = VALUES(trade_amount),
+                issued_count   = VALUES(issued_count)
+        """;
+
+    static final String INDEX_PRICE_UPSERT_SQL = """
+            INSERT INTO index_price (close_price, open_price, low_price, high_price,
+                                     yearly_diff, base_date, index_info_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                close_price = VALUES(close_price),
+                open_price  = VALUES(open_price),
+                low_price   = VALUES(low_price),
+                high_price  = VALUES(high_price),
+                yearly_diff = VALUES(yearly_diff)
+        """;
+
+    static final String[] STOCK_PRICE_COLUMNS = {
+            "close_price", "open_price", "low_price", "high_price", "trade_quantity", "trade_amount", "issued_count"
+    };
+
+    static final String[] INDEX_PRICE_COLUMNS = {
+            "close_price", "open_price", "low_price", "high_price", "yearly_diff"
+    };
+
+    // 현재 값 조회 한 번에 넣는 id 수
+    private static final int LOOKUP_BATCH = 1000;
+
+    static final String DIRTY_STOCK_MONTH_SQL = """
+            INSERT INTO dirty_stock_month (stock_id, base_date, dirtied_at)
+            VALUES (?, ?, NOW(6))
+            ON DUPLICATE KEY UPDATE dirtied_at = NOW(6), claimed_by = NULL
+        """;
+
+    static final String STOCK_PRICE_CORRECTION_SQL = """
+            INSERT INTO stock_price_correction (stock_id, base_date, corrected_at)
+            VALUES (?, ?, NOW(6))
+        """;
+
+    static final String DIRTY_INDEX_MONTH_SQL = """
+            INSERT INTO dirty_index_month (index_info_id, base_date, dirtied_at)
+            VALUES (?, ?, NOW(6))
+            ON DUPLICATE KEY UPDATE dirtied_at = NOW(6), claimed_by = NULL
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentLookupCache instrumentLookupCache;
+    private final ApplicationEventPublisher publisher;
+    // 싱글턴 Writer를 여러 Step이 동시에 쓸 수 있으므로 Step 시작 시점의 캐시 통계를 StepExecution별로 둡니다.
+    private final Map<Long, InstrumentLookupCache.Stats> statsAtStart = new ConcurrentHashMap<>();
+
+    public DailyPriceJdbcWriter(JdbcTemplate jdbcTemplate, InstrumentLookupCache instrumentLookupCache,
+                                ApplicationEventPublisher publisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.instrumentLookupCache = instrumentLookupCache;
+        this.publisher = publisher;
+    }
+
+    /**
+     * 다른 경로로 추가된 종목/지수를 반영하도록 Step 시작 시 캐시를 다시 적재
+     */
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        instrumentLookupCache.refresh();
+        statsAtStart.put(stepExecution.getId(), instrumentLookupCache.stats());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        InstrumentLookupCache.Stats stats = instrumentLookupCache.stats();
+        InstrumentLookupCache.Stats baseline = statsAtStart.remove(stepExecution.getId());
+        if (baseline != null) {
+            stats = stats.since(baseline);
+        }
+        log.info("{} instrument cache hits={} misses={} inserted={} hitRate={}",
+                stepExecution.getStepName(), stats.hits(), stats.misses(), stats.inserted(),
+                String.format("%.4f", stats.hitRate()));
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void write(Chunk<? extends DailyPriceRecord> chunk) {
+        List<DailyPriceRecord> stockRecords = new ArrayList<>();
+        List<DailyPriceRecord> indexRecords = new ArrayList<>();
+        for (DailyPriceRecord record : chunk) {
+            if (record.isStock()) {
+                stockRecords.add(record);
+            } else if (record.isIndex()) {
+                indexRecords.add(record);
+            }
+        }
+
+        if (!stockRecords.isEmpty()) {
+            writeStockPrices(stockRecords);
+        }
+        if (!indexRecords.isEmpty()) {
+            writeIndexPrices(indexRecords);
+        }
+    }
+
+    private void writeStockPrices(List<DailyPriceRecord> records) {
+        int[] stockIds = instrumentLookupCache.resolveStockIds(records);
+
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (int i = 0; i < stockIds.length; i++) {
+            DailyPriceRecord record = records.get(i);
+            int stockId = stockIds[i];
+            if (stockId == InstrumentLookupCache.NO_ID) {
+                log.warn("unknown stock isinCode={} ({}), skipped", record.getIsinCd(), record.getItmsNm());
+                continue;
+            }
+            rows.add(new Object[] {
+                    toInteger(record.getClpr()), toInteger(record.getMkp()), toInteger(record.getLopr()),
+                    toInteger(record.getHipr()), record.getTrqu(), record.getTrPrc(), record.getLstgStCnt(),
+                    record.getBaseDate(), stockId
+            });
+        }
+        List<Object[]> corrected = new ArrayList<>();
+        List<Object[]> changed = changedRows("stock_price", "stock_id", STOCK_PRICE_COLUMNS, rows, corrected);
+        jdbcTemplate.batchUpdate(STOCK_PRICE_UPSERT_SQL, changed);
+        if (!corrected.isEmpty()) {
+            jdbcTemplate.batchUpdate(STOCK_PRICE_CORRECTION_SQL, corrected);
+        }
+        List<Object[]> dirtyMonths = dirtyMonths(changed, 7);
+        jdbcTemplate.batchUpdate(DIRTY_STOCK_MONTH_SQL, dirtyMonths);
+        publishChanged(CalcPriceChangedEvent.Kind.STOCK, dirtyMonths, corrected);
+    }
+
+    private void writeIndexPrices(List<DailyPriceRecord> records) {
+        int[] indexIds = instrumentLookupCache.resolveIndexIds(records);
+
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (int i = 0; i < indexIds.length; i++) {
+            DailyPriceRecord record = records.get(i);
+            int indexInfoId = indexIds[i];
+            if (indexInfoId == InstrumentLookupCache.NO_ID) {
+                log.warn("unknown index name={} category={}, skipped", record.getIdxNm(), record.getIdxCsf());
+                continue;
+            }
+            rows.add(new Object[] {
+                    record.getClpr(), record.getMkp(), record.getLopr(), record.getHipr(),
+                    record.getLsYrEdVsFltRt(), record.getBaseDate(), indexInfoId
+            });
+        }
+        List<Object[]> changed = changedRows("index_price", "index_info_id", INDEX_PRICE_COLUMNS, rows, null);
+        jdbcTemplate.batchUpdate(INDEX_PRICE_UPSERT_SQL, changed);
+        List<Object[]> dirtyMonths = dirtyMonths(changed, 5);
+        jdbcTemplate.batchUpdate(DIRTY_INDEX_MONTH_SQL, dirtyMonths);
+        publishChanged(CalcPriceChangedEvent.Kind.INDEX, dirtyMonths, List.of());
+    }
+
+    /**
+     * UPSERT 할 행 중 새 행이거나 저장된 값과 하나라도 다른 행만 반환
+     * rewriteBatchedStatements로 묶인 배치는 행별 affected-row 수 대신 SUCCESS_NO_INFO를 돌려주므로,
+     * 같은 트랜잭션에서 현재 값을 먼저 읽어 비교합니다. 행은 columns 순서의 값 뒤에 base_date, 종목/지수 id가 옵니다.
+     * corrected가 있으면 이미 있던 행 중 값이 바뀐 행의 (id, base_date)를 담습니다.
+     */
+    private List<Object[]> changedRows(String table, String instrumentColumn, String[] columns, List<Object[]> rows,
+                                       List<Object[]> corrected) {
+        int dateIndex = columns.length;
+        Map<LocalDate, List<Integer>> idsByDate = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            idsByDate.computeIfAbsent((LocalDate) row[dateIndex], date -> new ArrayList<>()).add((Integer) row[dateIndex + 1]);
+        }
+
+        String select = "SELECT " + instrumentColumn + ", " + String.join(", ", columns) + " FROM " + table
+                + " WHERE base_date = ? AND " + instrumentColumn + " IN (";
+        Map<List<Object>, Object[]> stored = new HashMap<>();
+        idsByDate.forEach((date, ids) -> {
+            for (int from = 0; from < ids.size(); from += LOOKUP_BATCH) {
+                List<Integer> batch = ids.subList(from, Math.min(from + LOOKUP_BATCH, ids.size()));
+                Object[] args = new Object[batch.size() + 1];
+                args[0] = date;
+                for (int i = 0; i < batch.size(); i++) {
+                    args[i + 1] = batch.get(i);
+                }
+                jdbcTemplate.query(select + "?, ".repeat(batch.size() - 1) + "?)", rs -> {
+                    Object[] values = new Object[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        values[i] = rs.getObject(i + 2);
+                    }
+                    stored.put(List.of(rs.getInt(1), date), values);
+                }, args);
+            }
+        });
+
+        List<Object[]> changed = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] current = stored.get(List.of(row[dateIndex + 1], row[dateIndex]));
+            if (current == null) {
+                changed.add(row);
+            } else if (!sameValues(row, current)) {
+                changed.add(row);
+                if (corrected != null) {
+                    corrected.add(new Object[] { row[dateIndex + 1], row[dateIndex] });
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * row 앞쪽 값들이 저장된 값과 같은지 비교, 숫자는 Float/Double, Integer/Long 타입 차이를 무시합니다.
+     */
+    private static boolean sameValues(Object[] row, Object[] current) {
+        for (int i = 0; i < current.length; i++) {
+            Object value = row[i];
+            Object stored = current[i];
+            if (value == null || stored == null) {
+                if (value != stored) {
+                    return false;
+                }
+            } else if (value instanceof Number number && stored instanceof Number storedNumber) {
+                if (Double.compare(number.doubleValue(), storedNumber.doubleValue()) != 0) {
+                    return false;
+                }
+            } else if (!value.equals(stored)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * UPSERT 행들에서 중복 없는 (id, 월 1일) 목록을 추출
+     * dateIndex 위치의 값이 base_date, 그 다음 위치가 종목/지수 id입니다.
+     */
+    private static List<Object[]> dirtyMonths(List<Object[]> rows, int dateIndex) {
+        Set<List<Object>> months = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            LocalDate baseDate = (LocalDate) row[dateIndex];
+            months.add(List.of(row[dateIndex + 1], baseDate.withDayOfMonth(1)));
+        }
+        return months.stream().map(List::toArray).toList();
+    }
+
+    /**
+     * dirtyMonths의 (id, 월 1일) 목록과 값이 바뀐 기존 행 corrected의 (id, 일자) 목록을 이벤트로 발행,
+     * 수신 측은 청크 커밋 후에 처리합니다.
+     */
+    private void publishChanged(CalcPriceChangedEvent.Kind kind, List<Object[]> dirtyMonths, List<Object[]> corrected) {
+        if (dirtyMonths.isEmpty()) {
+            return;
+        }
+        Map<Integer, Set<YearMonth>> monthsByInstrument = new HashMap<>();
+        for (Object[] month : dirtyMonths) {
+            monthsByInstrument.computeIfAbsent((Integer) month[0], id -> new HashSet<>())
+                    .add(YearMonth.from((LocalDate) month[1]));
+        }
+        Map<Integer, Set<LocalDate>> correctedDaysByInstrument = new HashMap<>();
+        for (Object[] day : corrected) {
+            correctedDaysByInstrument.computeIfAbsent((Integer) day[0], id -> new HashSet<>()).add((LocalDate) day[1]);
+        }
+        publisher.publishEvent(new DailyPriceChangedEvent(kind, monthsByInstrument, correctedDaysByInstrument));
+    }
+
+    private static Integer toInteger(Float value) {
+        return value == null ? null : Math.round(value);
+    }
+}
@@ -0,0 +1,217 @@
+package com.chan.stock_batch_server.batch;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 한 해 분량의 종목 일별 시세를 열(column) 단위 primitive 배열로 보관하는 세그먼트
+ * 행은 (stockId, 일자) 순으로 정렬되어 있고, 종목별 행 구간은 instrumentIds/offsets로 찾습니다.
+ * 일자는 연중 일수(dayOfYear)를 short로 저장합니다.
+ * 생성 후에는 변경하지 않으며, 갱신은 merge로 새 세그먼트를 만듭니다.
+ */
+final class DailyPriceSegment {
+    // 행당 바이트 수: dayOfYear(2) + close/open/high/low/volume(4 x 5)
+    private static final int BYTES_PER_ROW = Short.BYTES + Integer.BYTES * 5;
+    private static final int BYTES_PER_INSTRUMENT = Integer.BYTES * 2;
+
+    final int year;
+    final int maxId;
+    final int[] instrumentIds;
+    final int[] offsets;
+    final short[] dayOfYear;
+    final int[] close;
+    final int[] open;
+    final int[] high;
+    final int[] low;
+    final int[] volume;
+
+    private DailyPriceSegment(Builder builder) {
+        int rows = builder.rows;
+        int instruments = builder.instruments;
+        this.year = builder.year;
+        this.maxId = builder.maxId;
+        this.instrumentIds = Arrays.copyOf(builder.instrumentIds, instruments);
+        this.offsets = Arrays.copyOf(builder.offsets, instruments + 1);
+        this.offsets[instruments] = rows;
+        this.dayOfYear = Arrays.copyOf(builder.dayOfYear, rows);
+        this.close = Arrays.copyOf(builder.close, rows);
+        this.open = Arrays.copyOf(builder.open, rows);
+        this.high = Arrays.copyOf(builder.high, rows);
+        this.low = Arrays.copyOf(builder.low, rows);
+        this.volume = Arrays.copyOf(builder.volume, rows);
+    }
+
+    int rowCount() {
+        return dayOfYear.length;
+    }
+
+    long bytes() {
+        return (long) rowCount() * BYTES_PER_ROW + (long) instrumentIds.length * BYTES_PER_INSTRUMENT;
+    }
+
+    /**
+     * [fromId, toId] 구간 종목들의 month 월 첫/마지막 종가와 평균을 계산
+     */
+    <T> void aggregateMonth(YearMonth month, int fromId, int toId,
+                            MonthlyAggregatingItemReader.MonthlyAggregateMapper<T> mapper, List<T> out) {
+        short firstDay = (short) month.atDay(1).getDayOfYear();
+        short lastDay = (short) month.atEndOfMonth().getDayOfYear();
+
+        int i = Arrays.binarySearch(instrumentIds, fromId);
+        for (i = i < 0 ? -i - 1 : i; i < instrumentIds.length && instrumentIds[i] <= toId; i++) {
+            int row = lowerBound(offsets[i], offsets[i + 1], firstDay);
+            int end = offsets[i + 1];
+            if (row >= end || dayOfYear[row] > lastDay) {
+                continue;
+            }
+
+            double startPrice = close[row];
+            double endPrice = startPrice;
+            long sum = 0;
+            int count = 0;
+            for (; row < end && dayOfYear[row] <= lastDay; row++) {
+                endPrice = close[row];
+                sum += close[row];
+                count++;
+            }
+            out.add(mapper.map(instrumentIds[i], month, startPrice, endPrice, (double) sum / count, count));
+        }
+    }
+
+    /**
+     * 기존 세그먼트에 새 행(같은 정렬 순서)을 합친 새 세그먼트, 같은 (종목, 일자)는 새 행이 우선합니다.
+     */
+    DailyPriceSegment merge(DailyPriceSegment added) {
+        Builder builder = new Builder(year, rowCount() + added.rowCount());
+        int a = 0;
+        int b = 0;
+        for (int ai = 0, bi = 0; ai < instrumentIds.length || bi < added.instrumentIds.length; ) {
+            int aId = ai < instrumentIds.length ? instrumentIds[ai] : Integer.MAX_VALUE;
+            int bId = bi < added.instrumentIds.length ? added.instrumentIds[bi] : Integer.MAX_VALUE;
+            if (aId < bId) {
+                for (; a < offsets[ai + 1]; a++) {
+                    builder.copyRow(aId, this, a);
+                }
+                ai++;
+            } else if (bId < aId) {
+                for (; b < added.offsets[bi + 1]; b++) {
+                    builder.copyRow(bId, added, b);
+                }
+                bi++;
+            } else {
+                int aEnd = offsets[ai + 1];
+                int bEnd = added.offsets[bi + 1];
+                while (a < aEnd || b < bEnd) {
+                    int aDay = a < aEnd ? dayOfYear[a] : Integer.MAX_VALUE;
+                    int bDay = b < bEnd ? added.dayOfYear[b] : Integer.MAX_VALUE;
+                    if (aDay < bDay) {
+                        builder.copyRow(aId, this, a++);
+                    } else {
+                        if (aDay == bDay) {
+                            a++;
+                        }
+                        builder.copyRow(bId, added, b++);
+                    }
+                }
+                ai++;
+                bi++;
+            }
+        }
+        builder.maxId = Math.max(maxId, added.maxId);
+        return builder.build();
+    }
+
+    private int lowerBound(int from, int to, short day) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (dayOfYear[mid] < day) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * (stockId, 일자) 순으로 들어오는 행을 배열에 쌓는 Builder
+     */
+    static final class Builder {
+        private final int year;
+        private int maxId;
+        private int rows;
+        private int instruments;
+        private int[] instrumentIds;
+        private int[] offsets;
+        private short[] dayOfYear;
+        private int[] close;
+        private int[] open;
+        private int[] high;
+        private int[] low;
+        private int[] volume;
+
+        Builder(int year, int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            this.year = year;
+            this.instrumentIds = new int[64];
+            this.offsets = new int[65];
+            this.dayOfYear = new short[capacity];
+            this.close = new int[capacity];
+            this.open = new int[capacity];
+            this.high = new int[capacity];
+            this.low = new int[capacity];
+            this.volume = new int[capacity];
+        }
+
+        void add(int id, int stockId, LocalDate baseDate, int closePrice, int openPrice, int highPrice,
+                 int lowPrice, int tradeQuantity) {
+            maxId = Math.max(maxId, id);
+            append(stockId, (short) baseDate.getDayOfYear(), closePrice, openPrice, highPrice, lowPrice, tradeQuantity);
+        }
+
+        void addDay(int stockId, short dayOfYear, int closePrice, int openPrice, int highPrice, int lowPrice,
+                    int tradeQuantity) {
+            append(stockId, dayOfYear, closePrice, openPrice, highPrice, lowPrice, tradeQuantity);
+        }
+
+        private void copyRow(int stockId, DailyPriceSegment source, int row) {
+            append(stockId, source.dayOfYear[row], source.close[row], source.open[row], source.high[row],
+                    source.low[row], source.volume[row]);
+        }
+
+        private void append(int stockId, short day, int closePrice, int openPrice, int highPrice, int lowPrice,
+                            int tradeQuantity) {
+            if (instruments == 0 || instrumentIds[instruments - 1] != stockId) {
+                if (instruments + 1 >= offsets.length) {
+                    instrumentIds = Arrays.copyOf(instrumentIds, instrumentIds.length * 2);
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                instrumentIds[instruments] = stockId;
+                offsets[instruments] = rows;
+                instruments++;
+            }
+            if (rows == dayOfYear.length) {
+                int capacity = rows * 2;
+                dayOfYear = Arrays.copyOf(dayOfYear, capacity);
+                close = Arrays.copyOf(close, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            dayOfYear[rows] = day;
+            close[rows] = closePrice;
+            open[rows] = openPrice;
+            high[rows] = highPrice;
+            low[rows] = lowPrice;
+            volume[rows] = tradeQuantity;
+            rows++;
+        }
+
+        DailyPriceSegment build() {
+            return new DailyPriceSegment(this);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 종목 일별 시세를 연도별 열 지향 세그먼트로 메모리에 올려 두고 월별 집계를 계산하는 저장소
+ * 세그먼트는 처음 조회될 때 적재되며, 메모리 예산을 넘으면 가장 오래 쓰이지 않은 연도부터 내립니다(LRU).
+ * refresh()는 stock_price.id 워터마크 이후 새로 INSERT 된 행만 읽어 적재된 세그먼트에 병합합니다.
+ * 같은 키를 덮어쓰는 UPSERT는 id가 바뀌지 않으므로, 적재 Writer의 커밋 후 이벤트(DailyPriceChangedEvent)에 담긴
+ * 수정된 (종목, 일자)만 현재 값으로 다시 읽어 적재된 세그먼트에 덮어 씁니다.
+ * PriceSnapshot이 매핑되어 있으면 세그먼트는 스냅샷에서 읽고, 스냅샷 maxId 이후 행과
+ * 스냅샷에 아직 반영되지 않은 수정(stock_price_correction) 행만 DB에서 읽어 덮어 씁니다.
+ */
+@Slf4j
+public class DailyPriceStore {
+    static final String YEAR_SQL = """
+            SELECT p.id, p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price,
+                   p.trade_quantity
+            FROM stock_price p
+            WHERE p.base_date >= ?
+              AND p.base_date <  ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    static final String SINCE_SQL = """
+            SELECT p.id, p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price,
+                   p.trade_quantity
+            FROM stock_price p
+            WHERE p.id > ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    static final String YEAR_SINCE_SQL = """
+            SELECT p.id, p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price,
+                   p.trade_quantity
+            FROM stock_price p
+            WHERE p.id > ?
+              AND p.base_date >= ?
+              AND p.base_date <  ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    /**
+     * 스냅샷 작성 이후 UPSERT로 값이 바뀐 행의 현재 값 (스냅샷 maxId 이후 행은 YEAR_SINCE_SQL이 읽습니다)
+     */
+    static final String YEAR_CORRECTED_SQL = """
+            SELECT p.id, p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price,
+                   p.trade_quantity
+            FROM (SELECT DISTINCT c.stock_id, c.base_date
+                  FROM stock_price_correction c
+                  WHERE c.base_date >= ?
+                    AND c.base_date <  ?) c
+            JOIN stock_price p
+              ON p.stock_id = c.stock_id
+             AND p.base_date = c.base_date
+            WHERE p.id <= ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    /**
+     * 지정한 (종목, 일자) 행의 현재 값, (?, ?) 자리는 patch()가 칸 수만큼 늘립니다.
+     */
+    static final String CELL_SQL = """
+            SELECT p.id, p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price,
+                   p.trade_quantity
+            FROM stock_price p
+            WHERE (p.stock_id, p.base_date) IN ((?, ?))
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    private static final int PATCH_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceSnapshot snapshot;
+    private final long memoryBudgetBytes;
+    // 접근 순서로 정렬되는 LinkedHashMap: 첫 항목이 가장 오래 쓰이지 않은 세그먼트
+    private final LinkedHashMap<Integer, DailyPriceSegment> segments = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long usedBytes;
+    private int watermark = -1;
+
+    public DailyPriceStore(JdbcTemplate jdbcTemplate, PriceSnapshot snapshot, long memoryBudgetBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = snapshot;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * [fromId, toId] 구간 종목의 month 월 집계를 stock id 순으로 반환
+     */
+    public <T> List<T> aggregateMonth(YearMonth month, int fromId, int toId,
+                                      MonthlyAggregatingItemReader.MonthlyAggregateMapper<T> mapper) {
+        List<T> result = new ArrayList<>();
+        segment(month.getYear()).aggregateMonth(month, fromId, toId, mapper, result);
+        return result;
+    }
+
+    /**
+     * 워터마크 이후 INSERT 된 시세를 적재된 세그먼트에 병합
+     * 적재된 연도가 없으면 워터마크만 현재 최대 id로 옮깁니다.
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            if (segments.isEmpty()) {
+                Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM stock_price", Integer.class);
+                watermark = maxId == null ? 0 : maxId;
+                return;
+            }
+
+            Map<Integer, DailyPriceSegment.Builder> added = new HashMap<>();
+            int[] maxId = { watermark };
+            jdbcTemplate.query(SINCE_SQL, rs -> {
+                LocalDate baseDate = rs.getObject("base_date", LocalDate.class);
+                int id = rs.getInt("id");
+                maxId[0] = Math.max(maxId[0], id);
+                if (segments.containsKey(baseDate.getYear())) {
+                    addRow(added.computeIfAbsent(baseDate.getYear(), year -> new DailyPriceSegment.Builder(year, 0)),
+                            id, rs.getInt("stock_id"), baseDate, rs);
+                }
+            }, watermark);
+
+            added.forEach((year, builder) -> {
+                DailyPriceSegment previous = segments.get(year);
+                DailyPriceSegment merged = previous.merge(builder.build());
+                segments.put(year, merged);
+                usedBytes += merged.bytes() - previous.bytes();
+            });
+            if (maxId[0] > watermark) {
+                log.info("daily price store refreshed watermark={} -> {} years={}", watermark, maxId[0], added.keySet());
+                watermark = maxId[0];
+            }
+            evictOverBudget(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * year 세그먼트를 메모리에서 내려 다음 조회 때 다시 적재하도록 함
+     */
+    public void invalidate(int year) {
+        lock.lock();
+        try {
+            DailyPriceSegment removed = segments.remove(year);
+            if (removed != null) {
+                usedBytes -= removed.bytes();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 적재 Writer 커밋 후 이미 있던 행의 값이 바뀐 (종목, 일자)를 적재된 세그먼트에 반영
+     * 새로 INSERT 된 행은 refresh()가 워터마크 이후 행으로 병합하므로 세그먼트를 내리지 않습니다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyPriceChanged(DailyPriceChangedEvent event) {
+        if (event.kind() != CalcPriceChangedEvent.Kind.STOCK || event.correctedDaysByInstrument().isEmpty()) {
+            return;
+        }
+        patch(event.correctedDaysByInstrument());
+    }
+
+    /**
+     * 적재된 연도에 속한 (종목, 일자)의 현재 값을 읽어 세그먼트에 병합(같은 칸은 새 값이 우선), 적재되지 않은 연도는 건너뜁니다.
+     */
+    void patch(Map<Integer, Set<LocalDate>> daysByStock) {
+        lock.lock();
+        try {
+            // 세그먼트 Builder는 (종목, 일자) 순서로 받아야 하므로 연도별로 정렬해 둡니다.
+            Map<Integer, List<Object[]>> cellsByYear = new TreeMap<>();
+            new TreeMap<>(daysByStock).forEach((stockId, days) -> new TreeSet<>(days).forEach(day -> {
+                if (segments.containsKey(day.getYear())) {
+                    cellsByYear.computeIfAbsent(day.getYear(), year -> new ArrayList<>())
+                            .add(new Object[] { stockId, day });
+                }
+            }));
+
+            cellsByYear.forEach((year, cells) -> {
+                DailyPriceSegment.Builder builder = new DailyPriceSegment.Builder(year, 0);
+                for (int from = 0; from < cells.size(); from += PATCH_BATCH) {
+                    List<Object[]> batch = cells.subList(from, Math.min(from + PATCH_BATCH, cells.size()));
+                    String sql = CELL_SQL.replace("(?, ?)", String.join(", ", Collections.nCopies(batch.size(), "(?, ?)")));
+                    query(builder, sql, batch.stream().flatMap(Arrays::stream).toArray());
+                }
+                DailyPriceSegment previous = segments.get(year);
+                DailyPriceSegment merged = previous.merge(builder.build());
+                segments.put(year, merged);
+                usedBytes += merged.bytes() - previous.bytes();
+                log.info("daily price store patched year={} cells={}", year, cells.size());
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    private DailyPriceSegment segment(int year) {
+        lock.lock();
+        try {
+            DailyPriceSegment segment = segments.get(year);
+            if (segment == null) {
+                if (watermark < 0) {
+                    refresh();
+                }
+                segment = load(year);
+                segments.put(year, segment);
+                usedBytes += segment.bytes();
+                evictOverBudget(year);
+            }
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DailyPriceSegment load(int year) {
+        long started = System.currentTimeMillis();
+        LocalDate from = LocalDate.of(year, 1, 1);
+        DailyPriceSegment segment;
+        String source;
+        if (snapshot.isAvailable()) {
+            int snapshotMaxId = snapshot.maxId();
+            DailyPriceSegment.Builder builder = new DailyPriceSegment.Builder(year, 1 << 16);
+            snapshot.loadYear(year, builder);
+            DailyPriceSegment.Builder delta = new DailyPriceSegment.Builder(year, 0);
+            query(delta, YEAR_SINCE_SQL, snapshotMaxId, from, from.plusYears(1));
+            DailyPriceSegment.Builder corrected = new DailyPriceSegment.Builder(year, 0);
+            query(corrected, YEAR_CORRECTED_SQL, from, from.plusYears(1), snapshotMaxId);
+            segment = builder.build().merge(delta.build()).merge(corrected.build());
+            source = "snapshot";
+        } else {
+            DailyPriceSegment.Builder builder = new DailyPriceSegment.Builder(year, 1 << 16);
+            query(builder, YEAR_SQL, from, from.plusYears(1));
+            segment = builder.build();
+            source = "database";
+        }
+        log.info("daily price store loaded year={} source={} rows={} bytes={} elapsed={}ms",
+                year, source, segment.rowCount(), segment.bytes(), System.currentTimeMillis() - started);
+        return segment;
+    }
+
+    private void query(DailyPriceSegment.Builder builder, String sql, Object... args) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            // MySQL 스트리밍 결과셋: 한 해 분량을 드라이버 버퍼에 모두 올리지 않습니다.
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, rs -> {
+            addRow(builder, rs.getInt("id"), rs.getInt("stock_id"), rs.getObject("base_date", LocalDate.class), rs);
+        });
+    }
+
+    /**
+     * 예산을 넘는 동안 가장 오래 쓰이지 않은 세그먼트부터 내림, pinned 연도는 방금 적재한 것이라 남깁니다.
+     */
+    private void evictOverBudget(Integer pinned) {
+        Iterator<Map.Entry<Integer, DailyPriceSegment>> iterator = segments.entrySet().iterator();
+        while (usedBytes > memoryBudgetBytes && iterator.hasNext()) {
+            Map.Entry<Integer, DailyPriceSegment> eldest = iterator.next();
+            if (eldest.getKey().equals(pinned)) {
+                continue;
+            }
+            iterator.remove();
+            usedBytes -= eldest.getValue().bytes();
+            log.info("daily price store evicted year={} usedBytes={}", eldest.getKey(), usedBytes);
+        }
+    }
+
+    private static void addRow(DailyPriceSegment.Builder builder, int id, int stockId, LocalDate baseDate,
+                               ResultSet rs) throws SQLException {
+        builder.add(id, stockId, baseDate,
+                rs.getInt("close_price"), rs.getInt("open_price"), rs.getInt("high_price"),
+                rs.getInt("low_price"), rs.getInt("trade_quantity"));
+    }
+}
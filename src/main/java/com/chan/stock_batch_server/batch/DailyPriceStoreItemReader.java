@@ -0,0 +1,48 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * DailyPriceStore에서 한 달 분량의 월별 집계를 계산하여 순서대로 내보내는 Reader
+ * open 시 저장소를 워터마크 기준으로 갱신한 뒤 [fromId, toId] 구간을 메모리에서 집계합니다.
+ */
+public class DailyPriceStoreItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+    private final DailyPriceStore store;
+    private final YearMonth month;
+    private final int fromId;
+    private final int toId;
+    private final MonthlyAggregatingItemReader.MonthlyAggregateMapper<T> mapper;
+    private List<T> items;
+    private int next;
+
+    public DailyPriceStoreItemReader(String name, DailyPriceStore store, YearMonth month, int fromId, int toId,
+                                     MonthlyAggregatingItemReader.MonthlyAggregateMapper<T> mapper) {
+        this.store = store;
+        this.month = month;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.mapper = mapper;
+        setName(name);
+    }
+
+    @Override
+    protected void doOpen() {
+        store.refresh();
+        items = store.aggregateMonth(month, fromId, toId, mapper);
+        next = 0;
+    }
+
+    @Override
+    protected T doRead() {
+        // 재시작 시에는 상위 클래스가 저장된 건수만큼 doRead를 호출하여 위치를 맞춥니다.
+        return next < items.size() ? items.get(next++) : null;
+    }
+
+    @Override
+    protected void doClose() {
+        items = null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 증분 Job의 첫 Step
+ * 1) 워터마크(ingest_watermark.last_id) 이후에 들어온 시세 행의 (종목, 월)을 Dirty 테이블에 표시하고 워터마크를 전진
+ * 2) 아직 선점되지 않았거나 실행이 모두 끝난 JobInstance가 남긴 Dirty 행을 현재 JobInstance id로 선점
+ * JobInstance로 선점하므로 재시작한 실행은 이 Step을 건너뛰어도 이전 실행이 선점한 행을 이어서 처리합니다.
+ * 적재 Writer는 같은 트랜잭션에서 직접 Dirty 행을 표시하므로, 워터마크는 그 밖의 경로로 들어온 행을 보완합니다.
+ */
+public class DirtyMonthClaimTasklet implements Tasklet {
+    private final JdbcTemplate jdbcTemplate;
+    private final String priceTable;
+    private final String instrumentColumn;
+    private final String dirtyTable;
+
+    public DirtyMonthClaimTasklet(JdbcTemplate jdbcTemplate, String priceTable, String instrumentColumn,
+                                  String dirtyTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceTable = priceTable;
+        this.instrumentColumn = instrumentColumn;
+        this.dirtyTable = dirtyTable;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        // 같은 시세 테이블의 증분 Job이 동시에 워터마크를 옮기지 않도록 행 잠금
+        jdbcTemplate.update("INSERT IGNORE INTO ingest_watermark (name, last_id) VALUES (?, 0)", priceTable);
+        Integer lastId = jdbcTemplate.queryForObject(
+                "SELECT last_id FROM ingest_watermark WHERE name = ? FOR UPDATE", Integer.class, priceTable);
+        Integer maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + priceTable, Integer.class);
+
+        if (maxId > lastId) {
+            jdbcTemplate.update("INSERT INTO " + dirtyTable + " (" + instrumentColumn + ", base_date, dirtied_at) "
+                    + "SELECT DISTINCT p." + instrumentColumn + ", "
+                    + "p.base_date - INTERVAL (DAYOFMONTH(p.base_date) - 1) DAY, NOW(6) "
+                    + "FROM " + priceTable + " p WHERE p.id > ? AND p.id <= ? "
+                    + "ON DUPLICATE KEY UPDATE dirtied_at = NOW(6), claimed_by = NULL", lastId, maxId);
+            jdbcTemplate.update("UPDATE ingest_watermark SET last_id = ? WHERE name = ?", maxId, priceTable);
+        }
+
+        // 실패 후 재시작되지 않은 JobInstance처럼 실행 중인 실행이 없는 JobInstance가 선점했던 행도 다시 가져옵니다.
+        long jobInstanceId = chunkContext.getStepContext().getStepExecution().getJobExecution()
+                .getJobInstance().getInstanceId();
+        int claimed = jdbcTemplate.update("UPDATE " + dirtyTable + " SET claimed_by = ? "
+                + "WHERE claimed_by IS NULL "
+                + "OR claimed_by IN (SELECT JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION "
+                + "GROUP BY JOB_INSTANCE_ID HAVING SUM(END_TIME IS NULL) = 0)",
+                jobInstanceId);
+        contribution.incrementWriteCount(claimed);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,29 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 증분 Job의 마지막 Step: 이번 JobInstance가 선점해 다시 계산한 Dirty 행을 삭제
+ */
+public class DirtyMonthCleanupTasklet implements Tasklet {
+    private final JdbcTemplate jdbcTemplate;
+    private final String dirtyTable;
+
+    public DirtyMonthCleanupTasklet(JdbcTemplate jdbcTemplate, String dirtyTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dirtyTable = dirtyTable;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        long jobInstanceId = chunkContext.getStepContext().getStepExecution().getJobExecution()
+                .getJobInstance().getInstanceId();
+        int deleted = jdbcTemplate.update("DELETE FROM " + dirtyTable + " WHERE claimed_by = ?", jobInstanceId);
+        contribution.incrementWriteCount(deleted);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,46 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 테이블의 id 공간을 gridSize 개의 연속 구간으로 나누는 Partitioner
+ * 각 파티션의 ExecutionContext에 minId, maxId를 담아 Worker Step에 전달합니다.
+ */
+public class IdRangePartitioner implements Partitioner {
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+
+    public IdRangePartitioner(JdbcTemplate jdbcTemplate, String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Integer minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM " + table, Integer.class);
+        Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (minId == null || maxId == null) {
+            return partitions;
+        }
+
+        int size = (int) Math.ceil((double) (maxId - minId + 1) / Math.max(gridSize, 1));
+        int number = 0;
+        for (int from = minId; from <= maxId; from += size) {
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(MIN_ID_KEY, from);
+            context.putInt(MAX_ID_KEY, Math.min(from + size - 1, maxId));
+            partitions.put("partition" + number++, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,295 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 적재 시 종목 코드(isinCode, shortCode)와 지수 (name, category)를 int id로 바꾸는 메모리 캐시
+ * 조회는 volatile 스냅샷을 잠금 없이 읽고, 처음 보는 종목/지수는 청크 단위로 모아
+ * INSERT IGNORE 한 번과 IN 조회 한 번으로 등록한 뒤 새 스냅샷을 공개합니다(copy-on-write).
+ * 등록은 별도 트랜잭션으로 커밋되므로 적재 청크가 롤백되어도 캐시에 없는 id가 남지 않습니다.
+ */
+@Slf4j
+public class InstrumentLookupCache {
+    public static final int NO_ID = StringIntHashMap.NO_VALUE;
+
+    static final String STOCK_INSERT_SQL = """
+            INSERT IGNORE INTO stock (name, short_code, isin_code, market_category, start_at)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+
+    static final String INDEX_INSERT_SQL = """
+            INSERT IGNORE INTO index_info (name, category, start_at)
+            VALUES (?, ?, ?)
+        """;
+
+    /**
+     * 한 시점의 조회 테이블 묶음, 공개된 뒤에는 변경하지 않습니다.
+     */
+    private record Snapshot(StringIntHashMap stockByIsin, StringIntHashMap stockByShortCode,
+                            StringIntHashMap indexByKey) {
+    }
+
+    /**
+     * 캐시 적중/미적중 및 신규 등록 건수 (기동 이후 누적)
+     */
+    public record Stats(long hits, long misses, long inserted, int stocks, int indices) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        /**
+         * baseline 이후 늘어난 건수, Step이나 적재 한 번의 구간 통계를 낼 때 시작 시점의 stats()를 baseline으로 씁니다.
+         * 같은 캐시를 쓰는 다른 작업이 동시에 돌면 그 건수도 포함됩니다.
+         */
+        public Stats since(Stats baseline) {
+            return new Stats(hits - baseline.hits, misses - baseline.misses, inserted - baseline.inserted,
+                    stocks, indices);
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    // synchronized 대신 사용하여 가상 스레드가 DB 대기 중 캐리어 스레드를 고정하지 않도록 합니다.
+    private final ReentrantLock registerLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder inserted = new LongAdder();
+    private volatile Snapshot snapshot;
+
+    public InstrumentLookupCache(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager txMgr) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(txMgr);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * stock, index_info 전체를 다시 읽어 스냅샷을 교체
+     */
+    public void refresh() {
+        registerLock.lock();
+        try {
+            Integer stockCount = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM stock", Integer.class);
+            Integer indexCount = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM index_info", Integer.class);
+            StringIntHashMap byIsin = new StringIntHashMap(stockCount);
+            StringIntHashMap byShortCode = new StringIntHashMap(stockCount);
+            StringIntHashMap byKey = new StringIntHashMap(indexCount);
+
+            jdbcTemplate.getJdbcTemplate().query("SELECT id, isin_code, short_code FROM stock", rs -> {
+                putIfPresent(byIsin, rs.getString("isin_code"), rs.getInt("id"));
+                putIfPresent(byShortCode, rs.getString("short_code"), rs.getInt("id"));
+            });
+            jdbcTemplate.getJdbcTemplate().query("SELECT id, name, category FROM index_info", rs -> {
+                byKey.put(indexKey(rs.getString("name"), rs.getString("category")), rs.getInt("id"));
+            });
+
+            snapshot = new Snapshot(byIsin, byShortCode, byKey);
+            log.info("instrument cache loaded stocks={} indices={}", byIsin.size(), byKey.size());
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    /**
+     * isinCode로 종목 id 조회, 없으면 NO_ID
+     */
+    public int stockIdByIsinCode(String isinCode) {
+        return recordHit(current().stockByIsin().get(isinCode));
+    }
+
+    /**
+     * 단축코드로 종목 id 조회, 없으면 NO_ID
+     */
+    public int stockIdByShortCode(String shortCode) {
+        return recordHit(current().stockByShortCode().get(shortCode));
+    }
+
+    /**
+     * (name, category)로 지수 id 조회, 없으면 NO_ID
+     */
+    public int indexIdByKey(String name, String category) {
+        return recordHit(current().indexByKey().get(indexKey(name, category)));
+    }
+
+    /**
+     * 레코드별 종목 id를 반환하며, 처음 보는 isinCode는 한 번에 등록합니다.
+     */
+    public int[] resolveStockIds(List<DailyPriceRecord> records) {
+        int[] ids = new int[records.size()];
+        Map<String, DailyPriceRecord> unseen = new LinkedHashMap<>();
+        StringIntHashMap byIsin = current().stockByIsin();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = recordHit(byIsin.get(records.get(i).getIsinCd()));
+            if (ids[i] == NO_ID) {
+                unseen.putIfAbsent(records.get(i).getIsinCd(), records.get(i));
+            }
+        }
+        if (unseen.isEmpty()) {
+            return ids;
+        }
+
+        StringIntHashMap registered = registerStocks(unseen);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == NO_ID) {
+                ids[i] = registered.get(records.get(i).getIsinCd());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 레코드별 지수 id를 반환하며, 처음 보는 (name, category)는 한 번에 등록합니다.
+     */
+    public int[] resolveIndexIds(List<DailyPriceRecord> records) {
+        int[] ids = new int[records.size()];
+        Map<String, DailyPriceRecord> unseen = new LinkedHashMap<>();
+        StringIntHashMap byKey = current().indexByKey();
+        for (int i = 0; i < ids.length; i++) {
+            String key = indexKey(records.get(i).getIdxNm(), records.get(i).getIdxCsf());
+            ids[i] = recordHit(byKey.get(key));
+            if (ids[i] == NO_ID) {
+                unseen.putIfAbsent(key, records.get(i));
+            }
+        }
+        if (unseen.isEmpty()) {
+            return ids;
+        }
+
+        StringIntHashMap registered = registerIndices(unseen);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == NO_ID) {
+                ids[i] = registered.get(indexKey(records.get(i).getIdxNm(), records.get(i).getIdxCsf()));
+            }
+        }
+        return ids;
+    }
+
+    public Stats stats() {
+        Snapshot current = snapshot;
+        return new Stats(hits.sum(), misses.sum(), inserted.sum(),
+                current == null ? 0 : current.stockByIsin().size(),
+                current == null ? 0 : current.indexByKey().size());
+    }
+
+    private StringIntHashMap registerStocks(Map<String, DailyPriceRecord> unseen) {
+        registerLock.lock();
+        try {
+            // 잠금을 기다리는 동안 다른 스레드가 등록했을 수 있으므로 다시 확인합니다.
+            Snapshot current = snapshot;
+            List<DailyPriceRecord> missing = unseen.values().stream()
+                    .filter(record -> current.stockByIsin().get(record.getIsinCd()) == NO_ID)
+                    .toList();
+            if (missing.isEmpty()) {
+                return current.stockByIsin();
+            }
+
+            StringIntHashMap byIsin = StringIntHashMap.copyOf(current.stockByIsin(), missing.size());
+            StringIntHashMap byShortCode = StringIntHashMap.copyOf(current.stockByShortCode(), missing.size());
+            requiresNew.executeWithoutResult(status -> {
+                List<Object[]> rows = new ArrayList<>(missing.size());
+                for (DailyPriceRecord record : missing) {
+                    rows.add(new Object[] {
+                            record.getItmsNm(), record.getSrtnCd(), record.getIsinCd(), record.getMrktCtg(),
+                            record.getBaseDate()
+                    });
+                }
+                inserted.add(Arrays.stream(jdbcTemplate.getJdbcTemplate().batchUpdate(STOCK_INSERT_SQL, rows))
+                        .filter(count -> count > 0)
+                        .count());
+                jdbcTemplate.query("SELECT id, isin_code, short_code FROM stock WHERE isin_code IN (:codes)",
+                        new MapSqlParameterSource("codes", missing.stream().map(DailyPriceRecord::getIsinCd).toList()),
+                        rs -> {
+                            putIfPresent(byIsin, rs.getString("isin_code"), rs.getInt("id"));
+                            putIfPresent(byShortCode, rs.getString("short_code"), rs.getInt("id"));
+                        });
+            });
+
+            snapshot = new Snapshot(byIsin, byShortCode, current.indexByKey());
+            return byIsin;
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    private StringIntHashMap registerIndices(Map<String, DailyPriceRecord> unseen) {
+        registerLock.lock();
+        try {
+            Snapshot current = snapshot;
+            List<DailyPriceRecord> missing = unseen.entrySet().stream()
+                    .filter(entry -> current.indexByKey().get(entry.getKey()) == NO_ID)
+                    .map(Map.Entry::getValue)
+                    .toList();
+            if (missing.isEmpty()) {
+                return current.indexByKey();
+            }
+
+            StringIntHashMap byKey = StringIntHashMap.copyOf(current.indexByKey(), missing.size());
+            requiresNew.executeWithoutResult(status -> {
+                List<Object[]> rows = new ArrayList<>(missing.size());
+                List<Object[]> keys = new ArrayList<>(missing.size());
+                for (DailyPriceRecord record : missing) {
+                    rows.add(new Object[] { record.getIdxNm(), record.getIdxCsf(), record.getBaseDate() });
+                    keys.add(new Object[] { record.getIdxNm(), record.getIdxCsf() });
+                }
+                inserted.add(Arrays.stream(jdbcTemplate.getJdbcTemplate().batchUpdate(INDEX_INSERT_SQL, rows))
+                        .filter(count -> count > 0)
+                        .count());
+                jdbcTemplate.query("SELECT id, name, category FROM index_info WHERE (name, category) IN (:keys)",
+                        new MapSqlParameterSource("keys", keys),
+                        rs -> {
+                            byKey.put(indexKey(rs.getString("name"), rs.getString("category")), rs.getInt("id"));
+                        });
+            });
+
+            snapshot = new Snapshot(current.stockByIsin(), current.stockByShortCode(), byKey);
+            return byKey;
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * 조회 결과로 적중·미스 통계를 세고 id를 그대로 반환
+     */
+    private int recordHit(int id) {
+        if (id == NO_ID) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return id;
+    }
+
+    private static void putIfPresent(StringIntHashMap map, String key, int id) {
+        if (key != null) {
+            map.put(key, id);
+        }
+    }
+
+    private static String indexKey(String name, String category) {
+        return name + '\u0000' + category;
+    }
+}
@@ -0,0 +1,78 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 업로드된 시세 JSON 파일을 토큰 단위로 스트리밍하며 배열 안의 객체를 한 건씩 읽는 Reader
+ * 파일 전체를 트리로 올리지 않으므로 파일 크기와 관계없이 메모리 사용량이 일정합니다.
+ * ({"response":{"body":{"items":{"item":[...]}}}} 형태와 최상위 배열 형태 모두 지원)
+ * .json.gz 파일과 zip 안의 항목은 PriceFileSource가 스트림으로 압축을 풀어 전달합니다.
+ */
+public class JsonPriceItemReader extends AbstractItemCountingItemStreamItemReader<DailyPriceRecord> {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader recordReader;
+    private final PriceFileSource source;
+    private JsonParser parser;
+
+    public JsonPriceItemReader(ObjectMapper objectMapper, Path file) {
+        this(objectMapper, new PriceFileSource(file, null));
+    }
+
+    public JsonPriceItemReader(ObjectMapper objectMapper, PriceFileSource source) {
+        this.objectMapper = objectMapper;
+        this.recordReader = objectMapper.readerFor(DailyPriceRecord.class);
+        this.source = source;
+        setName("jsonPriceItemReader");
+    }
+
+    /**
+     * 파일 앞부분에서 처음 나오는 basDt만 읽어 거래일을 확인, 레코드가 없으면 null
+     */
+    public static LocalDate peekBaseDate(ObjectMapper objectMapper, PriceFileSource source) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(source.open())) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && "basDt".equals(parser.currentName())) {
+                    parser.nextToken();
+                    return LocalDate.parse(parser.getValueAsString(), DateTimeFormatter.BASIC_ISO_DATE);
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        parser = objectMapper.getFactory().createParser(source.open());
+    }
+
+    @Override
+    protected DailyPriceRecord doRead() throws Exception {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            // 배열의 원소인 객체만 레코드로 취급합니다.
+            if (token == JsonToken.START_OBJECT && parser.getParsingContext().getParent().inArray()) {
+                return recordReader.readValue(parser);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (parser != null) {
+            parser.close();
+            parser = null;
+        }
+    }
+}
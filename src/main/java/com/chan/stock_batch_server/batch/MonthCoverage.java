@@ -0,0 +1,130 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.BackfillPlan;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 종목(또는 지수)별 월 적용 범위 색인
+ * 종목마다 1970-01부터의 월 번호로 색인한 비트셋 세 개(일별 시세 있음, 월별 결과 있음, 결과 이후 일별 시세 변경)를 둡니다.
+ * 종목 3천 개 × 30년이어도 수백 KB라 메모리에 올려 두고 Writer 이벤트로 갱신합니다.
+ */
+public final class MonthCoverage {
+    static final YearMonth EPOCH = YearMonth.of(1970, 1);
+
+    private static final class Cells {
+        private final BitSet daily = new BitSet();
+        private final BitSet calculated = new BitSet();
+        private final BitSet stale = new BitSet();
+    }
+
+    private final CalcPriceChangedEvent.Kind kind;
+    private final Map<Integer, Cells> cellsById = new HashMap<>();
+
+    public MonthCoverage(CalcPriceChangedEvent.Kind kind) {
+        this.kind = kind;
+    }
+
+    static int index(YearMonth month) {
+        return (month.getYear() - EPOCH.getYear()) * 12 + month.getMonthValue() - 1;
+    }
+
+    static YearMonth month(int index) {
+        return EPOCH.plusMonths(index);
+    }
+
+    /**
+     * 일별 시세가 들어온 칸: 월별 결과가 있으면 다시 계산할 대상이 됩니다.
+     */
+    public synchronized void markDaily(int instrumentId, YearMonth month) {
+        Cells cells = cells(instrumentId);
+        int i = index(month);
+        cells.daily.set(i);
+        if (cells.calculated.get(i)) {
+            cells.stale.set(i);
+        }
+    }
+
+    /**
+     * 월별 결과가 쓰인 칸
+     */
+    public synchronized void markCalculated(int instrumentId, YearMonth month) {
+        Cells cells = cells(instrumentId);
+        int i = index(month);
+        cells.calculated.set(i);
+        cells.stale.clear(i);
+    }
+
+    /**
+     * 시작 시 Dirty 테이블에서 읽은, 아직 다시 계산되지 않은 칸
+     */
+    public synchronized void markStale(int instrumentId, YearMonth month) {
+        cells(instrumentId).stale.set(index(month));
+    }
+
+    public synchronized int instruments() {
+        return cellsById.size();
+    }
+
+    /**
+     * from~to(포함) 기간에서 일별 시세가 있는데 결과가 없거나 낡은 칸이 하나라도 있는 월과 그 연속 구간
+     */
+    public synchronized BackfillPlan plan(YearMonth from, YearMonth to) {
+        int lo = index(from);
+        int hi = index(to) + 1;
+        int[] missing = new int[Math.max(hi - lo, 0)];
+        int[] stale = new int[missing.length];
+        long missingCells = 0;
+        long staleCells = 0;
+
+        for (Cells cells : cellsById.values()) {
+            BitSet daily = cells.daily.get(lo, hi);
+            BitSet absent = (BitSet) daily.clone();
+            absent.andNot(cells.calculated.get(lo, hi));
+            BitSet changed = cells.stale.get(lo, hi);
+            changed.and(daily);
+            changed.andNot(absent);
+            for (int i = absent.nextSetBit(0); i >= 0; i = absent.nextSetBit(i + 1)) {
+                missing[i]++;
+                missingCells++;
+            }
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                stale[i]++;
+                staleCells++;
+            }
+        }
+
+        List<BackfillPlan.MonthNeed> months = new ArrayList<>();
+        List<BackfillPlan.MonthRange> ranges = new ArrayList<>();
+        YearMonth rangeStart = null;
+        YearMonth previous = null;
+        for (int i = 0; i < missing.length; i++) {
+            if (missing[i] == 0 && stale[i] == 0) {
+                continue;
+            }
+            YearMonth month = month(lo + i);
+            months.add(new BackfillPlan.MonthNeed(month, missing[i], stale[i]));
+            if (previous == null || !previous.plusMonths(1).equals(month)) {
+                if (rangeStart != null) {
+                    ranges.add(new BackfillPlan.MonthRange(rangeStart, previous));
+                }
+                rangeStart = month;
+            }
+            previous = month;
+        }
+        if (rangeStart != null) {
+            ranges.add(new BackfillPlan.MonthRange(rangeStart, previous));
+        }
+        return new BackfillPlan(kind, from, to, cellsById.size(), missingCells, staleCells, months, ranges, 0);
+    }
+
+    private Cells cells(int instrumentId) {
+        return cellsById.computeIfAbsent(instrumentId, id -> new Cells());
+    }
+}
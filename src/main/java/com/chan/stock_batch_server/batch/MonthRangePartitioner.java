@@ -0,0 +1,35 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * startMonth~endMonth를 월 하나당 파티션 하나로 나누는 Partitioner
+ * 각 파티션의 ExecutionContext에 month(yyyy-MM)를 담아 Worker Step에 전달하며, gridSize는 사용하지 않습니다.
+ */
+public class MonthRangePartitioner implements Partitioner {
+    public static final String MONTH_KEY = "month";
+
+    private final YearMonth startMonth;
+    private final YearMonth endMonth;
+
+    public MonthRangePartitioner(YearMonth startMonth, YearMonth endMonth) {
+        this.startMonth = startMonth;
+        this.endMonth = endMonth;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (YearMonth month = startMonth; !month.isAfter(endMonth); month = month.plusMonths(1)) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(MONTH_KEY, month.toString());
+            partitions.put("month" + month, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,134 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.DailyClosePrice;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.time.YearMonth;
+
+/**
+ * (instrumentId, baseDate) 순으로 정렬된 일별 종가를 한 번 훑으면서
+ * (instrumentId, 월)이 바뀔 때마다 월별 집계 한 건을 만들어 내는 Reader
+ * 재시작 시 delegate를 받은 경우 저장된 건수만큼 다시 읽어 위치를 복원하고,
+ * ResumableSource를 받은 경우 마지막으로 커밋된 (instrumentId, 월) 다음부터 다시 조회합니다.
+ */
+public class MonthlyAggregatingItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+    private static final String LAST_INSTRUMENT_ID = "last.instrument.id";
+    private static final String LAST_MONTH = "last.month";
+
+    /**
+     * 월별 집계 결과를 출력 타입으로 변환
+     */
+    @FunctionalInterface
+    public interface MonthlyAggregateMapper<T> {
+        T map(int instrumentId, YearMonth month, double startPrice, double endPrice, double averagePrice,
+              int tradingDays);
+    }
+
+    /**
+     * (lastInstrumentId, lastMonth) 이후의 일별 종가만 읽는 delegate 생성, 처음 실행이면 둘 다 null입니다.
+     */
+    @FunctionalInterface
+    public interface ResumableSource {
+        ItemStreamReader<DailyClosePrice> open(Integer lastInstrumentId, YearMonth lastMonth);
+    }
+
+    private final ResumableSource source;
+    private final MonthlyAggregateMapper<T> mapper;
+    private ItemStreamReader<DailyClosePrice> delegate;
+    private DailyClosePrice next;
+    private Integer lastInstrumentId;
+    private YearMonth lastMonth;
+
+    public MonthlyAggregatingItemReader(String name, ItemStreamReader<DailyClosePrice> delegate,
+                                        MonthlyAggregateMapper<T> mapper) {
+        this.source = null;
+        this.delegate = delegate;
+        this.mapper = mapper;
+        setName(name);
+    }
+
+    public MonthlyAggregatingItemReader(String name, ResumableSource source, MonthlyAggregateMapper<T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+        setName(name);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        lastInstrumentId = null;
+        lastMonth = null;
+        if (source != null) {
+            if (executionContext.containsKey(getExecutionContextKey(LAST_MONTH))) {
+                lastInstrumentId = executionContext.getInt(getExecutionContextKey(LAST_INSTRUMENT_ID));
+                lastMonth = YearMonth.parse(executionContext.getString(getExecutionContextKey(LAST_MONTH)));
+            }
+            delegate = source.open(lastInstrumentId, lastMonth);
+        }
+        delegate.open(executionContext);
+        super.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        super.update(executionContext);
+        if (source != null && isSaveState() && lastMonth != null) {
+            executionContext.putInt(getExecutionContextKey(LAST_INSTRUMENT_ID), lastInstrumentId);
+            executionContext.putString(getExecutionContextKey(LAST_MONTH), lastMonth.toString());
+        }
+    }
+
+    /**
+     * ResumableSource는 이미 마지막 위치 다음부터 조회하므로 건수만 복원하고 다시 읽지 않습니다.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (source == null) {
+            super.jumpToItem(itemIndex);
+        }
+    }
+
+    @Override
+    protected void doOpen() {
+        next = null;
+    }
+
+    @Override
+    protected T doRead() throws Exception {
+        DailyClosePrice row = next != null ? next : delegate.read();
+        if (row == null) {
+            return null;
+        }
+
+        int instrumentId = row.getInstrumentId();
+        YearMonth month = YearMonth.from(row.getBaseDate());
+        double startPrice = row.getClosePrice();
+        double endPrice = startPrice;
+        double sum = 0;
+        int count = 0;
+
+        while (row != null
+                && row.getInstrumentId() == instrumentId
+                && YearMonth.from(row.getBaseDate()).equals(month)) {
+            endPrice = row.getClosePrice();
+            sum += endPrice;
+            count++;
+            row = delegate.read();
+        }
+        next = row;
+        lastInstrumentId = instrumentId;
+        lastMonth = month;
+
+        return mapper.map(instrumentId, month, startPrice, endPrice, sum / count, count);
+    }
+
+    @Override
+    protected void doClose() {
+        next = null;
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+}
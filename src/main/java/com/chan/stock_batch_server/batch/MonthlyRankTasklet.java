@@ -0,0 +1,220 @@
+package com.chan.stock_batch_server.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 달치 종목 월간 수익률을 primitive 배열로 읽어 카테고리별·전체 순위를 계산하고 calc_stock_rank를 다시 쓰는 Tasklet
+ * (카테고리, 수익률 내림차순, 행 번호)를 long 하나로 묶어 Arrays.parallelSort(fork-join)로 한 번에 정렬합니다.
+ * 해당 월의 기존 순위는 지우고 새로 INSERT 하므로, 상장 폐지 등으로 빠진 종목의 순위도 남지 않습니다.
+ */
+@Slf4j
+public class MonthlyRankTasklet implements Tasklet {
+    static final String SELECT_SQL = """
+            SELECT c.stock_id, COALESCE(s.market_category, '') AS market_category, c.monthly_ror
+            FROM calc_stock_price c
+            JOIN stock s ON s.id = c.stock_id
+            WHERE c.base_date = ?
+              AND c.monthly_ror IS NOT NULL
+        """;
+
+    static final String INSERT_SQL = """
+            INSERT INTO calc_stock_rank (base_date, stock_id, market_category, monthly_ror, ror_rank, category_size,
+                                         percentile, decile, overall_rank)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final int ROW_BITS = 24;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final YearMonth month;
+
+    public MonthlyRankTasklet(JdbcTemplate jdbcTemplate, YearMonth month) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.month = month;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        long started = System.currentTimeMillis();
+        LocalDate baseDate = month.atDay(1);
+
+        MonthRows rows = new MonthRows();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            rows.add(rs.getInt("stock_id"), rs.getString("market_category"), rs.getFloat("monthly_ror"));
+        }, baseDate);
+
+        Ranks ranks = rank(Arrays.copyOf(rows.categoryOf, rows.size), Arrays.copyOf(rows.ror, rows.size));
+
+        jdbcTemplate.update("DELETE FROM calc_stock_rank WHERE base_date = ?", baseDate);
+        for (int from = 0; from < rows.size; from += BATCH_SIZE) {
+            int start = from;
+            int end = Math.min(from + BATCH_SIZE, rows.size);
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int row = start + i;
+                    ps.setObject(1, baseDate);
+                    ps.setInt(2, rows.stockIds[row]);
+                    ps.setString(3, rows.categories.get(rows.categoryOf[row]));
+                    ps.setFloat(4, rows.ror[row]);
+                    ps.setInt(5, ranks.categoryRank[row]);
+                    ps.setInt(6, ranks.categorySize[row]);
+                    ps.setFloat(7, ranks.percentile[row]);
+                    ps.setInt(8, ranks.decile[row]);
+                    ps.setInt(9, ranks.overallRank[row]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return end - start;
+                }
+            });
+        }
+
+        contribution.incrementWriteCount(rows.size);
+        log.info("monthly rank month={} stocks={} categories={} elapsed={}ms",
+                month, rows.size, rows.categories.size(), System.currentTimeMillis() - started);
+        return RepeatStatus.FINISHED;
+    }
+
+    /**
+     * 행마다 카테고리 번호(0~127)와 수익률을 받아 순위를 계산
+     * 정렬 키: 카테고리(상위 8비트) | 수익률 내림차순(32비트) | 행 번호(하위 24비트)
+     */
+    static Ranks rank(byte[] categoryOf, float[] ror) {
+        int n = ror.length;
+        if (n >= 1 << ROW_BITS) {
+            throw new IllegalArgumentException("too many rows to rank: " + n);
+        }
+        Ranks ranks = new Ranks(n);
+
+        long[] byCategory = new long[n];
+        long[] overall = new long[n];
+        for (int row = 0; row < n; row++) {
+            long descending = descendingKey(ror[row]);
+            byCategory[row] = ((long) categoryOf[row] << (32 + ROW_BITS)) | (descending << ROW_BITS) | row;
+            overall[row] = (descending << ROW_BITS) | row;
+        }
+        Arrays.parallelSort(byCategory);
+        Arrays.parallelSort(overall);
+
+        for (int groupStart = 0; groupStart < n; ) {
+            long group = byCategory[groupStart] >>> (32 + ROW_BITS);
+            int groupEnd = groupStart;
+            while (groupEnd < n && byCategory[groupEnd] >>> (32 + ROW_BITS) == group) {
+                groupEnd++;
+            }
+            int groupSize = groupEnd - groupStart;
+            for (int runStart = groupStart; runStart < groupEnd; ) {
+                int runEnd = runStart + 1;
+                while (runEnd < groupEnd && valueBits(byCategory[runEnd]) == valueBits(byCategory[runStart])) {
+                    runEnd++;
+                }
+                // 같은 수익률 묶음은 같은 순위, 백분위는 묶음 뒤쪽(수익률이 더 낮은) 종목 수 / (n - 1)
+                int rank = runStart - groupStart + 1;
+                float percentile = groupSize == 1 ? 0f : (float) (groupEnd - runEnd) / (groupSize - 1);
+                int decile = 1 + (int) ((long) (rank - 1) * 10 / groupSize);
+                for (int i = runStart; i < runEnd; i++) {
+                    int row = (int) (byCategory[i] & ROW_MASK);
+                    ranks.categoryRank[row] = rank;
+                    ranks.categorySize[row] = groupSize;
+                    ranks.percentile[row] = percentile;
+                    ranks.decile[row] = decile;
+                }
+                runStart = runEnd;
+            }
+            groupStart = groupEnd;
+        }
+
+        int rank = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || valueBits(overall[i]) != valueBits(overall[i - 1])) {
+                rank = i + 1;
+            }
+            ranks.overallRank[(int) (overall[i] & ROW_MASK)] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * float 비트를 부호 없는 32비트 정수로 바꾸되 큰 수익률일수록 작은 값이 되도록 뒤집은 키
+     */
+    private static long descendingKey(float value) {
+        int bits = Float.floatToIntBits(value == 0f ? 0f : value);
+        // 음수는 크기 비트를 뒤집어 부호 있는 int 순서가 float 순서와 같게 만듭니다.
+        int sortable = bits ^ ((bits >> 31) & 0x7fffffff);
+        return 0xffffffffL - ((long) sortable - Integer.MIN_VALUE);
+    }
+
+    private static long valueBits(long key) {
+        return (key >>> ROW_BITS) & 0xffffffffL;
+    }
+
+    /**
+     * 한 달치 (종목, 카테고리 번호, 수익률)을 쌓는 primitive 배열
+     */
+    private static final class MonthRows {
+        private final Map<String, Integer> categoryIndex = new HashMap<>();
+        private final List<String> categories = new ArrayList<>();
+        private int size;
+        private int[] stockIds = new int[4096];
+        private byte[] categoryOf = new byte[4096];
+        private float[] ror = new float[4096];
+
+        void add(int stockId, String category, float monthlyRor) {
+            if (Float.isNaN(monthlyRor)) {
+                return;
+            }
+            if (size == stockIds.length) {
+                stockIds = Arrays.copyOf(stockIds, size * 2);
+                categoryOf = Arrays.copyOf(categoryOf, size * 2);
+                ror = Arrays.copyOf(ror, size * 2);
+            }
+            int index = categoryIndex.computeIfAbsent(category, key -> {
+                if (categories.size() > Byte.MAX_VALUE) {
+                    throw new IllegalStateException("too many market categories: " + categories.size());
+                }
+                categories.add(key);
+                return categories.size() - 1;
+            });
+            stockIds[size] = stockId;
+            categoryOf[size] = (byte) index;
+            ror[size] = monthlyRor;
+            size++;
+        }
+    }
+
+    static final class Ranks {
+        final int[] categoryRank;
+        final int[] categorySize;
+        final float[] percentile;
+        final int[] decile;
+        final int[] overallRank;
+
+        private Ranks(int n) {
+            this.categoryRank = new int[n];
+            this.categorySize = new int[n];
+            this.percentile = new float[n];
+            this.decile = new int[n];
+            this.overallRank = new int[n];
+        }
+    }
+}
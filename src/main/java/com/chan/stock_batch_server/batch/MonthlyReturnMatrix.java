@@ -0,0 +1,92 @@
+package com.chan.stock_batch_server.batch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * 종목(또는 지수)별 월간 수익률을 [시계열][월] 밀집 배열로 보관하는 행렬
+ * 월은 firstMonth부터의 월 번호(0 ~ months-1)로 정렬되므로 시계열끼리 조인 없이 같은 칸끼리 맞춰 봅니다.
+ * 값이 없는 칸은 value 0, present 0으로 두어 두 시계열이 모두 있는 월만 곱셈으로 골라냅니다.
+ */
+public final class MonthlyReturnMatrix {
+    final int[] ids;
+    final int months;
+    // ids.length * months, 시계열 하나가 연속된 months 칸을 차지합니다.
+    final double[] values;
+    final double[] present;
+
+    private MonthlyReturnMatrix(int[] ids, int months, double[] values, double[] present) {
+        this.ids = ids;
+        this.months = months;
+        this.values = values;
+        this.present = present;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * table의 [firstMonth, firstMonth + months) 월간 수익률을 instrumentColumn 순으로 읽어 행렬을 만듦
+     */
+    public static MonthlyReturnMatrix load(JdbcTemplate jdbcTemplate, String table, String instrumentColumn,
+                                           YearMonth firstMonth, int months) {
+        Builder builder = new Builder(months);
+        jdbcTemplate.query("SELECT c." + instrumentColumn + ", c.base_date, c.monthly_ror FROM " + table + " c "
+                        + "WHERE c.base_date >= ? AND c.base_date < ? AND c.monthly_ror IS NOT NULL "
+                        + "ORDER BY c." + instrumentColumn + ", c.base_date",
+                rs -> {
+                    YearMonth month = YearMonth.from(rs.getDate("base_date").toLocalDate());
+                    int index = (int) firstMonth.until(month, ChronoUnit.MONTHS);
+                    builder.put(rs.getInt(1), index, rs.getDouble("monthly_ror"));
+                },
+                firstMonth.atDay(1), firstMonth.plusMonths(months).atDay(1));
+        return builder.build();
+    }
+
+    public static MonthlyReturnMatrix empty(int months) {
+        return new Builder(months).build();
+    }
+
+    /**
+     * (id 오름차순, 월) 순서로 값을 받아 행렬을 채우는 Builder
+     */
+    static final class Builder {
+        private final int months;
+        private int size;
+        private int[] ids = new int[256];
+        private double[] values;
+        private double[] present;
+
+        Builder(int months) {
+            this.months = months;
+            this.values = new double[ids.length * months];
+            this.present = new double[ids.length * months];
+        }
+
+        void put(int id, int month, double value) {
+            if (month < 0 || month >= months || Double.isNaN(value)) {
+                return;
+            }
+            if (size == 0 || ids[size - 1] != id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    values = Arrays.copyOf(values, ids.length * months);
+                    present = Arrays.copyOf(present, ids.length * months);
+                }
+                ids[size++] = id;
+            }
+            int cell = (size - 1) * months + month;
+            values[cell] = value;
+            present[cell] = 1;
+        }
+
+        MonthlyReturnMatrix build() {
+            return new MonthlyReturnMatrix(Arrays.copyOf(ids, size), months,
+                    Arrays.copyOf(values, size * months), Arrays.copyOf(present, size * months));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.PairStat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.util.function.Supplier;
+
+/**
+ * open 시 PairwiseReturnStats를 한 번 계산하고, 겹치는 월이 minObservations 이상이며 상관계수가 정의되는 쌍을
+ * (행, 열) 순서로 내보내는 Reader
+ * 계산 결과는 입력이 같으면 항상 같은 순서이므로 재시작 시 저장된 건수만큼 건너뛰어 위치를 복원합니다.
+ */
+@Slf4j
+public class PairStatItemReader extends AbstractItemCountingItemStreamItemReader<PairStat> {
+    private final String name;
+    private final Supplier<PairwiseReturnStats> calculator;
+    private final int minObservations;
+    private PairwiseReturnStats stats;
+    private int row;
+    private int column;
+
+    public PairStatItemReader(String name, Supplier<PairwiseReturnStats> calculator, int minObservations) {
+        this.name = name;
+        this.calculator = calculator;
+        this.minObservations = minObservations;
+        setName(name);
+    }
+
+    @Override
+    protected void doOpen() {
+        long started = System.currentTimeMillis();
+        stats = calculator.get();
+        row = 0;
+        column = 0;
+        log.info("{} computed rows={} columns={} months={} elapsed={}ms", name, stats.rowCount(),
+                stats.columnCount(), stats.rows.months, System.currentTimeMillis() - started);
+    }
+
+    @Override
+    protected PairStat doRead() {
+        int columns = stats.columnCount();
+        while (row < stats.rowCount()) {
+            int i = row;
+            int j = column;
+            if (++column == columns) {
+                row++;
+                column = 0;
+            }
+
+            int cell = i * columns + j;
+            if (stats.observations[cell] >= minObservations && !Float.isNaN(stats.correlation[cell])
+                    && (!stats.symmetric || j > i)) {
+                return new PairStat(stats.rows.ids[i], stats.columns.ids[j], stats.observations[cell],
+                        stats.beta[cell], stats.correlation[cell]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void doClose() {
+        stats = null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.chan.stock_batch_server.batch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 두 월간 수익률 행렬의 모든 (행, 열) 쌍에 대해 겹치는 월 수, 베타, 상관계수를 계산한 결과
+ * 행·열을 BLOCK 개씩 묶은 블록 단위로 계산하여 두 블록의 시계열이 캐시에 머무는 동안 모든 쌍을 처리하고,
+ * 행 블록 구간을 ForkJoinPool에서 반씩 나누어 병렬로 계산합니다.
+ * 같은 행렬끼리(symmetric) 계산하면 행 < 열인 위쪽 삼각형만 채웁니다.
+ */
+public final class PairwiseReturnStats {
+    static final int BLOCK = 64;
+
+    final MonthlyReturnMatrix rows;
+    final MonthlyReturnMatrix columns;
+    final boolean symmetric;
+    // rows.size() * columns.size(), 계산하지 않은 쌍은 observations 0, 분산이 0이면 NaN
+    final float[] beta;
+    final float[] correlation;
+    final short[] observations;
+
+    private PairwiseReturnStats(MonthlyReturnMatrix rows, MonthlyReturnMatrix columns, boolean symmetric) {
+        this.rows = rows;
+        this.columns = columns;
+        this.symmetric = symmetric;
+        int cells = Math.multiplyExact(rows.size(), columns.size());
+        this.beta = new float[cells];
+        this.correlation = new float[cells];
+        this.observations = new short[cells];
+    }
+
+    /**
+     * rows의 각 시계열을 columns의 각 시계열에 대해 계산, beta는 열 시계열 분산 대비 공분산입니다.
+     */
+    public static PairwiseReturnStats compute(MonthlyReturnMatrix rows, MonthlyReturnMatrix columns,
+                                              ForkJoinPool pool) {
+        if (rows.months != columns.months) {
+            throw new IllegalArgumentException("month windows differ: " + rows.months + " vs " + columns.months);
+        }
+        PairwiseReturnStats stats = new PairwiseReturnStats(rows, columns, rows == columns);
+        int rowBlocks = (rows.size() + BLOCK - 1) / BLOCK;
+        pool.invoke(stats.new RowBlocks(0, rowBlocks));
+        return stats;
+    }
+
+    public int rowCount() {
+        return rows.size();
+    }
+
+    public int columnCount() {
+        return columns.size();
+    }
+
+    /**
+     * 행 블록 [fromBlock, toBlock)을 계산하는 작업, 블록이 둘 이상이면 반으로 나누어 fork 합니다.
+     */
+    private final class RowBlocks extends RecursiveAction {
+        private final int fromBlock;
+        private final int toBlock;
+
+        RowBlocks(int fromBlock, int toBlock) {
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new RowBlocks(fromBlock, mid), new RowBlocks(mid, toBlock));
+                return;
+            }
+            int rowStart = fromBlock * BLOCK;
+            int rowEnd = Math.min(rowStart + BLOCK, rows.size());
+            // 위쪽 삼각형만 필요하면 대각 블록부터 시작합니다.
+            int firstColumn = symmetric ? rowStart : 0;
+            for (int columnStart = firstColumn; columnStart < columns.size(); columnStart += BLOCK) {
+                computeBlock(rowStart, rowEnd, columnStart, Math.min(columnStart + BLOCK, columns.size()));
+            }
+        }
+    }
+
+    private void computeBlock(int rowStart, int rowEnd, int columnStart, int columnEnd) {
+        int months = rows.months;
+        double[] x = rows.values;
+        double[] xPresent = rows.present;
+        double[] y = columns.values;
+        double[] yPresent = columns.present;
+
+        for (int i = rowStart; i < rowEnd; i++) {
+            int xBase = i * months;
+            for (int j = symmetric ? Math.max(columnStart, i + 1) : columnStart; j < columnEnd; j++) {
+                int yBase = j * months;
+                double n = 0;
+                double sx = 0;
+                double sy = 0;
+                double sxx = 0;
+                double syy = 0;
+                double sxy = 0;
+                // 없는 칸은 값과 present가 0이라 분기 없이 두 시계열이 모두 있는 월만 누적됩니다.
+                for (int m = 0; m < months; m++) {
+                    double xv = x[xBase + m];
+                    double yv = y[yBase + m];
+                    double xp = xPresent[xBase + m];
+                    double yp = yPresent[yBase + m];
+                    n += xp * yp;
+                    sx += xv * yp;
+                    sy += yv * xp;
+                    sxx += xv * xv * yp;
+                    syy += yv * yv * xp;
+                    sxy += xv * yv;
+                }
+
+                int cell = i * columns.size() + j;
+                double covariance = n * sxy - sx * sy;
+                double xVariance = n * sxx - sx * sx;
+                double yVariance = n * syy - sy * sy;
+                observations[cell] = (short) n;
+                beta[cell] = yVariance > 0 ? (float) (covariance / yVariance) : Float.NaN;
+                correlation[cell] = xVariance > 0 && yVariance > 0
+                        ? (float) Math.max(-1, Math.min(1, covariance / Math.sqrt(xVariance * yVariance)))
+                        : Float.NaN;
+            }
+        }
+    }
+}
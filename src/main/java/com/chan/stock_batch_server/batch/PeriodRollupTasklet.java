@@ -0,0 +1,114 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.model.RollupPeriod;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+import java.time.LocalDate;
+
+/**
+ * 월별 결과 테이블(calc_*_price)에서 분기·연 결과를 계산하여 기간 테이블에 UPSERT 하는 Tasklet
+ * 일별 시세를 다시 읽지 않고, 월 평균가는 거래일 수로 가중 평균하고 월간 수익률은 복리로 누적합니다.
+ * dirtyTable이 있으면 현재 JobInstance가 선점한 Dirty 월이 속한 기간만,
+ * 없으면 JobParameters의 startDate~endDate(없으면 전체)가 걸친 기간을 다시 계산합니다.
+ */
+public class PeriodRollupTasklet implements Tasklet {
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String monthlyTable;
+    private final String instrumentColumn;
+    private final String periodTable;
+    private final String dirtyTable;
+
+    public PeriodRollupTasklet(JdbcTemplate jdbcTemplate, String monthlyTable, String instrumentColumn,
+                               String periodTable, String dirtyTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthlyTable = monthlyTable;
+        this.instrumentColumn = instrumentColumn;
+        this.periodTable = periodTable;
+        this.dirtyTable = dirtyTable;
+    }
+
+    /**
+     * 롤업 Step의 트랜잭션 속성: READ COMMITTED
+     * REPEATABLE READ에서는 INSERT ... SELECT가 월별 결과 행에 공유 next-key 락을 걸어 같은 연도를 계산하는 Job과 충돌하므로,
+     * 원본은 일관된 읽기로만 읽습니다.
+     */
+    public static TransactionAttribute transactionAttribute() {
+        DefaultTransactionAttribute attribute = new DefaultTransactionAttribute();
+        attribute.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return attribute;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        JobParameters jobParameters = chunkContext.getStepContext().getStepExecution().getJobParameters();
+        long jobInstanceId = chunkContext.getStepContext().getStepExecution().getJobExecution()
+                .getJobInstance().getInstanceId();
+
+        int written = 0;
+        for (RollupPeriod period : RollupPeriod.values()) {
+            if (dirtyTable != null) {
+                written += jdbcTemplate.update(rollupSql(period,
+                        "SELECT DISTINCT d." + instrumentColumn + ", " + periodStart(period, "d.base_date")
+                                + " AS period_start FROM " + dirtyTable + " d WHERE d.claimed_by = ?"),
+                        period.name(), jobInstanceId);
+            } else {
+                LocalDate startDate = jobParameters.getLocalDate("startDate");
+                LocalDate endDate = jobParameters.getLocalDate("endDate");
+                LocalDate from = startDate == null ? MIN_DATE : alignStart(period, startDate);
+                LocalDate to = endDate == null ? MAX_DATE : alignStart(period, endDate).plusMonths(period.getMonths());
+                written += jdbcTemplate.update(rollupSql(period,
+                        "SELECT DISTINCT m." + instrumentColumn + ", " + periodStart(period, "m.base_date")
+                                + " AS period_start FROM " + monthlyTable + " m WHERE m.base_date >= ? AND m.base_date < ?"),
+                        period.name(), from, to);
+            }
+        }
+        contribution.incrementWriteCount(written);
+        return RepeatStatus.FINISHED;
+    }
+
+    /**
+     * targets 서브쿼리가 돌려준 (종목, 기간 시작일)마다 해당 기간의 월별 행을 모아 기간 결과를 UPSERT 하는 SQL
+     * 월간 수익률 중 -100% 이하가 있으면 기간 수익률은 -100%로 둡니다(LN 정의역 밖).
+     * trading_days가 없는 과거 행은 거래일 1일로 취급합니다.
+     * SELECT를 파생 테이블로 감싸 ON DUPLICATE KEY UPDATE의 컬럼명이 calc 테이블 컬럼과 모호해지지 않게 합니다.
+     */
+    private String rollupSql(RollupPeriod period, String targets) {
+        return "INSERT INTO " + periodTable
+                + " (period, base_date, " + instrumentColumn + ", price, period_ror, trading_days, months) "
+                + "SELECT * FROM (SELECT ? AS period_name, t.period_start, c." + instrumentColumn + ", "
+                + "SUM(c.price * COALESCE(c.trading_days, 1)) / SUM(COALESCE(c.trading_days, 1)) AS weighted_price, "
+                + "CASE WHEN MIN(1 + c.monthly_ror) <= 0 THEN -1 "
+                + "ELSE EXP(SUM(LN(1 + c.monthly_ror))) - 1 END AS compounded_ror, "
+                + "SUM(COALESCE(c.trading_days, 1)) AS day_count, COUNT(*) AS month_count "
+                + "FROM (" + targets + ") t "
+                + "JOIN " + monthlyTable + " c ON c." + instrumentColumn + " = t." + instrumentColumn + " "
+                + "AND c.base_date >= t.period_start "
+                + "AND c.base_date < t.period_start + INTERVAL " + period.getMonths() + " MONTH "
+                + "GROUP BY c." + instrumentColumn + ", t.period_start) r "
+                + "ON DUPLICATE KEY UPDATE price = VALUES(price), period_ror = VALUES(period_ror), "
+                + "trading_days = VALUES(trading_days), months = VALUES(months)";
+    }
+
+    private static String periodStart(RollupPeriod period, String dateColumn) {
+        return switch (period) {
+            case QUARTER -> "MAKEDATE(YEAR(" + dateColumn + "), 1) + INTERVAL (QUARTER(" + dateColumn + ") - 1) QUARTER";
+            case YEAR -> "MAKEDATE(YEAR(" + dateColumn + "), 1)";
+        };
+    }
+
+    private static LocalDate alignStart(RollupPeriod period, LocalDate date) {
+        int firstMonth = (date.getMonthValue() - 1) / period.getMonths() * period.getMonths() + 1;
+        return LocalDate.of(date.getYear(), firstMonth, 1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 파일의 시세 레코드 중 같은 거래일·구분(STOCK, INDEX)에 속하는 레코드 수와 그 내용 해시
+ * 해시는 레코드별 SHA-256을 256비트 정수로 더한 값을 다시 SHA-256 한 값이라 파일 안의 레코드 순서와 무관하고,
+ * 레코드를 모아 두지 않고 읽는 대로 누적할 수 있습니다(Digester).
+ * 주식/지수 어느 쪽도 아닌 레코드는 Writer가 무시하므로 그룹에 넣지 않습니다.
+ */
+public record PriceDateGroup(CalcPriceChangedEvent.Kind kind, LocalDate baseDate, int rowCount,
+                             String contentHash) {
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final int HASH_BYTES = 32;
+
+    /**
+     * 레코드가 속한 (구분, 거래일)
+     */
+    public record Key(CalcPriceChangedEvent.Kind kind, LocalDate baseDate) {
+        /**
+         * record의 키, 주식/지수 어느 쪽도 아니면 null
+         */
+        public static Key of(DailyPriceRecord record) {
+            CalcPriceChangedEvent.Kind kind = record.isStock() ? CalcPriceChangedEvent.Kind.STOCK
+                    : record.isIndex() ? CalcPriceChangedEvent.Kind.INDEX : null;
+            return kind == null ? null : new Key(kind, record.getBaseDate());
+        }
+    }
+
+    public Key key() {
+        return new Key(kind, baseDate);
+    }
+
+    /**
+     * 레코드를 한 건씩 받아 (구분, 거래일)별 레코드 수와 해시 합계만 유지하는 누적기
+     * 메모리 사용량은 레코드 수가 아니라 거래일 수에 비례합니다.
+     */
+    public static final class Digester {
+        private final MessageDigest digest = sha256();
+        private final StringBuilder canonical = new StringBuilder(128);
+        private final Map<Key, Sum> sums = new LinkedHashMap<>();
+
+        public void add(DailyPriceRecord record) {
+            Key key = Key.of(record);
+            if (key == null) {
+                return;
+            }
+            Sum sum = sums.computeIfAbsent(key, k -> new Sum());
+            sum.add(digest.digest(canonical(canonical, record).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        public List<PriceDateGroup> groups() {
+            List<PriceDateGroup> groups = new ArrayList<>(sums.size());
+            sums.forEach((key, sum) -> groups.add(new PriceDateGroup(key.kind(), key.baseDate(), sum.count,
+                    HexFormat.of().formatHex(digest.digest(sum.total)))));
+            return groups;
+        }
+    }
+
+    private static final class Sum {
+        private final byte[] total = new byte[HASH_BYTES];
+        private int count;
+
+        /**
+         * 빅엔디언 256비트 정수로 보고 2^256을 법으로 더합니다.
+         */
+        private void add(byte[] hash) {
+            int carry = 0;
+            for (int i = HASH_BYTES - 1; i >= 0; i--) {
+                int value = (total[i] & 0xff) + (hash[i] & 0xff) + carry;
+                total[i] = (byte) value;
+                carry = value >>> 8;
+            }
+            count++;
+        }
+    }
+
+    public static List<PriceDateGroup> group(List<DailyPriceRecord> records) {
+        Digester digester = new Digester();
+        records.forEach(digester::add);
+        return digester.groups();
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String canonical(StringBuilder canonical, DailyPriceRecord r) {
+        canonical.setLength(0);
+        append(canonical, r.getBasDt(), r.getSrtnCd(), r.getIsinCd(), r.getItmsNm(), r.getMrktCtg(),
+                r.getTrPrc(), r.getLstgStCnt(), r.getIdxNm(), r.getIdxCsf(), r.getLsYrEdVsFltRt(),
+                r.getClpr(), r.getMkp(), r.getHipr(), r.getLopr(), r.getTrqu());
+        return canonical.toString();
+    }
+
+    private static void append(StringBuilder canonical, Object... fields) {
+        for (Object field : fields) {
+            // null과 빈 문자열을 구분하도록 null은 NUL 한 글자로 씁니다.
+            canonical.append(field == null ? "\u0000" : field.toString()).append(FIELD_SEPARATOR);
+        }
+    }
+}
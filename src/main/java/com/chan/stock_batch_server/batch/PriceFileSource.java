@@ -0,0 +1,81 @@
+package com.chan.stock_batch_server.batch;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 시세 JSON 한 건의 위치: 디스크의 .json / .json.gz 파일 또는 zip 파일 안의 항목(entryName)
+ * open()은 압축을 스트림으로 풀어 JSON 바이트를 돌려주므로 압축 해제본을 디스크나 메모리에 만들지 않습니다.
+ */
+public record PriceFileSource(Path file, String entryName) {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    public static boolean isSupported(String fileName) {
+        return isJson(fileName) || fileName.endsWith(".zip");
+    }
+
+    /**
+     * file이 zip이면 안의 .json / .json.gz 항목마다, 아니면 파일 자체를 하나의 소스로 반환
+     */
+    public static List<PriceFileSource> expand(Path file) throws IOException {
+        if (!file.getFileName().toString().endsWith(".zip")) {
+            return List.of(new PriceFileSource(file, null));
+        }
+        List<PriceFileSource> sources = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && isJson(entry.getName())) {
+                    sources.add(new PriceFileSource(file, entry.getName()));
+                }
+            }
+        }
+        return sources;
+    }
+
+    public String name() {
+        return entryName == null ? file.getFileName().toString() : file.getFileName() + "!" + entryName;
+    }
+
+    public InputStream open() throws IOException {
+        InputStream in;
+        if (entryName == null) {
+            in = Files.newInputStream(file);
+        } else {
+            ZipFile zip = new ZipFile(file.toFile());
+            ZipEntry entry = zip.getEntry(entryName);
+            if (entry == null) {
+                zip.close();
+                throw new IOException("zip entry not found: " + name());
+            }
+            // 항목 스트림을 닫을 때 zip 파일 핸들도 함께 닫습니다.
+            in = new FilterInputStream(zip.getInputStream(entry)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        zip.close();
+                    }
+                }
+            };
+        }
+        in = new BufferedInputStream(in, BUFFER_BYTES);
+        return name().endsWith(".gz") ? new GZIPInputStream(in, BUFFER_BYTES) : in;
+    }
+
+    private static boolean isJson(String fileName) {
+        return fileName.endsWith(".json") || fileName.endsWith(".json.gz");
+    }
+}
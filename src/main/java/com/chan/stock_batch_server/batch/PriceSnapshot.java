@@ -0,0 +1,336 @@
+package com.chan.stock_batch_server.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 종목별 일별 시세 이력을 고정 폭 이진 파일로 저장하고 FileChannel.map으로 읽는 스냅샷
+ * 파일 하나가 종목 하나이며, 각 행은 직전 행 대비 일자·종가 차이와 종가 대비 시가·고가·저가 차이를 담습니다.
+ * 헤더의 CRC32C로 헤더(CRC 칸 제외)와 본문의 무결성을 확인하며, 한 파일이라도 맞지 않으면 스냅샷 전체를 사용하지 않습니다.
+ * 파일은 항상 임시 파일에 완성한 뒤 원자적으로 교체하므로, 이미 매핑된 파일의 내용은 바뀌지 않습니다.
+ * manifest.properties의 maxId는 스냅샷에 반영된 stock_price.id 최댓값입니다.
+ */
+@Slf4j
+public class PriceSnapshot {
+    static final int MAGIC = 0x50534E50; // "PSNP"
+    // 2: CRC가 헤더까지 포함
+    static final short VERSION = 2;
+    static final String MANIFEST = "manifest.properties";
+
+    // 헤더: magic(4) version(2) reserved(2) instrumentId(4) rowCount(4)
+    //       firstEpochDay(4) lastEpochDay(4) lastClose(4) reserved(4) crc(8)
+    static final int HEADER_BYTES = 40;
+    private static final int ROW_COUNT_OFFSET = 12;
+    private static final int FIRST_DAY_OFFSET = 16;
+    private static final int LAST_DAY_OFFSET = 20;
+    static final int LAST_CLOSE_OFFSET = 24;
+    private static final int CRC_OFFSET = 32;
+    // 행: dayDelta(2) closeDelta(4) open-close(4) high-close(4) low-close(4) volume(4)
+    static final int ROW_BYTES = 22;
+
+    /**
+     * 매핑된 스냅샷 한 벌, 공개 후 변경하지 않습니다.
+     */
+    private record Mapped(int maxId, int[] instrumentIds, MappedByteBuffer[] buffers) {
+    }
+
+    private final Path directory;
+    private final boolean verify;
+    private volatile Mapped mapped;
+
+    public PriceSnapshot(Path directory, boolean verify) {
+        this.directory = directory;
+        this.verify = verify;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public boolean isAvailable() {
+        return mapped != null;
+    }
+
+    public int maxId() {
+        Mapped current = mapped;
+        return current == null ? 0 : current.maxId();
+    }
+
+    /**
+     * 디렉터리의 종목 파일을 모두 읽기 전용으로 매핑
+     * manifest가 없거나 무결성 확인에 실패하면 스냅샷을 사용하지 않는 상태가 됩니다.
+     */
+    public synchronized void reload() {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            mapped = null;
+            log.info("price snapshot not found dir={}", directory);
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Path[] paths = files.filter(path -> path.getFileName().toString().endsWith(".bin"))
+                    .sorted()
+                    .toArray(Path[]::new);
+            int[] ids = new int[paths.length];
+            MappedByteBuffer[] buffers = new MappedByteBuffer[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                try (FileChannel channel = FileChannel.open(paths[i], StandardOpenOption.READ)) {
+                    buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                ids[i] = buffers[i].getInt(8);
+                if (verify && !isValid(buffers[i])) {
+                    log.warn("price snapshot checksum mismatch file={}, snapshot disabled", paths[i]);
+                    mapped = null;
+                    return;
+                }
+            }
+
+            // 파일명 정렬과 id 정렬이 다를 수 있으므로 id 순으로 맞춥니다.
+            Integer[] order = new Integer[ids.length];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> Integer.compare(ids[a], ids[b]));
+            int[] sortedIds = new int[ids.length];
+            MappedByteBuffer[] sortedBuffers = new MappedByteBuffer[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedBuffers[i] = buffers[order[i]];
+            }
+
+            mapped = new Mapped(readMaxId(manifest), sortedIds, sortedBuffers);
+            log.info("price snapshot mapped dir={} instruments={} maxId={}", directory, ids.length, maxId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * year 연도에 속한 행을 종목 id 순으로 builder에 추가
+     */
+    void loadYear(int year, DailyPriceSegment.Builder builder) {
+        Mapped current = mapped;
+        int yearStart = (int) LocalDate.of(year, 1, 1).toEpochDay();
+        int yearEnd = (int) LocalDate.of(year, 12, 31).toEpochDay();
+
+        for (int i = 0; i < current.instrumentIds().length; i++) {
+            ByteBuffer buffer = current.buffers()[i];
+            if (buffer.getInt(LAST_DAY_OFFSET) < yearStart || buffer.getInt(FIRST_DAY_OFFSET) > yearEnd) {
+                continue;
+            }
+
+            int rows = buffer.getInt(ROW_COUNT_OFFSET);
+            int day = buffer.getInt(FIRST_DAY_OFFSET);
+            int close = 0;
+            for (int row = 0, position = HEADER_BYTES; row < rows; row++, position += ROW_BYTES) {
+                day += buffer.getChar(position);
+                close += buffer.getInt(position + 2);
+                if (day < yearStart) {
+                    continue;
+                }
+                if (day > yearEnd) {
+                    break;
+                }
+                builder.addDay(current.instrumentIds()[i], (short) (day - yearStart + 1), close,
+                        close + buffer.getInt(position + 6), close + buffer.getInt(position + 10),
+                        close + buffer.getInt(position + 14), buffer.getInt(position + 18));
+            }
+        }
+    }
+
+    /**
+     * 종목 한 개의 전체 이력(일자 오름차순)으로 파일을 새로 작성, 임시 파일에 쓴 뒤 원자적으로 교체합니다.
+     */
+    static void writeInstrument(Path directory, int instrumentId, Rows rows) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + rows.size * ROW_BYTES);
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putInt(8, instrumentId);
+        buffer.putInt(FIRST_DAY_OFFSET, rows.epochDay[0]);
+        encode(buffer, HEADER_BYTES, rows, rows.epochDay[0], 0);
+        writeHeaderTail(buffer, rows.size, rows.epochDay[rows.size - 1], rows.close[rows.size - 1]);
+
+        Path target = file(directory, instrumentId);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 기존 파일의 마지막 거래일 이후 행만 덧붙임
+     * 기존 파일을 임시 파일로 복사해 덧붙이고 헤더를 갱신한 뒤 원자적으로 교체하며, 새 내용은 reload 후 매핑됩니다.
+     * rows의 첫 일자가 마지막 거래일 이하이거나 파일 버전이 다르면 false를 반환하며, 이 경우 writeInstrument로 다시 작성해야 합니다.
+     */
+    static boolean appendInstrument(Path directory, int instrumentId, Rows rows) throws IOException {
+        Path target = file(directory, instrumentId);
+        if (!Files.exists(target)) {
+            writeInstrument(directory, instrumentId, rows);
+            return true;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            channel.read(header, 0);
+        }
+        int rowCount = header.getInt(ROW_COUNT_OFFSET);
+        int lastDay = header.getInt(LAST_DAY_OFFSET);
+        int lastClose = header.getInt(LAST_CLOSE_OFFSET);
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION || rows.epochDay[0] <= lastDay) {
+            return false;
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.copy(target, temp, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer body = ByteBuffer.allocate(rows.size * ROW_BYTES);
+            encode(body, 0, rows, lastDay, lastClose);
+            channel.write(body, HEADER_BYTES + (long) rowCount * ROW_BYTES);
+
+            MappedByteBuffer mappedFile = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            writeHeaderTail(mappedFile, rowCount + rows.size, rows.epochDay[rows.size - 1], rows.close[rows.size - 1]);
+            mappedFile.force();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * 종목 파일 삭제, 이미 매핑된 내용은 reload 전까지 그대로 읽힙니다.
+     */
+    static void deleteInstrument(Path directory, int instrumentId) throws IOException {
+        Files.deleteIfExists(file(directory, instrumentId));
+    }
+
+    /**
+     * manifest를 원자적으로 교체하여 스냅샷 maxId를 기록
+     */
+    static void writeManifest(Path directory, int maxId) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("version", String.valueOf(VERSION));
+        properties.setProperty("maxId", String.valueOf(maxId));
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "price snapshot");
+        }
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static int readMaxId(Path manifest) throws IOException {
+        return Integer.parseInt(readManifest(manifest).getProperty("maxId", "0"));
+    }
+
+    /**
+     * manifest가 현재 파일 형식(VERSION)으로 작성되었는지 확인, 다르면 덧붙이지 말고 전체를 다시 작성해야 합니다.
+     */
+    static boolean isCurrentVersion(Path manifest) throws IOException {
+        return String.valueOf(VERSION).equals(readManifest(manifest).getProperty("version"));
+    }
+
+    private static Properties readManifest(Path manifest) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(manifest)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static Path file(Path directory, int instrumentId) {
+        return directory.resolve(String.format("stock-%08d.bin", instrumentId));
+    }
+
+    private static void encode(ByteBuffer buffer, int position, Rows rows, int previousDay, int previousClose) {
+        for (int i = 0; i < rows.size; i++, position += ROW_BYTES) {
+            int close = rows.close[i];
+            buffer.putChar(position, (char) (rows.epochDay[i] - previousDay));
+            buffer.putInt(position + 2, close - previousClose);
+            buffer.putInt(position + 6, rows.open[i] - close);
+            buffer.putInt(position + 10, rows.high[i] - close);
+            buffer.putInt(position + 14, rows.low[i] - close);
+            buffer.putInt(position + 18, rows.volume[i]);
+            previousDay = rows.epochDay[i];
+            previousClose = close;
+        }
+    }
+
+    private static void writeHeaderTail(ByteBuffer buffer, int rowCount, int lastDay, int lastClose) {
+        buffer.putInt(ROW_COUNT_OFFSET, rowCount);
+        buffer.putInt(LAST_DAY_OFFSET, lastDay);
+        buffer.putInt(LAST_CLOSE_OFFSET, lastClose);
+        buffer.putLong(CRC_OFFSET, checksum(buffer, rowCount));
+    }
+
+    private static boolean isValid(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            return false;
+        }
+        int rowCount = buffer.getInt(ROW_COUNT_OFFSET);
+        return buffer.capacity() == HEADER_BYTES + (long) rowCount * ROW_BYTES
+                && buffer.getLong(CRC_OFFSET) == checksum(buffer, rowCount);
+    }
+
+    /**
+     * CRC 칸 앞의 헤더와 본문 rowCount 행의 CRC32C, CRC 칸은 헤더의 마지막 8바이트입니다.
+     */
+    private static long checksum(ByteBuffer buffer, int rowCount) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, CRC_OFFSET));
+        crc.update(buffer.slice(HEADER_BYTES, rowCount * ROW_BYTES));
+        return crc.getValue();
+    }
+
+    /**
+     * 한 종목의 일자 오름차순 행을 모으는 가변 배열
+     */
+    static final class Rows {
+        int size;
+        int[] epochDay = new int[256];
+        int[] close = new int[256];
+        int[] open = new int[256];
+        int[] high = new int[256];
+        int[] low = new int[256];
+        int[] volume = new int[256];
+
+        void add(LocalDate baseDate, int closePrice, int openPrice, int highPrice, int lowPrice, int tradeQuantity) {
+            if (size == epochDay.length) {
+                int capacity = size * 2;
+                epochDay = Arrays.copyOf(epochDay, capacity);
+                close = Arrays.copyOf(close, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            epochDay[size] = (int) baseDate.toEpochDay();
+            close[size] = closePrice;
+            open[size] = openPrice;
+            high[size] = highPrice;
+            low[size] = lowPrice;
+            volume[size] = tradeQuantity;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
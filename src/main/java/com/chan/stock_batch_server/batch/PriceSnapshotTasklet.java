@@ -0,0 +1,165 @@
+package com.chan.stock_batch_server.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * stock_price를 PriceSnapshot 파일로 내보내는 Tasklet
+ * full은 전체 이력을 다시 쓰고, append는 manifest maxId 이후 INSERT 된 행만 종목 파일 끝에 덧붙입니다.
+ * 마지막 거래일 이전 일자가 새로 들어왔거나 이미 쓴 일자의 값이 UPSERT로 바뀐(stock_price_correction) 종목은
+ * 해당 종목 파일만 DB에서 다시 작성하고, 스냅샷을 다시 매핑한 뒤 처리한 수정 기록을 삭제합니다.
+ */
+@Slf4j
+public class PriceSnapshotTasklet implements Tasklet {
+    static final String SCAN_SQL = """
+            SELECT p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price, p.trade_quantity
+            FROM stock_price p
+            WHERE p.id > ?
+              AND p.id <= ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    static final String INSTRUMENT_SQL = """
+            SELECT p.stock_id, p.base_date, p.close_price, p.open_price, p.high_price, p.low_price, p.trade_quantity
+            FROM stock_price p
+            WHERE p.stock_id = ?
+              AND p.id <= ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.base_date
+        """;
+
+    static final String CORRECTION_SQL = "SELECT id, stock_id FROM stock_price_correction ORDER BY id";
+
+    /**
+     * 종목 하나 분량의 행을 받아 파일에 기록하는 동작
+     */
+    @FunctionalInterface
+    private interface InstrumentSink {
+        void accept(int instrumentId, PriceSnapshot.Rows rows) throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceSnapshot snapshot;
+    private final boolean full;
+
+    public PriceSnapshotTasklet(JdbcTemplate jdbcTemplate, PriceSnapshot snapshot, String mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = snapshot;
+        this.full = "full".equals(mode);
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        Path directory = snapshot.directory();
+        Files.createDirectories(directory);
+        Path manifest = directory.resolve(PriceSnapshot.MANIFEST);
+        // 이전 형식의 스냅샷에는 덧붙이지 않고 전체를 다시 작성합니다.
+        boolean append = !full && Files.exists(manifest) && PriceSnapshot.isCurrentVersion(manifest);
+        int fromId = append ? PriceSnapshot.readMaxId(manifest) : 0;
+        Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM stock_price", Integer.class);
+        int toId = maxId == null ? 0 : maxId;
+
+        // 수정 기록은 스캔 전에 읽어 두고, 그 뒤에 커밋된 수정은 다음 실행에서 처리합니다.
+        List<Long> correctionIds = new ArrayList<>();
+        Set<Integer> rewrites = new LinkedHashSet<>();
+        jdbcTemplate.query(CORRECTION_SQL, rs -> {
+            correctionIds.add(rs.getLong("id"));
+            rewrites.add(rs.getInt("stock_id"));
+        });
+        if (!append) {
+            rewrites.clear();
+        }
+
+        int instruments = scan(SCAN_SQL, (instrumentId, rows) -> {
+            if (!append) {
+                PriceSnapshot.writeInstrument(directory, instrumentId, rows);
+            } else if (!rewrites.contains(instrumentId)
+                    && !PriceSnapshot.appendInstrument(directory, instrumentId, rows)) {
+                rewrites.add(instrumentId);
+            }
+        }, fromId, toId);
+
+        // 스트리밍 결과셋이 닫힌 뒤에 같은 커넥션으로 종목별 재작성 조회를 실행합니다.
+        for (Integer instrumentId : rewrites) {
+            int written = scan(INSTRUMENT_SQL, (id, rows) -> PriceSnapshot.writeInstrument(directory, id, rows),
+                    instrumentId, toId);
+            if (written == 0) {
+                // 수정으로 종가가 모두 비게 된 종목
+                PriceSnapshot.deleteInstrument(directory, instrumentId);
+            }
+        }
+
+        PriceSnapshot.writeManifest(directory, toId);
+        snapshot.reload();
+        // 새 스냅샷이 매핑된 뒤에 지워야 DailyPriceStore가 그 사이에 수정 전 값을 읽지 않습니다.
+        jdbcTemplate.batchUpdate("DELETE FROM stock_price_correction WHERE id = ?",
+                correctionIds.stream().map(id -> new Object[] { id }).toList());
+        contribution.incrementWriteCount(instruments);
+        log.info("price snapshot {} ids=({}, {}] instruments={} rewritten={} corrections={}",
+                append ? "appended" : "written", fromId, toId, instruments, rewrites.size(), correctionIds.size());
+        return RepeatStatus.FINISHED;
+    }
+
+    /**
+     * (stock_id, base_date) 순 결과를 종목 단위로 묶어 sink에 전달하고 종목 수를 반환
+     */
+    private int scan(String sql, InstrumentSink sink, Object... args) {
+        PriceSnapshot.Rows rows = new PriceSnapshot.Rows();
+        int[] current = { -1, 0 };
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            // MySQL 스트리밍 결과셋: 전체 이력을 메모리에 올리지 않습니다.
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, rs -> {
+            int instrumentId = rs.getInt("stock_id");
+            if (instrumentId != current[0] && rows.size > 0) {
+                flush(sink, current[0], rows);
+                current[1]++;
+            }
+            current[0] = instrumentId;
+            addRow(rows, rs);
+        });
+        if (rows.size > 0) {
+            flush(sink, current[0], rows);
+            current[1]++;
+        }
+        return current[1];
+    }
+
+    private static void flush(InstrumentSink sink, int instrumentId, PriceSnapshot.Rows rows) {
+        try {
+            sink.accept(instrumentId, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rows.clear();
+    }
+
+    private static void addRow(PriceSnapshot.Rows rows, ResultSet rs) throws SQLException {
+        rows.add(rs.getObject("base_date", LocalDate.class),
+                rs.getInt("close_price"), rs.getInt("open_price"), rs.getInt("high_price"),
+                rs.getInt("low_price"), rs.getInt("trade_quantity"));
+    }
+}
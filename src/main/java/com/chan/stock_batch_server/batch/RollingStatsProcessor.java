@@ -0,0 +1,68 @@
+package com.chan.stock_batch_server.batch;
+
+import com.chan.stock_batch_server.dto.DailyClosePrice;
+import com.chan.stock_batch_server.dto.RollingStat;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.time.LocalDate;
+
+/**
+ * (instrumentId, baseDate) 순 일별 종가를 한 번 훑으며 이동평균, 연환산 변동성, 최대 낙폭을 계산하는 Processor
+ * 종목이 바뀌면 링 버퍼를 비우므로 Step(파티션)마다 별도 인스턴스가 필요합니다(@StepScope).
+ * emitFrom 이전 행은 윈도우를 채우는 데만 쓰고 결과로 내보내지 않습니다.
+ */
+public class RollingStatsProcessor implements ItemProcessor<DailyClosePrice, RollingStat> {
+    private static final double ANNUALIZATION = Math.sqrt(252);
+
+    private final LocalDate emitFrom;
+    private final RollingWindow close20 = new RollingWindow(20);
+    private final RollingWindow close60 = new RollingWindow(60);
+    private final RollingWindow close120 = new RollingWindow(120);
+    private final RollingWindow return20 = new RollingWindow(20);
+    private final RollingWindow return60 = new RollingWindow(60);
+    private int instrumentId = -1;
+    private double previousClose;
+
+    public RollingStatsProcessor(LocalDate emitFrom) {
+        this.emitFrom = emitFrom;
+    }
+
+    @Override
+    public RollingStat process(DailyClosePrice row) {
+        if (row.getInstrumentId() != instrumentId) {
+            instrumentId = row.getInstrumentId();
+            previousClose = 0;
+            close20.clear();
+            close60.clear();
+            close120.clear();
+            return20.clear();
+            return60.clear();
+        }
+
+        double close = row.getClosePrice();
+        if (previousClose > 0 && close > 0) {
+            double logReturn = Math.log(close / previousClose);
+            return20.add(logReturn);
+            return60.add(logReturn);
+        }
+        previousClose = close;
+        close20.add(close);
+        close60.add(close);
+        close120.add(close);
+
+        if (row.getBaseDate().isBefore(emitFrom)) {
+            return null;
+        }
+        return new RollingStat(instrumentId, row.getBaseDate(),
+                filled(close20, close20.mean()),
+                filled(close60, close60.mean()),
+                filled(close120, close120.mean()),
+                filled(return20, Math.sqrt(return20.variance()) * ANNUALIZATION),
+                filled(return60, Math.sqrt(return60.variance()) * ANNUALIZATION),
+                filled(close120, close120.maxDrawdown()));
+    }
+
+    private static double filled(RollingWindow window, double value) {
+        return window.isFull() ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,76 @@
+package com.chan.stock_batch_server.batch;
+
+/**
+ * 최근 capacity 개 값만 유지하는 double 링 버퍼
+ * 합계와 제곱합을 누적하여 평균·분산은 O(1), 최대 낙폭은 O(capacity)로 계산합니다.
+ */
+public final class RollingWindow {
+    private final double[] values;
+    private int start;
+    private int size;
+    private double sum;
+    private double sumOfSquares;
+
+    public RollingWindow(int capacity) {
+        this.values = new double[capacity];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            double evicted = values[start];
+            sum -= evicted;
+            sumOfSquares -= evicted * evicted;
+            values[start] = value;
+            start = (start + 1) % values.length;
+        } else {
+            values[(start + size) % values.length] = value;
+            size++;
+        }
+        sum += value;
+        sumOfSquares += value * value;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    public double mean() {
+        return size == 0 ? Double.NaN : sum / size;
+    }
+
+    /**
+     * 표본 분산, 누적 오차로 음수가 되는 경우 0으로 맞춥니다.
+     */
+    public double variance() {
+        if (size < 2) {
+            return Double.NaN;
+        }
+        return Math.max(0, (sumOfSquares - sum * sum / size) / (size - 1));
+    }
+
+    /**
+     * 윈도우 안에서 직전 고점 대비 가장 크게 떨어진 비율 (0 이하, 예: -0.25)
+     */
+    public double maxDrawdown() {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        double peak = values[start];
+        double drawdown = 0;
+        for (int i = 0; i < size; i++) {
+            double value = values[(start + i) % values.length];
+            peak = Math.max(peak, value);
+            if (peak > 0) {
+                drawdown = Math.min(drawdown, value / peak - 1);
+            }
+        }
+        return drawdown;
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+        sum = 0;
+        sumOfSquares = 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.chan.stock_batch_server.batch;
+
+/**
+ * String → int 오픈 어드레싱(선형 탐사) 해시 맵
+ * Integer 박싱과 Entry 객체 없이 키/값 배열 두 개만 사용합니다.
+ * 동기화하지 않으므로 공개 후에는 읽기 전용으로만 사용해야 합니다.
+ */
+final class StringIntHashMap {
+    static final int NO_VALUE = -1;
+
+    private String[] keys;
+    private int[] values;
+    private int size;
+
+    StringIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        keys = new String[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * source의 내용을 복사하고 extra 건을 더 넣을 수 있는 크기로 만든 새 맵
+     */
+    static StringIntHashMap copyOf(StringIntHashMap source, int extra) {
+        StringIntHashMap copy = new StringIntHashMap(source.size + extra);
+        for (int i = 0; i < source.keys.length; i++) {
+            if (source.keys[i] != null) {
+                copy.put(source.keys[i], source.values[i]);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * key의 값, 없거나 key가 null이면 NO_VALUE
+     */
+    int get(String key) {
+        if (key == null) {
+            return NO_VALUE;
+        }
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    void put(String key, int value) {
+        // 적재율 0.5를 넘지 않도록 유지하여 탐사 길이를 짧게 둡니다.
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(String key, int mask) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,34 @@
+package com.chan.stock_batch_server.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Step 종료 시 읽기/쓰기 건수와 초당 처리량을 로그로 남기는 Listener
+ * Reader/Writer 모드별 처리량을 같은 기준으로 비교할 때 사용합니다.
+ */
+@Slf4j
+public class ThroughputLoggingListener implements StepExecutionListener {
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        LocalDateTime startTime = stepExecution.getStartTime();
+        long elapsedMillis = startTime == null ? 0 : Duration.between(startTime, LocalDateTime.now()).toMillis();
+        long writeCount = stepExecution.getWriteCount();
+        double perSecond = elapsedMillis == 0 ? writeCount : writeCount * 1000.0 / elapsedMillis;
+
+        log.info("{} read={} write={} commits={} elapsed={}ms throughput={} items/s",
+                stepExecution.getStepName(),
+                stepExecution.getReadCount(),
+                writeCount,
+                stepExecution.getCommitCount(),
+                elapsedMillis,
+                String.format("%.1f", perSecond));
+        return stepExecution.getExitStatus();
+    }
+}
@@ -1,9 +1,71 @@
 package com.chan.stock_batch_server.config;
 
+import com.chan.stock_batch_server.batch.ConnectionPermitTaskDecorator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
+
+    /**
+     * 가상 스레드 모드에서 Job 단위 DB 작업 동시 실행 수를 제한하는 Decorator
+     * Job(또는 파티션 Worker) 하나가 청크 트랜잭션과 커서 Reader로 커넥션을 최대 2개 사용하므로 풀 크기의 절반을 permit으로 두고,
+     * 그중 1/2를 Job에, 나머지를 파티션 Worker에 나눠 줍니다.
+     * 파티션 Job은 Worker를 기다리는 동안 Job permit을 쥐고 있으므로, 같은 풀을 쓰면 Worker가 permit을 얻지 못해 멈출 수 있습니다.
+     */
+    @Bean
+    public ConnectionPermitTaskDecorator jobConnectionPermitTaskDecorator(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize
+    ) {
+        return new ConnectionPermitTaskDecorator(poolSize / 4);
+    }
+
+    /**
+     * 가상 스레드 모드에서 파티션 Worker의 DB 작업 동시 실행 수를 제한하는 Decorator (Job permit과 별도)
+     */
+    @Bean
+    public ConnectionPermitTaskDecorator partitionConnectionPermitTaskDecorator(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize
+    ) {
+        return new ConnectionPermitTaskDecorator(poolSize / 2 - poolSize / 4);
+    }
+
+    /**
+     * 비동기 배치 Job 실행 전용 Executor
+     * 동시에 실행되는 Job 수를 max-concurrency로, 대기 중인 Job 수를 queue-capacity로 제한하며
+     * 둘 다 가득 차면 TaskRejectedException으로 즉시 거절합니다.
+     * spring.threads.virtual.enabled=true 이면 스레드를 풀링하지 않고 Job마다 가상 스레드를 max-in-flight 개까지 띄우며
+     * (넘으면 거절), 실제 동시 실행 수는 Job 커넥션 permit으로 제한합니다.
+     */
+    @Bean
+    public AsyncTaskExecutor batchTaskExecutor(
+            @Value("${batch.executor.max-concurrency}") int maxConcurrency,
+            @Value("${batch.executor.queue-capacity}") int queueCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${batch.executor.virtual.max-in-flight}") int maxInFlight,
+            @Qualifier("jobConnectionPermitTaskDecorator") ConnectionPermitTaskDecorator jobConnectionPermitTaskDecorator
+    ) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-job-vt-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxInFlight);
+            executor.setRejectTasksWhenLimitReached(true);
+            executor.setTaskDecorator(jobConnectionPermitTaskDecorator);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("batch-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
 }
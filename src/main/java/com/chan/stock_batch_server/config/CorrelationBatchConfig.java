@@ -0,0 +1,239 @@
+package com.chan.stock_batch_server.config;
+
+import com.chan.stock_batch_server.batch.MonthlyReturnMatrix;
+import com.chan.stock_batch_server.batch.PairStatItemReader;
+import com.chan.stock_batch_server.batch.PairwiseReturnStats;
+import com.chan.stock_batch_server.batch.ThroughputLoggingListener;
+import com.chan.stock_batch_server.dto.PairStat;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 월간 수익률로 종목-지수 베타·상관계수와 (선택) 종목 간 상관계수를 계산하는 Batch 설정
+ * endDate가 속한 월까지 windowMonths 개월을 밀집 행렬로 올린 뒤 블록 단위로 ForkJoinPool에서 병렬 계산합니다.
+ * JobParameters: endDate, windowMonths(기본 36), minObservations(기본 12), stockPairs(기본 false),
+ * parallelism(기본 가용 코어 수)
+ */
+@Configuration
+public class CorrelationBatchConfig {
+
+    static final String BETA_UPSERT_SQL = """
+            INSERT INTO stock_index_beta (stock_id, index_info_id, base_date, window_months, observations, beta,
+                                          correlation)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                observations = VALUES(observations),
+                beta         = VALUES(beta),
+                correlation  = VALUES(correlation)
+        """;
+
+    static final String CORRELATION_UPSERT_SQL = """
+            INSERT INTO stock_correlation (stock_id, peer_stock_id, base_date, window_months, observations,
+                                           correlation)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                observations = VALUES(observations),
+                correlation  = VALUES(correlation)
+        """;
+
+    /**
+     * 같은 (기준월, 윈도우)의 이전 결과를 지워 상장 폐지 등으로 빠진 쌍이 남지 않게 함
+     */
+    @Bean
+    @StepScope
+    public Tasklet correlationCleanupTasklet(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{jobParameters['windowMonths'] ?: 36}") Long windowMonths,
+            @Value("#{jobParameters['stockPairs'] ?: 'false'}") String stockPairs
+    ) {
+        LocalDate baseDate = YearMonth.from(endDate).atDay(1);
+        return (contribution, chunkContext) -> {
+            jdbcTemplate.update("DELETE FROM stock_index_beta WHERE base_date = ? AND window_months = ?",
+                    baseDate, windowMonths);
+            if (Boolean.parseBoolean(stockPairs)) {
+                jdbcTemplate.update("DELETE FROM stock_correlation WHERE base_date = ? AND window_months = ?",
+                        baseDate, windowMonths);
+            }
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    /**
+     * 종목(행) x 지수(열) 쌍을 계산하여 내보내는 Reader
+     */
+    @Bean
+    @StepScope
+    public PairStatItemReader stockIndexBetaReader(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{jobParameters['windowMonths'] ?: 36}") Long windowMonths,
+            @Value("#{jobParameters['minObservations'] ?: 12}") Long minObservations,
+            @Value("#{jobParameters['parallelism'] ?: 0}") Long parallelism
+    ) {
+        YearMonth firstMonth = firstMonth(endDate, windowMonths);
+        return new PairStatItemReader("stockIndexBetaReader", () -> {
+            MonthlyReturnMatrix stocks = MonthlyReturnMatrix.load(jdbcTemplate, "calc_stock_price", "stock_id",
+                    firstMonth, windowMonths.intValue());
+            MonthlyReturnMatrix indices = MonthlyReturnMatrix.load(jdbcTemplate, "calc_index_price",
+                    "index_info_id", firstMonth, windowMonths.intValue());
+            return compute(stocks, indices, parallelism);
+        }, minObservations.intValue());
+    }
+
+    /**
+     * 종목 x 종목 위쪽 삼각형 쌍을 계산하여 내보내는 Reader, stockPairs=false면 아무것도 읽지 않습니다.
+     */
+    @Bean
+    @StepScope
+    public PairStatItemReader stockCorrelationReader(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{jobParameters['windowMonths'] ?: 36}") Long windowMonths,
+            @Value("#{jobParameters['minObservations'] ?: 12}") Long minObservations,
+            @Value("#{jobParameters['stockPairs'] ?: 'false'}") String stockPairs,
+            @Value("#{jobParameters['parallelism'] ?: 0}") Long parallelism
+    ) {
+        YearMonth firstMonth = firstMonth(endDate, windowMonths);
+        boolean enabled = Boolean.parseBoolean(stockPairs);
+        return new PairStatItemReader("stockCorrelationReader", () -> {
+            MonthlyReturnMatrix stocks = enabled
+                    ? MonthlyReturnMatrix.load(jdbcTemplate, "calc_stock_price", "stock_id", firstMonth,
+                    windowMonths.intValue())
+                    : MonthlyReturnMatrix.empty(windowMonths.intValue());
+            return compute(stocks, stocks, parallelism);
+        }, minObservations.intValue());
+    }
+
+    @Bean
+    @StepScope
+    public JdbcBatchItemWriter<PairStat> stockIndexBetaWriter(
+            DataSource dataSource,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{jobParameters['windowMonths'] ?: 36}") Long windowMonths
+    ) {
+        LocalDate baseDate = YearMonth.from(endDate).atDay(1);
+        return new JdbcBatchItemWriterBuilder<PairStat>()
+                .dataSource(dataSource)
+                .sql(BETA_UPSERT_SQL)
+                .assertUpdates(false)
+                .itemPreparedStatementSetter((item, ps) -> {
+                    ps.setInt(1, item.instrumentId());
+                    ps.setInt(2, item.peerId());
+                    ps.setObject(3, baseDate);
+                    ps.setInt(4, windowMonths.intValue());
+                    ps.setInt(5, item.observations());
+                    ps.setFloat(6, (float) item.beta());
+                    ps.setFloat(7, (float) item.correlation());
+                })
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public JdbcBatchItemWriter<PairStat> stockCorrelationWriter(
+            DataSource dataSource,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{jobParameters['windowMonths'] ?: 36}") Long windowMonths
+    ) {
+        LocalDate baseDate = YearMonth.from(endDate).atDay(1);
+        return new JdbcBatchItemWriterBuilder<PairStat>()
+                .dataSource(dataSource)
+                .sql(CORRELATION_UPSERT_SQL)
+                .assertUpdates(false)
+                .itemPreparedStatementSetter((item, ps) -> {
+                    ps.setInt(1, item.instrumentId());
+                    ps.setInt(2, item.peerId());
+                    ps.setObject(3, baseDate);
+                    ps.setInt(4, windowMonths.intValue());
+                    ps.setInt(5, item.observations());
+                    ps.setFloat(6, (float) item.correlation());
+                })
+                .build();
+    }
+
+    @Bean
+    public Step correlationCleanupStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                       Tasklet correlationCleanupTasklet) {
+        return new StepBuilder("correlationCleanupStep", jobRepository)
+                .tasklet(correlationCleanupTasklet, txMgr)
+                .build();
+    }
+
+    @Bean
+    public Step stockIndexBetaStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                   PairStatItemReader stockIndexBetaReader,
+                                   JdbcBatchItemWriter<PairStat> stockIndexBetaWriter) {
+        return new StepBuilder("stockIndexBetaStep", jobRepository)
+                .<PairStat, PairStat>chunk(5000, txMgr)
+                .reader(stockIndexBetaReader)
+                .writer(stockIndexBetaWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    @Bean
+    public Step stockCorrelationStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                     PairStatItemReader stockCorrelationReader,
+                                     JdbcBatchItemWriter<PairStat> stockCorrelationWriter) {
+        return new StepBuilder("stockCorrelationStep", jobRepository)
+                .<PairStat, PairStat>chunk(5000, txMgr)
+                .reader(stockCorrelationReader)
+                .writer(stockCorrelationWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    /**
+     * Job 구성: 이전 결과 정리 → 종목-지수 베타 → (stockPairs=true) 종목 간 상관계수
+     */
+    @Bean
+    public Job correlationJob(JobRepository jobRepository, Step correlationCleanupStep, Step stockIndexBetaStep,
+                              Step stockCorrelationStep) {
+        return new JobBuilder("correlationJob", jobRepository)
+                .start(correlationCleanupStep)
+                .next(stockIndexBetaStep)
+                .next(stockCorrelationStep)
+                .build();
+    }
+
+    private static YearMonth firstMonth(LocalDate endDate, long windowMonths) {
+        if (windowMonths < 2 || windowMonths > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("windowMonths must be between 2 and " + Short.MAX_VALUE + ": "
+                    + windowMonths);
+        }
+        return YearMonth.from(endDate).minusMonths(windowMonths - 1);
+    }
+
+    /**
+     * 실행마다 전용 ForkJoinPool을 만들어 계산하고 닫음, parallelism이 0이면 가용 코어 수를 씁니다.
+     */
+    private static PairwiseReturnStats compute(MonthlyReturnMatrix rows, MonthlyReturnMatrix columns,
+                                               Long parallelism) {
+        int threads = parallelism > 0 ? parallelism.intValue() : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return PairwiseReturnStats.compute(rows, columns, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
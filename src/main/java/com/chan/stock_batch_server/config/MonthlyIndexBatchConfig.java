@@ -1,116 +1,400 @@
 package com.chan.stock_batch_server.config;
 
+import com.chan.stock_batch_server.batch.ChangePublishingItemWriter;
+import com.chan.stock_batch_server.batch.ConnectionPermitTaskDecorator;
+import com.chan.stock_batch_server.batch.DirtyMonthCleanupTasklet;
+import com.chan.stock_batch_server.batch.DirtyMonthClaimTasklet;
+import com.chan.stock_batch_server.batch.IdRangePartitioner;
+import com.chan.stock_batch_server.batch.MonthlyAggregatingItemReader;
+import com.chan.stock_batch_server.batch.PeriodRollupTasklet;
+import com.chan.stock_batch_server.batch.ThroughputLoggingListener;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyClosePrice;
 import com.chan.stock_batch_server.dto.MonthlyIndexPrice;
+import com.chan.stock_batch_server.dto.MonthlyReturn;
 import com.chan.stock_batch_server.model.CalcIndexPrice;
+import com.chan.stock_batch_server.model.IndexInfo;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
 import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 월별 수익률을 계산하여 CalcIndexPrice 엔티티로 저장하는 Batch 설정
  * JobParameters로 전달된 'year'와 'month'를 기준으로 처리합니다.
+ * Reader → Processor → Writer 구간에서는 IndexInfo 엔티티 대신 index id만 전달합니다.
  */
 @Configuration
 public class MonthlyIndexBatchConfig {
 
     /**
-     * JobParameters로 받은 연도(year)와 월(month)에 해당하는 월별 시가·종가 집계 Reader
+     * subquery 모드에서 사용하는 JPQL
+     * 지수별 첫/마지막 종가를 기간 안의 MIN/MAX 기준일 서브쿼리로 찾습니다.
      */
-    @Bean
-    @StepScope
-    public JpaPagingItemReader<MonthlyIndexPrice> monthlyIndexPriceReader(
-            EntityManagerFactory emf,
-            @Value("#{jobParameters['year']}") Integer year,
-            @Value("#{jobParameters['month']}") Integer month
-    ) {
-        String jpql = """
+    static final String SUBQUERY_JPQL = """
             SELECT new com.chan.stock_batch_server.dto.MonthlyIndexPrice(
                 YEAR(p.baseDate),
                 MONTH(p.baseDate),
                 (SELECT p2.closePrice
                  FROM IndexPrice p2
                  WHERE p2.indexInfo = p.indexInfo
-                   AND YEAR(p2.baseDate) = :year
-                   AND MONTH(p2.baseDate) = :month
+                   AND p2.baseDate >= :startDate
+                   AND p2.baseDate <  :endDate
                    AND p2.baseDate = (
                        SELECT MIN(p3.baseDate)
                        FROM IndexPrice p3
                        WHERE p3.indexInfo = p.indexInfo
-                         AND YEAR(p3.baseDate) = :year
-                         AND MONTH(p3.baseDate) = :month
+                         AND p3.baseDate >= :startDate
+                         AND p3.baseDate <  :endDate
                    )
                 ),
                 (SELECT p2.closePrice
                  FROM IndexPrice p2
                  WHERE p2.indexInfo = p.indexInfo
-                   AND YEAR(p2.baseDate) = :year
-                   AND MONTH(p2.baseDate) = :month
+                   AND p2.baseDate >= :startDate
+                   AND p2.baseDate <  :endDate
                    AND p2.baseDate = (
                        SELECT MAX(p3.baseDate)
                        FROM IndexPrice p3
                        WHERE p3.indexInfo = p.indexInfo
-                         AND YEAR(p3.baseDate) = :year
-                         AND MONTH(p3.baseDate) = :month
+                         AND p3.baseDate >= :startDate
+                         AND p3.baseDate <  :endDate
                    )
                 ),
                 AVG(p.closePrice),
-                p.indexInfo
+                p.indexInfo.id,
+                COUNT(p.closePrice)
             )
             FROM IndexPrice p
-            WHERE YEAR(p.baseDate)  = :year
-              AND MONTH(p.baseDate) = :month
-            GROUP BY p.indexInfo, YEAR(p.baseDate), MONTH(p.baseDate)
+            WHERE p.baseDate >= :startDate
+              AND p.baseDate <  :endDate
+              AND p.indexInfo.id BETWEEN :fromId AND :toId
+            GROUP BY p.indexInfo.id, YEAR(p.baseDate), MONTH(p.baseDate)
             ORDER BY p.indexInfo.id, YEAR(p.baseDate), MONTH(p.baseDate)
         """;
+
+    /**
+     * window 모드에서 사용하는 단일 스캔 집계 SQL
+     */
+    static final String WINDOW_SQL = """
+            SELECT DISTINCT
+                p.index_info_id,
+                FIRST_VALUE(p.close_price) OVER w AS start_price,
+                LAST_VALUE(p.close_price)  OVER w AS end_price,
+                AVG(p.close_price)         OVER w AS average_price,
+                COUNT(p.close_price)       OVER w AS trading_days
+            FROM index_price p
+            WHERE p.base_date >= ?
+              AND p.base_date <  ?
+              AND p.index_info_id BETWEEN ? AND ?
+            WINDOW w AS (
+                PARTITION BY p.index_info_id
+                ORDER BY p.base_date
+                ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING
+            )
+            ORDER BY p.index_info_id
+        """;
+
+    /**
+     * 기간 Job에서 사용하는 일별 종가 스캔 SQL
+     * (index_info_id, base_date) 순으로 한 번만 읽으며 월 경계는 Reader에서 나눕니다.
+     * 마지막 조건은 재시작 위치 (index_info_id, base_date) 이후만 읽어 idx_index_price_index_date_close 범위 스캔으로 이어 갑니다.
+     * MySQL은 행 생성자 비교 (a, b) >= (?, ?)를 범위 조건으로 쓰지 않으므로 OR로 풀어 쓰며, id를 두 번 바인딩합니다.
+     */
+    static final String RANGE_SQL = """
+            SELECT p.index_info_id, p.base_date, p.close_price
+            FROM index_price p
+            WHERE p.base_date >= ?
+              AND p.base_date <  ?
+              AND p.close_price IS NOT NULL
+              AND (p.index_info_id > ? OR (p.index_info_id = ? AND p.base_date >= ?))
+            ORDER BY p.index_info_id, p.base_date
+        """;
+
+    /**
+     * 증분 Job에서 사용하는 SQL: 선점한 Dirty 월에 속한 일별 종가만 (index_info_id, base_date) 순으로 읽습니다.
+     */
+    static final String DIRTY_SQL = """
+            SELECT p.index_info_id, p.base_date, p.close_price
+            FROM dirty_index_month d
+            JOIN index_price p
+              ON p.index_info_id = d.index_info_id
+             AND p.base_date >= d.base_date
+             AND p.base_date <  d.base_date + INTERVAL 1 MONTH
+            WHERE d.claimed_by = ?
+              AND p.close_price IS NOT NULL
+              AND (p.index_info_id > ? OR (p.index_info_id = ? AND p.base_date >= ?))
+            ORDER BY p.index_info_id, p.base_date
+        """;
+
+    /**
+     * JobParameters로 받은 연도(year)와 월(month)에 해당하는 월별 시가·종가 집계 Reader
+     * batch.monthly.reader-mode 설정에 따라 subquery(JPQL) 또는 window(단일 스캔) 방식으로 동작합니다.
+     */
+    @Bean
+    @StepScope
+    public ItemStreamReader<MonthlyIndexPrice> monthlyIndexPriceReader(
+            EntityManagerFactory emf,
+            DataSource dataSource,
+            @Value("${batch.monthly.reader-mode:subquery}") String readerMode,
+            @Value("#{jobParameters['year']}") Integer year,
+            @Value("#{jobParameters['month']}") Integer month,
+            @Value("#{stepExecutionContext['minId']}") Integer minId,
+            @Value("#{stepExecutionContext['maxId']}") Integer maxId
+    ) {
+        // 파티션으로 실행되지 않은 경우 전체 id 범위를 읽습니다.
+        int fromId = minId != null ? minId : 0;
+        int toId = maxId != null ? maxId : Integer.MAX_VALUE;
+        if ("window".equals(readerMode)) {
+            return windowReader(dataSource, year, month, fromId, toId);
+        }
+        return subqueryReader(emf, year, month, fromId, toId);
+    }
+
+    static JpaPagingItemReader<MonthlyIndexPrice> subqueryReader(EntityManagerFactory emf, Integer year, Integer month,
+                                                         int fromId, int toId) {
+        // baseDate 컬럼에 함수를 씌우지 않는 반열림 구간 조건으로 인덱스 범위 스캔을 사용합니다.
+        LocalDate startDate = LocalDate.of(year, month, 1);
         return new JpaPagingItemReaderBuilder<MonthlyIndexPrice>()
                 .name("monthlyPriceReader")
                 .entityManagerFactory(emf)
-                .queryString(jpql)
-                .parameterValues(Map.of("year", year, "month", month))
+                .queryString(SUBQUERY_JPQL)
+                .parameterValues(Map.of("startDate", startDate, "endDate", startDate.plusMonths(1),
+                        "fromId", fromId, "toId", toId))
                 .pageSize(100)
                 .build();
     }
 
     /**
-     * 월별 수익률을 계산하여 CalcIndexPrice 객체 생성
+     * 윈도우 함수로 한 번의 정렬 스캔에서 월별 집계를 읽는 Reader
+     */
+    private JdbcCursorItemReader<MonthlyIndexPrice> windowReader(DataSource dataSource, Integer year, Integer month,
+                                                         int fromId, int toId) {
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        return new JdbcCursorItemReaderBuilder<MonthlyIndexPrice>()
+                .name("monthlyIndexPriceReader")
+                .dataSource(dataSource)
+                .sql(WINDOW_SQL)
+                .queryArguments(startDate, startDate.plusMonths(1), fromId, toId)
+                .rowMapper((rs, rowNum) -> new MonthlyIndexPrice(
+                        year,
+                        month,
+                        rs.getObject("start_price", Float.class),
+                        rs.getObject("end_price", Float.class),
+                        rs.getDouble("average_price"),
+                        rs.getInt("index_info_id"),
+                        rs.getLong("trading_days")
+                ))
+                .build();
+    }
+
+    /**
+     * JobParameters로 받은 startDate~endDate가 걸친 모든 월을 한 번의 정렬 스캔으로 집계하는 Reader
+     * 시작·종료 월은 월 전체를 대상으로 하며, 재시작 시 마지막으로 커밋된 (지수, 월)의 다음 월부터 읽습니다.
      */
     @Bean
-    public ItemProcessor<MonthlyIndexPrice, CalcIndexPrice> monthlyIndexPriceProcessor() {
+    @StepScope
+    public MonthlyAggregatingItemReader<MonthlyIndexPrice> rangeIndexPriceReader(
+            DataSource dataSource,
+            @Value("#{jobParameters['startDate']}") LocalDate startDate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate
+    ) {
+        LocalDate from = startDate.withDayOfMonth(1);
+        LocalDate to = endDate.withDayOfMonth(1).plusMonths(1);
+        return new MonthlyAggregatingItemReader<>("rangeIndexPriceReader",
+                (lastId, lastMonth) -> lastMonth == null
+                        ? dailyCloseReader(dataSource, RANGE_SQL, from, to, 0, 0, from)
+                        : dailyCloseReader(dataSource, RANGE_SQL, from, to, lastId, lastId,
+                                lastMonth.plusMonths(1).atDay(1)),
+                MonthlyIndexBatchConfig::toMonthlyIndexPrice);
+    }
+
+    /**
+     * 현재 JobInstance가 선점한 Dirty (지수, 월)의 일별 종가만 정렬 스캔하여 월별로 집계하는 Reader
+     * 재시작 시 선점 Step은 건너뛰므로 같은 선점 행을 마지막으로 커밋된 (지수, 월)의 다음 월부터 읽습니다.
+     */
+    @Bean
+    @StepScope
+    public MonthlyAggregatingItemReader<MonthlyIndexPrice> dirtyIndexPriceReader(
+            DataSource dataSource,
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId
+    ) {
+        return new MonthlyAggregatingItemReader<>("dirtyIndexPriceReader",
+                (lastId, lastMonth) -> lastMonth == null
+                        ? dailyCloseReader(dataSource, DIRTY_SQL, jobInstanceId, 0, 0, LocalDate.of(1000, 1, 1))
+                        : dailyCloseReader(dataSource, DIRTY_SQL, jobInstanceId, lastId, lastId,
+                                lastMonth.plusMonths(1).atDay(1)),
+                MonthlyIndexBatchConfig::toMonthlyIndexPrice);
+    }
+
+    /**
+     * (index_info_id, base_date) 순 일별 종가를 스트리밍으로 읽는 커서 Reader
+     * 위치는 바깥의 MonthlyAggregatingItemReader가 관리하므로 상태를 저장하지 않습니다.
+     */
+    private JdbcCursorItemReader<DailyClosePrice> dailyCloseReader(DataSource dataSource, String sql, Object... args) {
+        return new JdbcCursorItemReaderBuilder<DailyClosePrice>()
+                .name("dailyIndexPriceReader")
+                .dataSource(dataSource)
+                .sql(sql)
+                .queryArguments(args)
+                // MySQL 스트리밍 결과셋: 전체 이력을 메모리에 올리지 않습니다.
+                .fetchSize(Integer.MIN_VALUE)
+                .verifyCursorPosition(false)
+                .saveState(false)
+                .rowMapper((rs, rowNum) -> new DailyClosePrice(
+                        rs.getInt("index_info_id"),
+                        rs.getObject("base_date", LocalDate.class),
+                        rs.getDouble("close_price")
+                ))
+                .build();
+    }
+
+    private static MonthlyIndexPrice toMonthlyIndexPrice(int instrumentId, YearMonth month,
+                                                    double startPrice, double endPrice, double averagePrice,
+                                                    int tradingDays) {
+        return new MonthlyIndexPrice(
+                month.getYear(),
+                month.getMonthValue(),
+                (float) startPrice,
+                (float) endPrice,
+                averagePrice,
+                instrumentId,
+                (long) tradingDays
+        );
+    }
+
+    /**
+     * 월별 수익률을 계산하여 MonthlyReturn 생성
+     */
+    @Bean
+    public ItemProcessor<MonthlyIndexPrice, MonthlyReturn> monthlyIndexPriceProcessor() {
         return monthly -> {
             float ror = (float) ((monthly.getEndPrice() - monthly.getStartPrice()) / monthly.getStartPrice());
             LocalDate baseDate = LocalDate.of(monthly.getYear(), monthly.getMonth(), 1);
-            return CalcIndexPrice.builder()
-                    .price(monthly.getAveragePrice().floatValue())
-                    .monthlyRor(ror)
-                    .baseDate(baseDate)
-                    .indexInfo(monthly.getIndexInfo())
-                    .build();
+            return new MonthlyReturn(monthly.getIndexInfoId(), baseDate, monthly.getAveragePrice().floatValue(), ror,
+                    monthly.getTradingDays().intValue());
         };
     }
 
     /**
-     * CalcIndexPrice 저장을 위한 JPA Writer
+     * jdbc 모드에서 사용하는 UPSERT SQL
+     * (index_info_id, base_date) 유니크 키 기준으로 갱신하며, 값이 같으면 MySQL이 행을 변경하지 않습니다.
+     */
+    static final String UPSERT_SQL = """
+            INSERT INTO calc_index_price (price, monthly_ror, trading_days, base_date, index_info_id)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                price        = VALUES(price),
+                monthly_ror  = VALUES(monthly_ror),
+                trading_days = VALUES(trading_days)
+        """;
+
+    /**
+     * CalcIndexPrice 저장을 위한 Writer
+     * batch.monthly.writer-mode 설정에 따라 jpa(엔티티 조회 후 갱신·persist) 또는 jdbc(JDBC 배치 UPSERT) 방식으로 동작합니다.
+     * 청크를 쓴 뒤 CalcPriceChangedEvent를 발행하여 조회 캐시를 무효화합니다.
      */
     @Bean
-    public JpaItemWriter<CalcIndexPrice> calcIndexPriceWriter(EntityManagerFactory emf) {
-        JpaItemWriter<CalcIndexPrice> writer = new JpaItemWriter<>();
-        writer.setEntityManagerFactory(emf);
-        return writer;
+    public ItemWriter<MonthlyReturn> calcIndexPriceWriter(
+            EntityManagerFactory emf,
+            DataSource dataSource,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${batch.monthly.writer-mode:jdbc}") String writerMode
+    ) {
+        ItemWriter<MonthlyReturn> delegate = "jdbc".equals(writerMode) ? jdbcWriter(dataSource) : jpaWriter(emf);
+        return new ChangePublishingItemWriter(CalcPriceChangedEvent.Kind.INDEX, delegate, eventPublisher);
+    }
+
+    /**
+     * 청크의 (id, 월)에 이미 있는 행을 한 번에 조회해 값을 갱신하고, 없는 행만 getReference 프록시를 연결하여 persist 하는 Writer
+     * 같은 달을 다시 계산해도 유니크 키를 어기지 않으며, 청크마다 flush 후 영속성 컨텍스트를 비웁니다.
+     */
+    private ItemWriter<MonthlyReturn> jpaWriter(EntityManagerFactory emf) {
+        return chunk -> {
+            EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+            if (em == null) {
+                throw new DataAccessResourceFailureException("Unable to obtain a transactional EntityManager");
+            }
+            Map<List<Object>, CalcIndexPrice> existing = new HashMap<>();
+            em.createQuery("SELECT c FROM CalcIndexPrice c WHERE c.indexInfo.id IN :ids AND c.baseDate IN :dates",
+                            CalcIndexPrice.class)
+                    .setParameter("ids", chunk.getItems().stream().map(MonthlyReturn::instrumentId).distinct().toList())
+                    .setParameter("dates", chunk.getItems().stream().map(MonthlyReturn::baseDate).distinct().toList())
+                    .getResultList()
+                    .forEach(row -> existing.put(List.of(row.getIndexInfo().getId(), row.getBaseDate()), row));
+
+            for (MonthlyReturn item : chunk) {
+                List<Object> key = List.of(item.instrumentId(), item.baseDate());
+                CalcIndexPrice row = existing.get(key);
+                if (row != null) {
+                    row.update(item.price(), item.monthlyRor(), item.tradingDays());
+                    continue;
+                }
+                row = CalcIndexPrice.builder()
+                        .price(item.price())
+                        .monthlyRor(item.monthlyRor())
+                        .baseDate(item.baseDate())
+                        .tradingDays(item.tradingDays())
+                        .indexInfo(em.getReference(IndexInfo.class, item.instrumentId()))
+                        .build();
+                em.persist(row);
+                existing.put(key, row);
+            }
+            em.flush();
+            em.clear();
+        };
+    }
+
+    /**
+     * 영속성 컨텍스트를 거치지 않고 외래키 id로 바로 UPSERT 하는 JDBC 배치 Writer
+     * rewriteBatchedStatements=true 설정 시 청크 단위 multi-row INSERT ... ON DUPLICATE KEY UPDATE로 전송되어
+     * 같은 달을 다시 계산해도 삭제 없이 기존 행을 덮어씁니다.
+     */
+    private JdbcBatchItemWriter<MonthlyReturn> jdbcWriter(DataSource dataSource) {
+        return new JdbcBatchItemWriterBuilder<MonthlyReturn>()
+                .dataSource(dataSource)
+                .sql(UPSERT_SQL)
+                // 값이 바뀌지 않은 행은 영향받은 행 수가 0으로 반환됩니다.
+                .assertUpdates(false)
+                .itemPreparedStatementSetter((item, ps) -> {
+                    ps.setFloat(1, item.price());
+                    ps.setFloat(2, item.monthlyRor());
+                    ps.setInt(3, item.tradingDays());
+                    ps.setObject(4, item.baseDate());
+                    ps.setInt(5, item.instrumentId());
+                })
+                .build();
     }
 
     /**
@@ -120,15 +404,48 @@ public class MonthlyIndexBatchConfig {
     public Step calcIndexPriceStep(
             JobRepository jobRepository,
             PlatformTransactionManager txMgr,
-            JpaPagingItemReader<MonthlyIndexPrice> reader,
-            ItemProcessor<MonthlyIndexPrice, CalcIndexPrice> processor,
-            JpaItemWriter<CalcIndexPrice> writer
+            ItemStreamReader<MonthlyIndexPrice> monthlyIndexPriceReader,
+            ItemProcessor<MonthlyIndexPrice, MonthlyReturn> processor,
+            ItemWriter<MonthlyReturn> calcIndexPriceWriter
     ) {
         return new StepBuilder("calcIndexPriceStep", jobRepository)
-                .<MonthlyIndexPrice, CalcIndexPrice>chunk(100, txMgr)
-                .reader(reader)
+                .<MonthlyIndexPrice, MonthlyReturn>chunk(100, txMgr)
+                .reader(monthlyIndexPriceReader)
                 .processor(processor)
-                .writer(writer)
+                .writer(calcIndexPriceWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    /**
+     * Partition Step 구성: index_info id 공간을 gridSize 개 구간으로 나누어 calcIndexPriceStep를 병렬 실행
+     * gridSize(파티션 수)와 concurrency(동시 실행 Worker 수)는 JobParameters로 조정할 수 있습니다.
+     */
+    @Bean
+    @JobScope
+    public Step calcIndexPricePartitionStep(
+            JobRepository jobRepository,
+            JdbcTemplate jdbcTemplate,
+            Step calcIndexPriceStep,
+            @Value("#{jobParameters['gridSize'] ?: ${batch.partition.grid-size}}") Long gridSize,
+            @Value("#{jobParameters['concurrency'] ?: ${batch.partition.concurrency}}") Long concurrency,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Qualifier("partitionConnectionPermitTaskDecorator")
+            ConnectionPermitTaskDecorator connectionPermitTaskDecorator
+    ) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("calcIndexPrice-partition-");
+        taskExecutor.setConcurrencyLimit(concurrency.intValue());
+        if (virtualThreads) {
+            // 가상 스레드 모드: Worker 수는 concurrency, 실제 DB 동시 작업 수는 파티션 커넥션 permit으로 제한
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setTaskDecorator(connectionPermitTaskDecorator);
+        }
+
+        return new StepBuilder("calcIndexPricePartitionStep", jobRepository)
+                .partitioner("calcIndexPriceStep", new IdRangePartitioner(jdbcTemplate, "index_info"))
+                .step(calcIndexPriceStep)
+                .gridSize(gridSize.intValue())
+                .taskExecutor(taskExecutor)
                 .build();
     }
 
@@ -141,4 +458,139 @@ public class MonthlyIndexBatchConfig {
                 .start(calcIndexPriceStep)
                 .build();
     }
+
+    /**
+     * Job 구성: index_info id 구간별 Partition Step으로 실행
+     */
+    @Bean
+    public Job calcIndexPricePartitionJob(JobRepository jobRepository, Step calcIndexPricePartitionStep) {
+        return new JobBuilder("calcIndexPricePartitionJob", jobRepository)
+                .start(calcIndexPricePartitionStep)
+                .build();
+    }
+
+    /**
+     * 기간 Step 구성: 기간 전체를 한 번에 스캔하여 (종목, 월)별 CalcIndexPrice를 저장
+     */
+    @Bean
+    public Step calcIndexPriceRangeStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager txMgr,
+            MonthlyAggregatingItemReader<MonthlyIndexPrice> rangeIndexPriceReader,
+            ItemProcessor<MonthlyIndexPrice, MonthlyReturn> processor,
+            ItemWriter<MonthlyReturn> calcIndexPriceWriter
+    ) {
+        return new StepBuilder("calcIndexPriceRangeStep", jobRepository)
+                .<MonthlyIndexPrice, MonthlyReturn>chunk(100, txMgr)
+                .reader(rangeIndexPriceReader)
+                .processor(processor)
+                .writer(calcIndexPriceWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    /**
+     * Job 구성: startDate~endDate 기간을 하나의 Step으로 실행
+     */
+    @Bean
+    public Job calcIndexPriceRangeJob(JobRepository jobRepository, Step calcIndexPriceRangeStep,
+                                      Step rollupIndexPriceStep) {
+        return new JobBuilder("calcIndexPriceRangeJob", jobRepository)
+                .start(calcIndexPriceRangeStep)
+                .next(rollupIndexPriceStep)
+                .build();
+    }
+
+    /**
+     * 롤업 Step 구성: startDate~endDate가 걸친 분기·연 결과를 월별 결과에서 다시 계산
+     */
+    @Bean
+    public Step rollupIndexPriceStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                    JdbcTemplate jdbcTemplate) {
+        return new StepBuilder("rollupIndexPriceStep", jobRepository)
+                .tasklet(new PeriodRollupTasklet(jdbcTemplate, "calc_index_price", "index_info_id",
+                        "calc_index_period_price", null), txMgr)
+                .transactionAttribute(PeriodRollupTasklet.transactionAttribute())
+                .build();
+    }
+
+    /**
+     * Job 구성: 월별 결과만으로 분기·연 결과를 만드는 롤업 Job (startDate, endDate 미지정 시 전체 기간)
+     */
+    @Bean
+    public Job rollupIndexPriceJob(JobRepository jobRepository, Step rollupIndexPriceStep) {
+        return new JobBuilder("rollupIndexPriceJob", jobRepository)
+                .start(rollupIndexPriceStep)
+                .build();
+    }
+
+    /**
+     * 증분 Step 1: 워터마크 이후 시세의 (지수, 월)을 Dirty로 표시하고 이번 실행 몫을 선점
+     */
+    @Bean
+    public Step claimDirtyIndexMonthStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                       JdbcTemplate jdbcTemplate) {
+        return new StepBuilder("claimDirtyIndexMonthStep", jobRepository)
+                .tasklet(new DirtyMonthClaimTasklet(jdbcTemplate, "index_price", "index_info_id", "dirty_index_month"), txMgr)
+                .build();
+    }
+
+    /**
+     * 증분 Step 2: 선점한 (지수, 월)만 다시 계산하여 UPSERT
+     */
+    @Bean
+    public Step calcDirtyIndexPriceStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager txMgr,
+            MonthlyAggregatingItemReader<MonthlyIndexPrice> dirtyIndexPriceReader,
+            ItemProcessor<MonthlyIndexPrice, MonthlyReturn> processor,
+            ItemWriter<MonthlyReturn> calcIndexPriceWriter
+    ) {
+        return new StepBuilder("calcDirtyIndexPriceStep", jobRepository)
+                .<MonthlyIndexPrice, MonthlyReturn>chunk(100, txMgr)
+                .reader(dirtyIndexPriceReader)
+                .processor(processor)
+                .writer(calcIndexPriceWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    /**
+     * 증분 Step 3: 선점한 (지수, 월)이 속한 분기·연 결과만 다시 롤업
+     */
+    @Bean
+    public Step rollupDirtyIndexPriceStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                         JdbcTemplate jdbcTemplate) {
+        return new StepBuilder("rollupDirtyIndexPriceStep", jobRepository)
+                .tasklet(new PeriodRollupTasklet(jdbcTemplate, "calc_index_price", "index_info_id",
+                        "calc_index_period_price", "dirty_index_month"), txMgr)
+                .transactionAttribute(PeriodRollupTasklet.transactionAttribute())
+                .build();
+    }
+
+    /**
+     * 증분 Step 4: 다시 계산한 Dirty 행 삭제
+     */
+    @Bean
+    public Step cleanupDirtyIndexMonthStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                         JdbcTemplate jdbcTemplate) {
+        return new StepBuilder("cleanupDirtyIndexMonthStep", jobRepository)
+                .tasklet(new DirtyMonthCleanupTasklet(jdbcTemplate, "dirty_index_month"), txMgr)
+                .build();
+    }
+
+    /**
+     * Job 구성: 새로 들어오거나 바뀐 (지수, 월)만 다시 계산하는 증분 Job
+     */
+    @Bean
+    public Job calcDirtyIndexPriceJob(JobRepository jobRepository, Step claimDirtyIndexMonthStep,
+                                    Step calcDirtyIndexPriceStep, Step rollupDirtyIndexPriceStep,
+                                    Step cleanupDirtyIndexMonthStep) {
+        return new JobBuilder("calcDirtyIndexPriceJob", jobRepository)
+                .start(claimDirtyIndexMonthStep)
+                .next(calcDirtyIndexPriceStep)
+                .next(rollupDirtyIndexPriceStep)
+                .next(cleanupDirtyIndexMonthStep)
+                .build();
+    }
 }
@@ -0,0 +1,91 @@
+package com.chan.stock_batch_server.config;
+
+import com.chan.stock_batch_server.batch.ConnectionPermitTaskDecorator;
+import com.chan.stock_batch_server.batch.MonthRangePartitioner;
+import com.chan.stock_batch_server.batch.MonthlyRankTasklet;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * 월별 결과(calc_stock_price)로 종목 횡단면 수익률 순위·백분위·십분위를 계산하는 Batch 설정
+ * JobParameters의 startDate~endDate가 걸친 월마다 파티션 하나를 만들어 병렬로 다시 계산합니다.
+ */
+@Configuration
+public class MonthlyRankBatchConfig {
+
+    /**
+     * 파티션의 month(yyyy-MM) 한 달을 순위 계산하는 Tasklet
+     */
+    @Bean
+    @StepScope
+    public MonthlyRankTasklet monthlyRankTasklet(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{stepExecutionContext['month']}") String month
+    ) {
+        return new MonthlyRankTasklet(jdbcTemplate, YearMonth.parse(month));
+    }
+
+    @Bean
+    public Step monthlyRankStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                MonthlyRankTasklet monthlyRankTasklet) {
+        return new StepBuilder("monthlyRankStep", jobRepository)
+                .tasklet(monthlyRankTasklet, txMgr)
+                .build();
+    }
+
+    /**
+     * Partition Step 구성: startDate~endDate의 월마다 monthlyRankStep을 병렬 실행
+     */
+    @Bean
+    @JobScope
+    public Step monthlyRankPartitionStep(
+            JobRepository jobRepository,
+            Step monthlyRankStep,
+            @Value("#{jobParameters['startDate']}") LocalDate startDate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{jobParameters['concurrency'] ?: ${batch.partition.concurrency}}") Long concurrency,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Qualifier("partitionConnectionPermitTaskDecorator")
+            ConnectionPermitTaskDecorator connectionPermitTaskDecorator
+    ) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("monthlyRank-partition-");
+        taskExecutor.setConcurrencyLimit(concurrency.intValue());
+        if (virtualThreads) {
+            // 가상 스레드 모드: Worker 수는 concurrency, 실제 DB 동시 작업 수는 파티션 커넥션 permit으로 제한
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setTaskDecorator(connectionPermitTaskDecorator);
+        }
+
+        return new StepBuilder("monthlyRankPartitionStep", jobRepository)
+                .partitioner("monthlyRankStep",
+                        new MonthRangePartitioner(YearMonth.from(startDate), YearMonth.from(endDate)))
+                .step(monthlyRankStep)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    /**
+     * Job 구성: 월별 Partition Step으로 실행
+     */
+    @Bean
+    public Job monthlyRankJob(JobRepository jobRepository, Step monthlyRankPartitionStep) {
+        return new JobBuilder("monthlyRankJob", jobRepository)
+                .start(monthlyRankPartitionStep)
+                .build();
+    }
+}
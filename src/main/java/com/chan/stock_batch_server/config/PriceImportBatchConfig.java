@@ -0,0 +1,91 @@
+package com.chan.stock_batch_server.config;
+
+import com.chan.stock_batch_server.batch.DailyPriceJdbcWriter;
+import com.chan.stock_batch_server.batch.InstrumentLookupCache;
+import com.chan.stock_batch_server.batch.JsonPriceItemReader;
+import com.chan.stock_batch_server.batch.ThroughputLoggingListener;
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Paths;
+
+/**
+ * 업로드된 일별 시세 JSON 파일을 StockPrice / IndexPrice로 적재하는 Batch 설정
+ * JobParameters로 전달된 'fileName' 파일을 스트리밍으로 읽어 대용량 JDBC 배치로 저장합니다.
+ */
+@Configuration
+public class PriceImportBatchConfig {
+
+    /**
+     * JobParameters로 받은 파일을 토큰 단위로 읽는 Reader
+     */
+    @Bean
+    @StepScope
+    public JsonPriceItemReader jsonPriceItemReader(
+            ObjectMapper objectMapper,
+            @Value("#{jobParameters['fileName']}") String fileName
+    ) {
+        return new JsonPriceItemReader(objectMapper, Paths.get(fileName));
+    }
+
+    /**
+     * 종목 코드/지수 (name, category) → id 캐시, 여러 적재 Step이 함께 사용합니다.
+     */
+    @Bean
+    public InstrumentLookupCache instrumentLookupCache(NamedParameterJdbcTemplate jdbcTemplate,
+                                                       PlatformTransactionManager txMgr) {
+        return new InstrumentLookupCache(jdbcTemplate, txMgr);
+    }
+
+    /**
+     * 종목/지수 id를 캐시로 매핑하여 UPSERT 하는 Writer
+     */
+    @Bean
+    public DailyPriceJdbcWriter dailyPriceJdbcWriter(JdbcTemplate jdbcTemplate,
+                                                     InstrumentLookupCache instrumentLookupCache,
+                                                     ApplicationEventPublisher eventPublisher) {
+        return new DailyPriceJdbcWriter(jdbcTemplate, instrumentLookupCache, eventPublisher);
+    }
+
+    /**
+     * Step 구성: batch.import.chunk-size 단위 청크로 적재하고 종료 시 초당 처리 건수를 기록
+     */
+    @Bean
+    public Step importPriceStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager txMgr,
+            JsonPriceItemReader jsonPriceItemReader,
+            DailyPriceJdbcWriter dailyPriceJdbcWriter,
+            @Value("${batch.import.chunk-size:5000}") int chunkSize
+    ) {
+        return new StepBuilder("importPriceStep", jobRepository)
+                .<DailyPriceRecord, DailyPriceRecord>chunk(chunkSize, txMgr)
+                .reader(jsonPriceItemReader)
+                .writer(dailyPriceJdbcWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    /**
+     * Job 구성: 하나의 Step으로 실행
+     */
+    @Bean
+    public Job importPriceJob(JobRepository jobRepository, Step importPriceStep) {
+        return new JobBuilder("importPriceJob", jobRepository)
+                .start(importPriceStep)
+                .build();
+    }
+}
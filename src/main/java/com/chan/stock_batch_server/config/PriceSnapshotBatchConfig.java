@@ -0,0 +1,69 @@
+package com.chan.stock_batch_server.config;
+
+import com.chan.stock_batch_server.batch.PriceSnapshot;
+import com.chan.stock_batch_server.batch.PriceSnapshotTasklet;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Paths;
+
+/**
+ * 종목 일별 시세 이력을 메모리 매핑용 이진 스냅샷으로 내보내는 Batch 설정
+ * 서버 시작 시 스냅샷을 매핑하여 DailyPriceStore가 DB 대신 스냅샷에서 세그먼트를 적재합니다.
+ */
+@Configuration
+public class PriceSnapshotBatchConfig {
+
+    /**
+     * batch.snapshot.dir의 스냅샷을 시작 시 매핑, 없으면 DB에서 읽는 상태로 시작합니다.
+     */
+    @Bean
+    public PriceSnapshot priceSnapshot(
+            @Value("${batch.snapshot.dir:./snapshot}") String directory,
+            @Value("${batch.snapshot.verify-on-start:true}") boolean verify
+    ) {
+        PriceSnapshot snapshot = new PriceSnapshot(Paths.get(directory), verify);
+        snapshot.reload();
+        return snapshot;
+    }
+
+    /**
+     * JobParameters mode(full | append, 기본 append)에 따라 스냅샷을 작성하는 Tasklet
+     */
+    @Bean
+    @StepScope
+    public PriceSnapshotTasklet priceSnapshotTasklet(
+            JdbcTemplate jdbcTemplate,
+            PriceSnapshot priceSnapshot,
+            @Value("#{jobParameters['mode'] ?: 'append'}") String mode
+    ) {
+        return new PriceSnapshotTasklet(jdbcTemplate, priceSnapshot, mode);
+    }
+
+    @Bean
+    public Step priceSnapshotStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                  PriceSnapshotTasklet priceSnapshotTasklet) {
+        return new StepBuilder("priceSnapshotStep", jobRepository)
+                .tasklet(priceSnapshotTasklet, txMgr)
+                .build();
+    }
+
+    /**
+     * Job 구성: 하나의 Step으로 실행
+     */
+    @Bean
+    public Job priceSnapshotJob(JobRepository jobRepository, Step priceSnapshotStep) {
+        return new JobBuilder("priceSnapshotJob", jobRepository)
+                .start(priceSnapshotStep)
+                .build();
+    }
+}
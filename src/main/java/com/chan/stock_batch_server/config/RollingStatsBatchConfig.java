@@ -0,0 +1,300 @@
+package com.chan.stock_batch_server.config;
+
+import com.chan.stock_batch_server.batch.ConnectionPermitTaskDecorator;
+import com.chan.stock_batch_server.batch.IdRangePartitioner;
+import com.chan.stock_batch_server.batch.RollingStatsProcessor;
+import com.chan.stock_batch_server.batch.ThroughputLoggingListener;
+import com.chan.stock_batch_server.dto.DailyClosePrice;
+import com.chan.stock_batch_server.dto.RollingStat;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * 종목/지수별 이동평균(20/60/120), 연환산 변동성(20/60), 120일 최대 낙폭을 계산하는 Batch 설정
+ * id 구간 파티션마다 (id, 기준일) 순 일별 종가를 한 번만 스트리밍하며, 링 버퍼로 윈도우를 유지합니다.
+ * JobParameters의 startDate~endDate 결과를 저장하며, 윈도우를 채우기 위해 startDate 이전 WARMUP_DAYS일을 함께 읽습니다.
+ */
+@Configuration
+public class RollingStatsBatchConfig {
+    // 120 거래일을 채우기에 충분한 달력 일수
+    static final int WARMUP_DAYS = 200;
+
+    static final String STOCK_SQL = """
+            SELECT p.stock_id, p.base_date, p.close_price
+            FROM stock_price p
+            WHERE p.stock_id BETWEEN ? AND ?
+              AND p.base_date >= ?
+              AND p.base_date <= ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.stock_id, p.base_date
+        """;
+
+    static final String INDEX_SQL = """
+            SELECT p.index_info_id, p.base_date, p.close_price
+            FROM index_price p
+            WHERE p.index_info_id BETWEEN ? AND ?
+              AND p.base_date >= ?
+              AND p.base_date <= ?
+              AND p.close_price IS NOT NULL
+            ORDER BY p.index_info_id, p.base_date
+        """;
+
+    static final String STOCK_UPSERT_SQL = """
+            INSERT INTO stock_rolling_stat (ma20, ma60, ma120, volatility20, volatility60, max_drawdown120,
+                                            base_date, stock_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                ma20            = VALUES(ma20),
+                ma60            = VALUES(ma60),
+                ma120           = VALUES(ma120),
+                volatility20    = VALUES(volatility20),
+                volatility60    = VALUES(volatility60),
+                max_drawdown120 = VALUES(max_drawdown120)
+        """;
+
+    static final String INDEX_UPSERT_SQL = """
+            INSERT INTO index_rolling_stat (ma20, ma60, ma120, volatility20, volatility60, max_drawdown120,
+                                            base_date, index_info_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                ma20            = VALUES(ma20),
+                ma60            = VALUES(ma60),
+                ma120           = VALUES(ma120),
+                volatility20    = VALUES(volatility20),
+                volatility60    = VALUES(volatility60),
+                max_drawdown120 = VALUES(max_drawdown120)
+        """;
+
+    /**
+     * 파티션 id 구간의 종목 일별 종가 Reader
+     */
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<DailyClosePrice> stockRollingStatsReader(
+            DataSource dataSource,
+            @Value("#{jobParameters['startDate']}") LocalDate startDate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{stepExecutionContext['minId']}") Integer minId,
+            @Value("#{stepExecutionContext['maxId']}") Integer maxId
+    ) {
+        return dailyCloseReader("stockRollingStatsReader", dataSource, STOCK_SQL, startDate, endDate, minId, maxId);
+    }
+
+    /**
+     * 파티션 id 구간의 지수 일별 종가 Reader
+     */
+    @Bean
+    @StepScope
+    public JdbcCursorItemReader<DailyClosePrice> indexRollingStatsReader(
+            DataSource dataSource,
+            @Value("#{jobParameters['startDate']}") LocalDate startDate,
+            @Value("#{jobParameters['endDate']}") LocalDate endDate,
+            @Value("#{stepExecutionContext['minId']}") Integer minId,
+            @Value("#{stepExecutionContext['maxId']}") Integer maxId
+    ) {
+        return dailyCloseReader("indexRollingStatsReader", dataSource, INDEX_SQL, startDate, endDate, minId, maxId);
+    }
+
+    /**
+     * 링 버퍼 상태를 가지므로 파티션 Step 실행마다 새로 만들어지는 Processor
+     */
+    @Bean
+    @StepScope
+    public RollingStatsProcessor rollingStatsProcessor(@Value("#{jobParameters['startDate']}") LocalDate startDate) {
+        return new RollingStatsProcessor(startDate);
+    }
+
+    @Bean
+    public ItemWriter<RollingStat> stockRollingStatsWriter(DataSource dataSource) {
+        return rollingStatsWriter(dataSource, STOCK_UPSERT_SQL);
+    }
+
+    @Bean
+    public ItemWriter<RollingStat> indexRollingStatsWriter(DataSource dataSource) {
+        return rollingStatsWriter(dataSource, INDEX_UPSERT_SQL);
+    }
+
+    /**
+     * Worker Step 구성: 1000건 단위 청크, warm-up 구간 행은 Processor에서 걸러집니다.
+     */
+    @Bean
+    public Step stockRollingStatsStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                      JdbcCursorItemReader<DailyClosePrice> stockRollingStatsReader,
+                                      RollingStatsProcessor rollingStatsProcessor,
+                                      ItemWriter<RollingStat> stockRollingStatsWriter) {
+        return new StepBuilder("stockRollingStatsStep", jobRepository)
+                .<DailyClosePrice, RollingStat>chunk(1000, txMgr)
+                .reader(stockRollingStatsReader)
+                .processor(rollingStatsProcessor)
+                .writer(stockRollingStatsWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    @Bean
+    public Step indexRollingStatsStep(JobRepository jobRepository, PlatformTransactionManager txMgr,
+                                      JdbcCursorItemReader<DailyClosePrice> indexRollingStatsReader,
+                                      RollingStatsProcessor rollingStatsProcessor,
+                                      ItemWriter<RollingStat> indexRollingStatsWriter) {
+        return new StepBuilder("indexRollingStatsStep", jobRepository)
+                .<DailyClosePrice, RollingStat>chunk(1000, txMgr)
+                .reader(indexRollingStatsReader)
+                .processor(rollingStatsProcessor)
+                .writer(indexRollingStatsWriter)
+                .listener(new ThroughputLoggingListener())
+                .build();
+    }
+
+    /**
+     * Partition Step 구성: stock id 공간을 gridSize 개 구간으로 나누어 stockRollingStatsStep을 병렬 실행
+     */
+    @Bean
+    @JobScope
+    public Step stockRollingStatsPartitionStep(
+            JobRepository jobRepository,
+            JdbcTemplate jdbcTemplate,
+            Step stockRollingStatsStep,
+            @Value("#{jobParameters['gridSize'] ?: ${batch.partition.grid-size}}") Long gridSize,
+            @Value("#{jobParameters['concurrency'] ?: ${batch.partition.concurrency}}") Long concurrency,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Qualifier("partitionConnectionPermitTaskDecorator")
+            ConnectionPermitTaskDecorator connectionPermitTaskDecorator
+    ) {
+        return new StepBuilder("stockRollingStatsPartitionStep", jobRepository)
+                .partitioner("stockRollingStatsStep", new IdRangePartitioner(jdbcTemplate, "stock"))
+                .step(stockRollingStatsStep)
+                .gridSize(gridSize.intValue())
+                .taskExecutor(partitionExecutor("stockRollingStats-partition-", concurrency, virtualThreads,
+                        connectionPermitTaskDecorator))
+                .build();
+    }
+
+    /**
+     * Partition Step 구성: index id 공간을 gridSize 개 구간으로 나누어 indexRollingStatsStep을 병렬 실행
+     */
+    @Bean
+    @JobScope
+    public Step indexRollingStatsPartitionStep(
+            JobRepository jobRepository,
+            JdbcTemplate jdbcTemplate,
+            Step indexRollingStatsStep,
+            @Value("#{jobParameters['gridSize'] ?: ${batch.partition.grid-size}}") Long gridSize,
+            @Value("#{jobParameters['concurrency'] ?: ${batch.partition.concurrency}}") Long concurrency,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Qualifier("partitionConnectionPermitTaskDecorator")
+            ConnectionPermitTaskDecorator connectionPermitTaskDecorator
+    ) {
+        return new StepBuilder("indexRollingStatsPartitionStep", jobRepository)
+                .partitioner("indexRollingStatsStep", new IdRangePartitioner(jdbcTemplate, "index_info"))
+                .step(indexRollingStatsStep)
+                .gridSize(gridSize.intValue())
+                .taskExecutor(partitionExecutor("indexRollingStats-partition-", concurrency, virtualThreads,
+                        connectionPermitTaskDecorator))
+                .build();
+    }
+
+    /**
+     * Job 구성: 종목 이동 통계 Partition Step으로 실행
+     */
+    @Bean
+    public Job stockRollingStatsJob(JobRepository jobRepository, Step stockRollingStatsPartitionStep) {
+        return new JobBuilder("stockRollingStatsJob", jobRepository)
+                .start(stockRollingStatsPartitionStep)
+                .build();
+    }
+
+    /**
+     * Job 구성: 지수 이동 통계 Partition Step으로 실행
+     */
+    @Bean
+    public Job indexRollingStatsJob(JobRepository jobRepository, Step indexRollingStatsPartitionStep) {
+        return new JobBuilder("indexRollingStatsJob", jobRepository)
+                .start(indexRollingStatsPartitionStep)
+                .build();
+    }
+
+    /**
+     * (id, base_date) 순 일별 종가를 스트리밍으로 읽는 커서 Reader
+     * 링 버퍼 상태는 재시작 시 복원할 수 없으므로 위치를 저장하지 않고 파티션을 처음부터 다시 읽습니다.
+     */
+    private JdbcCursorItemReader<DailyClosePrice> dailyCloseReader(String name, DataSource dataSource, String sql,
+                                                                   LocalDate startDate, LocalDate endDate,
+                                                                   Integer minId, Integer maxId) {
+        return new JdbcCursorItemReaderBuilder<DailyClosePrice>()
+                .name(name)
+                .dataSource(dataSource)
+                .sql(sql)
+                .queryArguments(minId != null ? minId : 0, maxId != null ? maxId : Integer.MAX_VALUE,
+                        startDate.minusDays(WARMUP_DAYS), endDate)
+                // MySQL 스트리밍 결과셋: 전체 이력을 메모리에 올리지 않습니다.
+                .fetchSize(Integer.MIN_VALUE)
+                .verifyCursorPosition(false)
+                .saveState(false)
+                .rowMapper((rs, rowNum) -> new DailyClosePrice(
+                        rs.getInt(1),
+                        rs.getObject("base_date", LocalDate.class),
+                        rs.getDouble("close_price")
+                ))
+                .build();
+    }
+
+    private ItemWriter<RollingStat> rollingStatsWriter(DataSource dataSource, String sql) {
+        return new JdbcBatchItemWriterBuilder<RollingStat>()
+                .dataSource(dataSource)
+                .sql(sql)
+                .assertUpdates(false)
+                .itemPreparedStatementSetter((item, ps) -> {
+                    setNullable(ps, 1, item.ma20());
+                    setNullable(ps, 2, item.ma60());
+                    setNullable(ps, 3, item.ma120());
+                    setNullable(ps, 4, item.volatility20());
+                    setNullable(ps, 5, item.volatility60());
+                    setNullable(ps, 6, item.maxDrawdown120());
+                    ps.setObject(7, item.baseDate());
+                    ps.setInt(8, item.instrumentId());
+                })
+                .build();
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, double value) throws SQLException {
+        if (Double.isNaN(value)) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private static SimpleAsyncTaskExecutor partitionExecutor(String prefix, Long concurrency, boolean virtualThreads,
+                                                             ConnectionPermitTaskDecorator connectionPermitTaskDecorator) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(prefix);
+        taskExecutor.setConcurrencyLimit(concurrency.intValue());
+        if (virtualThreads) {
+            // 가상 스레드 모드: Worker 수는 concurrency, 실제 DB 동시 작업 수는 파티션 커넥션 permit으로 제한
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setTaskDecorator(connectionPermitTaskDecorator);
+        }
+        return taskExecutor;
+    }
+}
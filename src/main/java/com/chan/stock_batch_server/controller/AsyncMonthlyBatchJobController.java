@@ -1,21 +1,30 @@
 package com.chan.stock_batch_server.controller;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.chan.stock_batch_server.dto.BackfillPlan;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
 import com.chan.stock_batch_server.service.AsyncMonthlyIndexBatchJobService;
 import com.chan.stock_batch_server.service.AsyncMonthlyStockBatchJobService;
+import com.chan.stock_batch_server.service.BackfillPlannerService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,11 +35,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class AsyncMonthlyBatchJobController {
 	private final AsyncMonthlyStockBatchJobService asyncMonthlyStockBatchJobService;
 	private final AsyncMonthlyIndexBatchJobService asyncMonthlyIndexBatchJobService;
+	private final BackfillPlannerService backfillPlannerService;
 
 	public AsyncMonthlyBatchJobController(AsyncMonthlyStockBatchJobService asyncMonthlyStockBatchJobService,
-		AsyncMonthlyIndexBatchJobService asyncMonthlyIndexBatchJobService) {
+		AsyncMonthlyIndexBatchJobService asyncMonthlyIndexBatchJobService,
+		BackfillPlannerService backfillPlannerService) {
 		this.asyncMonthlyStockBatchJobService = asyncMonthlyStockBatchJobService;
 		this.asyncMonthlyIndexBatchJobService = asyncMonthlyIndexBatchJobService;
+		this.backfillPlannerService = backfillPlannerService;
 	}
 
 	@PostMapping("/monthly-index-range")
@@ -48,6 +60,7 @@ public class AsyncMonthlyBatchJobController {
 			)
 		),
 		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "429", description = "배치 Executor 수용량 초과로 거절됨 (잠시 후 재시도)"),
 		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
 	})
 	public ResponseEntity<String> runAsyncMonthlyIndexBatchByRange(
@@ -59,7 +72,7 @@ public class AsyncMonthlyBatchJobController {
 		@RequestParam("endDate")
 		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
 		LocalDate endDate
-	) throws Exception {
+	) {
 		asyncMonthlyIndexBatchJobService.runMonthlyIndexBatchByRange(startDate, endDate);
 
 		return ResponseEntity.ok("Triggered Async calcIndexPriceJob");
@@ -76,10 +89,11 @@ public class AsyncMonthlyBatchJobController {
 			description = "배치 작업이 성공적으로 시작됨",
 			content = @Content(
 				mediaType = "text/plain",
-				examples = @ExampleObject(value = "Triggered Async calcIndexPriceJob")
+				examples = @ExampleObject(value = "Triggered Async calcStockPriceJob")
 			)
 		),
 		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "429", description = "배치 Executor 수용량 초과로 거절됨 (잠시 후 재시도)"),
 		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
 	})
 	public ResponseEntity<String> runAsyncMonthlyStockBatchByRange(
@@ -91,9 +105,86 @@ public class AsyncMonthlyBatchJobController {
 		@RequestParam("endDate")
 		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
 		LocalDate endDate
-	) throws Exception {
+	) {
 		asyncMonthlyStockBatchJobService.runMonthlyStockBatchByRange(startDate, endDate);
 
-		return ResponseEntity.ok("Triggered Async calcIndexPriceJob");
+		return ResponseEntity.ok("Triggered Async calcStockPriceJob");
+	}
+
+	@GetMapping("/backfill-plan")
+	@Operation(
+		summary = "월별 결과 채우기 계획 조회",
+		description = "지정된 날짜 범위에서 일별 시세는 있지만 월별 결과가 없거나, 결과 계산 이후 일별 시세가 바뀐 "
+			+ "(종목 또는 지수, 월)이 있는 월만 찾아 반환합니다. 메모리의 월 적용 범위 색인으로 계산하며 DB를 스캔하지 않습니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "계획 계산 성공",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = BackfillPlan.class))),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<BackfillPlan> planBackfill(
+		@Parameter(description = "STOCK 또는 INDEX", example = "STOCK")
+		@RequestParam("kind") CalcPriceChangedEvent.Kind kind,
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2005-01-01")
+		@RequestParam("startDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam("endDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate,
+		@Parameter(description = "true면 색인을 DB에서 다시 만든 뒤 계산 (다른 경로로 데이터가 바뀐 경우)")
+		@RequestParam(value = "refresh", defaultValue = "false") boolean refresh
+	) {
+		if (startDate.isAfter(endDate) || startDate.getYear() < 1970) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(
+			backfillPlannerService.plan(kind, YearMonth.from(startDate), YearMonth.from(endDate), refresh));
+	}
+
+	@PostMapping("/backfill")
+	@Operation(
+		summary = "비어 있거나 낡은 월만 비동기 월별 배치 작업 실행",
+		description = "backfill-plan과 같은 계획을 계산한 뒤 계획에 포함된 월만 월별 Job(calcStockPriceJob 또는 "
+			+ "calcIndexPriceJob)으로 비동기 실행합니다. 계획이 비어 있으면 아무것도 실행하지 않습니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "계획의 월별 Job이 제출됨 (launchedJobs)",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = BackfillPlan.class))),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "429", description = "배치 Executor 수용량 초과로 거절됨 (잠시 후 재시도)"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<BackfillPlan> runBackfill(
+		@Parameter(description = "STOCK 또는 INDEX", example = "STOCK")
+		@RequestParam("kind") CalcPriceChangedEvent.Kind kind,
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2005-01-01")
+		@RequestParam("startDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam("endDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate,
+		@Parameter(description = "true면 색인을 DB에서 다시 만든 뒤 계산 (다른 경로로 데이터가 바뀐 경우)")
+		@RequestParam(value = "refresh", defaultValue = "false") boolean refresh
+	) {
+		if (startDate.isAfter(endDate) || startDate.getYear() < 1970) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(
+			backfillPlannerService.launch(kind, YearMonth.from(startDate), YearMonth.from(endDate), refresh));
+	}
+
+	/**
+	 * Executor 수용량 초과 시 back-pressure 응답
+	 */
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity<String> handleRejected(TaskRejectedException e) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+			.header("Retry-After", "60")
+			.body(e.getMessage());
 	}
 }
@@ -0,0 +1,168 @@
+package com.chan.stock_batch_server.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.MonthlyReturn;
+import com.chan.stock_batch_server.service.CalcPriceExportService;
+import com.chan.stock_batch_server.service.CalcPriceQueryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * 월별 결과 조회 API
+ * 응답에 ETag와 Last-Modified를 담으며, If-None-Match / If-Modified-Since가 일치하면 본문 없이 304를 반환합니다.
+ * 대량 내보내기(/export)는 캐시를 거치지 않고 DB 커서에서 바로 스트리밍합니다.
+ */
+@RestController
+@RequestMapping("/api/v1/prices")
+@Tag(name = "Monthly Price Query", description = "월별 계산 결과 조회 API")
+public class CalcPriceQueryController {
+	private final CalcPriceQueryService queryService;
+	private final CalcPriceExportService exportService;
+
+	public CalcPriceQueryController(CalcPriceQueryService queryService, CalcPriceExportService exportService) {
+		this.queryService = queryService;
+		this.exportService = exportService;
+	}
+
+	@GetMapping("/stocks/{stockId}/monthly")
+	@Operation(summary = "종목 월별 시계열 조회", description = "종목의 월 평균가, 월간 수익률, 거래일 수를 기준월 순으로 조회합니다.")
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "조회 성공"),
+		@ApiResponse(responseCode = "304", description = "클라이언트 캐시가 최신임")
+	})
+	public ResponseEntity<List<MonthlyReturn>> getStockSeries(
+		@Parameter(description = "종목 id", example = "1")
+		@PathVariable("stockId") int stockId,
+		@Parameter(description = "시작 기준월 날짜 (YYYY-MM-DD 형식, 포함)", example = "2024-01-01")
+		@RequestParam(value = "from", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate from,
+		@Parameter(description = "종료 기준월 날짜 (YYYY-MM-DD 형식, 포함)", example = "2024-12-01")
+		@RequestParam(value = "to", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate to) {
+		return respond(queryService.series(CalcPriceChangedEvent.Kind.STOCK, stockId, from, to));
+	}
+
+	@GetMapping("/indices/{indexInfoId}/monthly")
+	@Operation(summary = "지수 월별 시계열 조회", description = "지수의 월 평균가, 월간 수익률, 거래일 수를 기준월 순으로 조회합니다.")
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "조회 성공"),
+		@ApiResponse(responseCode = "304", description = "클라이언트 캐시가 최신임")
+	})
+	public ResponseEntity<List<MonthlyReturn>> getIndexSeries(
+		@Parameter(description = "지수 id", example = "1")
+		@PathVariable("indexInfoId") int indexInfoId,
+		@Parameter(description = "시작 기준월 날짜 (YYYY-MM-DD 형식, 포함)", example = "2024-01-01")
+		@RequestParam(value = "from", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate from,
+		@Parameter(description = "종료 기준월 날짜 (YYYY-MM-DD 형식, 포함)", example = "2024-12-01")
+		@RequestParam(value = "to", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate to) {
+		return respond(queryService.series(CalcPriceChangedEvent.Kind.INDEX, indexInfoId, from, to));
+	}
+
+	@GetMapping("/stocks/monthly/{month}")
+	@Operation(summary = "월별 전체 종목 단면 조회", description = "해당 월의 전체 종목 월 평균가, 월간 수익률을 종목 id 순으로 조회합니다.")
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "조회 성공"),
+		@ApiResponse(responseCode = "304", description = "클라이언트 캐시가 최신임")
+	})
+	public ResponseEntity<List<MonthlyReturn>> getStockMonth(
+		@Parameter(description = "년월 (YYYY-MM 형식)", example = "2024-12")
+		@PathVariable("month")
+		@DateTimeFormat(pattern = "yyyy-MM")
+		YearMonth month) {
+		return respond(queryService.month(CalcPriceChangedEvent.Kind.STOCK, month));
+	}
+
+	@GetMapping("/indices/monthly/{month}")
+	@Operation(summary = "월별 전체 지수 단면 조회", description = "해당 월의 전체 지수 월 평균가, 월간 수익률을 지수 id 순으로 조회합니다.")
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "조회 성공"),
+		@ApiResponse(responseCode = "304", description = "클라이언트 캐시가 최신임")
+	})
+	public ResponseEntity<List<MonthlyReturn>> getIndexMonth(
+		@Parameter(description = "년월 (YYYY-MM 형식)", example = "2024-12")
+		@PathVariable("month")
+		@DateTimeFormat(pattern = "yyyy-MM")
+		YearMonth month) {
+		return respond(queryService.month(CalcPriceChangedEvent.Kind.INDEX, month));
+	}
+
+	@GetMapping("/export")
+	@Operation(
+		summary = "월별 결과 스트리밍 내보내기",
+		description = "월별 결과를 JDBC 커서에서 바로 응답으로 스트리밍합니다. CSV 또는 블록 단위 열 지향 이진 형식(CPX1)을 지원하며 gzip으로 압축할 수 있습니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "내보내기 스트림"),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터")
+	})
+	public ResponseEntity<StreamingResponseBody> export(
+		@Parameter(description = "대상 (STOCK | INDEX)", example = "STOCK")
+		@RequestParam(value = "kind", defaultValue = "STOCK") CalcPriceChangedEvent.Kind kind,
+		@Parameter(description = "형식 (CSV | BINARY)", example = "CSV")
+		@RequestParam(value = "format", defaultValue = "CSV") CalcPriceExportService.Format format,
+		@Parameter(description = "시작 기준월 날짜 (YYYY-MM-DD 형식, 포함)", example = "2020-01-01")
+		@RequestParam(value = "from", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate from,
+		@Parameter(description = "종료 기준월 날짜 (YYYY-MM-DD 형식, 포함)", example = "2024-12-01")
+		@RequestParam(value = "to", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate to,
+		@Parameter(description = "종목 또는 지수 id 목록 (쉼표 구분, 미지정 시 전체)", example = "1,2,3")
+		@RequestParam(value = "ids", required = false) List<Integer> ids,
+		@Parameter(description = "gzip 압축 여부", example = "true")
+		@RequestParam(value = "gzip", defaultValue = "true") boolean gzip) {
+		List<Integer> instrumentIds = ids == null ? List.of() : ids;
+		if (instrumentIds.size() > CalcPriceExportService.MAX_INSTRUMENT_IDS) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		boolean csv = format == CalcPriceExportService.Format.CSV;
+		String fileName = kind.name().toLowerCase() + "-monthly" + (csv ? ".csv" : ".cpx") + (gzip ? ".gz" : "");
+		MediaType mediaType = gzip ? MediaType.parseMediaType("application/gzip")
+			: csv ? MediaType.parseMediaType("text/csv")
+			: MediaType.APPLICATION_OCTET_STREAM;
+		StreamingResponseBody body = out -> exportService.export(kind, format, from, to, instrumentIds, gzip, out);
+		return ResponseEntity.ok()
+			.contentType(mediaType)
+			.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+			.body(body);
+	}
+
+	/**
+	 * ETag, Last-Modified를 담은 응답, 조건부 요청이 일치하면 Spring이 304로 바꿉니다.
+	 */
+	private ResponseEntity<List<MonthlyReturn>> respond(CalcPriceQueryService.CachedRows result) {
+		return ResponseEntity.ok()
+			.eTag(result.eTag())
+			.lastModified(result.lastModified())
+			.cacheControl(CacheControl.noCache())
+			.body(result.rows());
+	}
+}
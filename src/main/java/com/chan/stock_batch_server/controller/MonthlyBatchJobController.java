@@ -2,20 +2,34 @@ package com.chan.stock_batch_server.controller;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.service.CoalescingJobLauncher;
+import com.chan.stock_batch_server.service.JobRestartService;
+import com.chan.stock_batch_server.service.PeriodRollupService;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,20 +43,67 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Monthly Batch Job", description = "월별 배치 작업 API")
 public class MonthlyBatchJobController {
 	private final JobLauncher jobLauncher;
+	private final CoalescingJobLauncher coalescingJobLauncher;
+	private final JobRestartService jobRestartService;
+	private final PeriodRollupService periodRollupService;
 	private final Job calcIndexPriceJob;
 	private final Job calcStockPriceJob;
+	private final Job calcIndexPricePartitionJob;
+	private final Job calcStockPricePartitionJob;
+	private final Job calcIndexPriceRangeJob;
+	private final Job calcStockPriceRangeJob;
+	private final Job calcDirtyIndexPriceJob;
+	private final Job calcDirtyStockPriceJob;
+	private final Job priceSnapshotJob;
+	private final Job rollupIndexPriceJob;
+	private final Job rollupStockPriceJob;
+	private final Job indexRollingStatsJob;
+	private final Job stockRollingStatsJob;
+	private final Job monthlyRankJob;
+	private final Job correlationJob;
 
-	public MonthlyBatchJobController(JobLauncher jobLauncher, @Qualifier("calcIndexPriceJob") Job calcIndexPriceJob,
-		@Qualifier("calcStockPriceJob") Job calcStockPriceJob) {
+	public MonthlyBatchJobController(JobLauncher jobLauncher, CoalescingJobLauncher coalescingJobLauncher,
+		JobRestartService jobRestartService, PeriodRollupService periodRollupService,
+		@Qualifier("calcIndexPriceJob") Job calcIndexPriceJob,
+		@Qualifier("calcStockPriceJob") Job calcStockPriceJob,
+		@Qualifier("calcIndexPricePartitionJob") Job calcIndexPricePartitionJob,
+		@Qualifier("calcStockPricePartitionJob") Job calcStockPricePartitionJob,
+		@Qualifier("calcIndexPriceRangeJob") Job calcIndexPriceRangeJob,
+		@Qualifier("calcStockPriceRangeJob") Job calcStockPriceRangeJob,
+		@Qualifier("calcDirtyIndexPriceJob") Job calcDirtyIndexPriceJob,
+		@Qualifier("calcDirtyStockPriceJob") Job calcDirtyStockPriceJob,
+		@Qualifier("priceSnapshotJob") Job priceSnapshotJob,
+		@Qualifier("rollupIndexPriceJob") Job rollupIndexPriceJob,
+		@Qualifier("rollupStockPriceJob") Job rollupStockPriceJob,
+		@Qualifier("indexRollingStatsJob") Job indexRollingStatsJob,
+		@Qualifier("stockRollingStatsJob") Job stockRollingStatsJob,
+		@Qualifier("monthlyRankJob") Job monthlyRankJob,
+		@Qualifier("correlationJob") Job correlationJob) {
 		this.jobLauncher = jobLauncher;
+		this.coalescingJobLauncher = coalescingJobLauncher;
+		this.jobRestartService = jobRestartService;
+		this.periodRollupService = periodRollupService;
 		this.calcIndexPriceJob = calcIndexPriceJob;
 		this.calcStockPriceJob = calcStockPriceJob;
+		this.calcIndexPricePartitionJob = calcIndexPricePartitionJob;
+		this.calcStockPricePartitionJob = calcStockPricePartitionJob;
+		this.calcIndexPriceRangeJob = calcIndexPriceRangeJob;
+		this.calcStockPriceRangeJob = calcStockPriceRangeJob;
+		this.calcDirtyIndexPriceJob = calcDirtyIndexPriceJob;
+		this.calcDirtyStockPriceJob = calcDirtyStockPriceJob;
+		this.priceSnapshotJob = priceSnapshotJob;
+		this.rollupIndexPriceJob = rollupIndexPriceJob;
+		this.rollupStockPriceJob = rollupStockPriceJob;
+		this.indexRollingStatsJob = indexRollingStatsJob;
+		this.stockRollingStatsJob = stockRollingStatsJob;
+		this.monthlyRankJob = monthlyRankJob;
+		this.correlationJob = correlationJob;
 	}
 
 	@PostMapping("/monthly-index")
 	@Operation(
 		summary = "지수 가격 월별 배치 작업 실행",
-		description = "특정 년월에 대해 지수 가격 계산 배치 작업을 실행합니다."
+		description = "특정 년월에 대해 지수 가격 계산 배치 작업을 실행합니다. 완료되면 해당 월이 속한 분기·연 결과를 한 번 롤업합니다."
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
@@ -68,17 +129,62 @@ public class MonthlyBatchJobController {
 			.addLong("timestamp", System.currentTimeMillis())
 			.toJobParameters();
 
-		JobExecution execution = jobLauncher.run(calcIndexPriceJob, params);
+		YearMonth ym = YearMonth.of(year, month);
 		return ResponseEntity.ok(
-			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
-				execution.getStatus())
+			runCoalesced(CalcPriceChangedEvent.Kind.INDEX, ym, ym, calcIndexPriceJob, (from, to) -> params, true)
+		);
+	}
+
+	@PostMapping("/monthly-index-partition")
+	@Operation(
+		summary = "지수 가격 월별 배치 작업 실행 (파티션)",
+		description = "특정 년월에 대해 지수 가격 계산 배치 작업을 id 구간별 파티션으로 나누어 병렬 실행합니다. 완료되면 해당 월이 속한 분기·연 결과를 한 번 롤업합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job calcIndexPricePartitionJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runMonthlyIndexPartitionBatch(
+		@Parameter(description = "년도", example = "2024")
+		@RequestParam("year") int year,
+		@Parameter(description = "월 (1-12)", example = "12")
+		@RequestParam("month") int month,
+		@Parameter(description = "파티션 수 (미지정 시 batch.partition.grid-size)", example = "16")
+		@RequestParam(value = "gridSize", required = false) Integer gridSize,
+		@Parameter(description = "동시 실행 Worker 수 (미지정 시 batch.partition.concurrency)", example = "8")
+		@RequestParam(value = "concurrency", required = false) Integer concurrency) throws Exception {
+
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLong("year", (long)year)
+			.addLong("month", (long)month)
+			.addLong("timestamp", System.currentTimeMillis(), false);
+		if (gridSize != null) {
+			builder.addLong("gridSize", (long)gridSize);
+		}
+		if (concurrency != null) {
+			// 동시 실행 수는 파티션 구성과 무관하므로 재시작 시 바꿀 수 있도록 식별 파라미터에서 뺍니다.
+			builder.addLong("concurrency", (long)concurrency, false);
+		}
+
+		YearMonth ym = YearMonth.of(year, month);
+		return ResponseEntity.ok(
+			runCoalesced(CalcPriceChangedEvent.Kind.INDEX, ym, ym, calcIndexPricePartitionJob,
+				(from, to) -> builder.toJobParameters(), true)
 		);
 	}
 
 	@PostMapping("/monthly-index-range")
 	@Operation(
 		summary = "지수 가격 월별 배치 작업 실행 (범위)",
-		description = "지정된 날짜 범위에 대해 지수 가격 계산 배치 작업을 월별로 실행합니다."
+		description = "지정된 날짜 범위의 일별 지수 가격을 한 번만 스캔하여 모든 월의 가격 계산 배치 작업을 실행합니다."
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
@@ -86,7 +192,7 @@ public class MonthlyBatchJobController {
 			description = "배치 작업이 성공적으로 완료됨",
 			content = @Content(
 				mediaType = "text/plain",
-				examples = @ExampleObject(value = "Triggered calcIndexPriceJob for 2024-01 → 2024-12")
+				examples = @ExampleObject(value = "Job calcIndexPriceRangeJob for 2024-01 → 2024-12 completed with status: COMPLETED")
 			)
 		),
 		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
@@ -102,28 +208,21 @@ public class MonthlyBatchJobController {
 		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
 		LocalDate endDate
 	) throws Exception {
-		YearMonth startYm = YearMonth.from(startDate);
-		YearMonth endYm = YearMonth.from(endDate);
-
-		for (YearMonth ym = startYm; !ym.isAfter(endYm); ym = ym.plusMonths(1)) {
-			JobParameters params = new JobParametersBuilder()
-				.addLong("year", (long)ym.getYear())
-				.addLong("month", (long)ym.getMonthValue())
-				.addLong("timestamp", System.currentTimeMillis())
-				.toJobParameters();
-
-			jobLauncher.run(calcIndexPriceJob, params);
-		}
-
+		// 이미 계산 중인 월을 뺀 연속 구간마다 기간 Job을 실행합니다.
 		return ResponseEntity.ok(
-			String.format("Triggered calcIndexPriceJob for %s → %s", startYm, endYm)
+			runCoalesced(CalcPriceChangedEvent.Kind.INDEX, YearMonth.from(startDate), YearMonth.from(endDate),
+				calcIndexPriceRangeJob, (from, to) -> new JobParametersBuilder()
+					.addLocalDate("startDate", from.atDay(1))
+					.addLocalDate("endDate", to.atEndOfMonth())
+					.addLong("timestamp", System.currentTimeMillis(), false)
+					.toJobParameters(), false)
 		);
 	}
 
 	@PostMapping("/monthly-stock")
 	@Operation(
 		summary = "주식 가격 월별 배치 작업 실행",
-		description = "특정 년월에 대해 주식 가격 계산 배치 작업을 실행합니다."
+		description = "특정 년월에 대해 주식 가격 계산 배치 작업을 실행합니다. 완료되면 해당 월이 속한 분기·연 결과를 한 번 롤업합니다."
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
@@ -149,17 +248,62 @@ public class MonthlyBatchJobController {
 			.addLong("timestamp", System.currentTimeMillis())
 			.toJobParameters();
 
-		JobExecution execution = jobLauncher.run(calcStockPriceJob, params);
+		YearMonth ym = YearMonth.of(year, month);
 		return ResponseEntity.ok(
-			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
-				execution.getStatus())
+			runCoalesced(CalcPriceChangedEvent.Kind.STOCK, ym, ym, calcStockPriceJob, (from, to) -> params, true)
+		);
+	}
+
+	@PostMapping("/monthly-stock-partition")
+	@Operation(
+		summary = "주식 가격 월별 배치 작업 실행 (파티션)",
+		description = "특정 년월에 대해 주식 가격 계산 배치 작업을 id 구간별 파티션으로 나누어 병렬 실행합니다. 완료되면 해당 월이 속한 분기·연 결과를 한 번 롤업합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job calcStockPricePartitionJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runMonthlyStockPartitionBatch(
+		@Parameter(description = "년도", example = "2024")
+		@RequestParam("year") int year,
+		@Parameter(description = "월 (1-12)", example = "12")
+		@RequestParam("month") int month,
+		@Parameter(description = "파티션 수 (미지정 시 batch.partition.grid-size)", example = "16")
+		@RequestParam(value = "gridSize", required = false) Integer gridSize,
+		@Parameter(description = "동시 실행 Worker 수 (미지정 시 batch.partition.concurrency)", example = "8")
+		@RequestParam(value = "concurrency", required = false) Integer concurrency) throws Exception {
+
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLong("year", (long)year)
+			.addLong("month", (long)month)
+			.addLong("timestamp", System.currentTimeMillis(), false);
+		if (gridSize != null) {
+			builder.addLong("gridSize", (long)gridSize);
+		}
+		if (concurrency != null) {
+			// 동시 실행 수는 파티션 구성과 무관하므로 재시작 시 바꿀 수 있도록 식별 파라미터에서 뺍니다.
+			builder.addLong("concurrency", (long)concurrency, false);
+		}
+
+		YearMonth ym = YearMonth.of(year, month);
+		return ResponseEntity.ok(
+			runCoalesced(CalcPriceChangedEvent.Kind.STOCK, ym, ym, calcStockPricePartitionJob,
+				(from, to) -> builder.toJobParameters(), true)
 		);
 	}
 
 	@PostMapping("/monthly-stock-range")
 	@Operation(
 		summary = "주식 가격 월별 배치 작업 실행 (범위)",
-		description = "지정된 날짜 범위에 대해 주식 가격 계산 배치 작업을 월별로 실행합니다."
+		description = "지정된 날짜 범위의 일별 주식 가격을 한 번만 스캔하여 모든 월의 가격 계산 배치 작업을 실행합니다."
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
@@ -167,7 +311,7 @@ public class MonthlyBatchJobController {
 			description = "배치 작업이 성공적으로 완료됨",
 			content = @Content(
 				mediaType = "text/plain",
-				examples = @ExampleObject(value = "Triggered calcStockPriceJob for 2024-01 → 2024-12")
+				examples = @ExampleObject(value = "Job calcStockPriceRangeJob for 2024-01 → 2024-12 completed with status: COMPLETED")
 			)
 		),
 		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
@@ -183,21 +327,436 @@ public class MonthlyBatchJobController {
 		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
 		LocalDate endDate
 	) throws Exception {
-		YearMonth startYm = YearMonth.from(startDate);
-		YearMonth endYm = YearMonth.from(endDate);
+		// 이미 계산 중인 월을 뺀 연속 구간마다 기간 Job을 실행합니다.
+		return ResponseEntity.ok(
+			runCoalesced(CalcPriceChangedEvent.Kind.STOCK, YearMonth.from(startDate), YearMonth.from(endDate),
+				calcStockPriceRangeJob, (from, to) -> new JobParametersBuilder()
+					.addLocalDate("startDate", from.atDay(1))
+					.addLocalDate("endDate", to.atEndOfMonth())
+					.addLong("timestamp", System.currentTimeMillis(), false)
+					.toJobParameters(), false)
+		);
+	}
 
-		for (YearMonth ym = startYm; !ym.isAfter(endYm); ym = ym.plusMonths(1)) {
-			JobParameters params = new JobParametersBuilder()
-				.addLong("year", (long)ym.getYear())
-				.addLong("month", (long)ym.getMonthValue())
-				.addLong("timestamp", System.currentTimeMillis())
-				.toJobParameters();
+	@PostMapping("/incremental-index")
+	@Operation(
+		summary = "지수 가격 증분 배치 작업 실행",
+		description = "마지막 실행 이후 일별 지수 시세가 새로 들어오거나 바뀐 (대상, 월)만 다시 계산합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job calcDirtyIndexPriceJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runIncrementalIndexBatch() throws Exception {
+		JobParameters params = new JobParametersBuilder()
+			.addLong("timestamp", System.currentTimeMillis())
+			.toJobParameters();
 
-			jobLauncher.run(calcStockPriceJob, params);
+		JobExecution execution = jobLauncher.run(calcDirtyIndexPriceJob, params);
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/incremental-stock")
+	@Operation(
+		summary = "주식 가격 증분 배치 작업 실행",
+		description = "마지막 실행 이후 일별 주식 시세가 새로 들어오거나 바뀐 (대상, 월)만 다시 계산합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job calcDirtyStockPriceJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runIncrementalStockBatch() throws Exception {
+		JobParameters params = new JobParametersBuilder()
+			.addLong("timestamp", System.currentTimeMillis())
+			.toJobParameters();
+
+		JobExecution execution = jobLauncher.run(calcDirtyStockPriceJob, params);
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/price-snapshot")
+	@Operation(
+		summary = "주식 시세 스냅샷 작성",
+		description = "일별 주식 시세 이력을 메모리 매핑용 이진 스냅샷으로 작성합니다. append는 마지막 스냅샷 이후 적재분만 덧붙입니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job priceSnapshotJob (append) completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runPriceSnapshotBatch(
+		@Parameter(description = "작성 방식 (full | append)", example = "append")
+		@RequestParam(value = "mode", defaultValue = "append") String mode) throws Exception {
+		JobParameters params = new JobParametersBuilder()
+			.addString("mode", mode)
+			.addLong("timestamp", System.currentTimeMillis())
+			.toJobParameters();
+
+		JobExecution execution = jobLauncher.run(priceSnapshotJob, params);
+		return ResponseEntity.ok(
+			String.format("Job %s (%s) completed with status: %s", execution.getJobInstance().getJobName(), mode,
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/rollup-index")
+	@Operation(
+		summary = "지수 가격 분기·연 롤업 배치 작업 실행",
+		description = "이미 계산된 월별 결과로 지정된 날짜 범위가 걸친 분기·연 평균가와 누적 수익률을 계산합니다. 범위를 생략하면 전체 기간을 계산합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job rollupIndexPriceJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runRollupIndexBatch(
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2024-01-01")
+		@RequestParam(value = "startDate", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam(value = "endDate", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate
+	) throws Exception {
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLong("timestamp", System.currentTimeMillis());
+		if (startDate != null) {
+			builder.addLocalDate("startDate", startDate);
+		}
+		if (endDate != null) {
+			builder.addLocalDate("endDate", endDate);
 		}
 
+		JobExecution execution = jobLauncher.run(rollupIndexPriceJob, builder.toJobParameters(), false);
 		return ResponseEntity.ok(
-			String.format("Triggered calcStockPriceJob for %s → %s", startYm, endYm)
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
 		);
 	}
+
+	@PostMapping("/rollup-stock")
+	@Operation(
+		summary = "주식 가격 분기·연 롤업 배치 작업 실행",
+		description = "이미 계산된 월별 결과로 지정된 날짜 범위가 걸친 분기·연 평균가와 누적 수익률을 계산합니다. 범위를 생략하면 전체 기간을 계산합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job rollupStockPriceJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runRollupStockBatch(
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2024-01-01")
+		@RequestParam(value = "startDate", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam(value = "endDate", required = false)
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate
+	) throws Exception {
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLong("timestamp", System.currentTimeMillis());
+		if (startDate != null) {
+			builder.addLocalDate("startDate", startDate);
+		}
+		if (endDate != null) {
+			builder.addLocalDate("endDate", endDate);
+		}
+
+		JobExecution execution = jobLauncher.run(rollupStockPriceJob, builder.toJobParameters(), false);
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/rolling-stats-index")
+	@Operation(
+		summary = "지수 이동 통계 배치 작업 실행 (파티션)",
+		description = "지정된 날짜 범위의 지수별 20/60/120일 이동평균, 20/60일 연환산 변동성, 120일 최대 낙폭을 계산합니다. id 구간별 파티션으로 나누어 병렬 실행합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job indexRollingStatsJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runIndexRollingStatsBatch(
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2024-01-01")
+		@RequestParam("startDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam("endDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate,
+		@Parameter(description = "파티션 수 (미지정 시 batch.partition.grid-size)", example = "16")
+		@RequestParam(value = "gridSize", required = false) Integer gridSize,
+		@Parameter(description = "동시 실행 Worker 수 (미지정 시 batch.partition.concurrency)", example = "8")
+		@RequestParam(value = "concurrency", required = false) Integer concurrency) throws Exception {
+
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLocalDate("startDate", startDate)
+			.addLocalDate("endDate", endDate)
+			.addLong("timestamp", System.currentTimeMillis());
+		if (gridSize != null) {
+			builder.addLong("gridSize", (long)gridSize);
+		}
+		if (concurrency != null) {
+			builder.addLong("concurrency", (long)concurrency);
+		}
+
+		JobExecution execution = jobLauncher.run(indexRollingStatsJob, builder.toJobParameters());
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/rolling-stats-stock")
+	@Operation(
+		summary = "주식 이동 통계 배치 작업 실행 (파티션)",
+		description = "지정된 날짜 범위의 주식별 20/60/120일 이동평균, 20/60일 연환산 변동성, 120일 최대 낙폭을 계산합니다. id 구간별 파티션으로 나누어 병렬 실행합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job stockRollingStatsJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runStockRollingStatsBatch(
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2024-01-01")
+		@RequestParam("startDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam("endDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate,
+		@Parameter(description = "파티션 수 (미지정 시 batch.partition.grid-size)", example = "16")
+		@RequestParam(value = "gridSize", required = false) Integer gridSize,
+		@Parameter(description = "동시 실행 Worker 수 (미지정 시 batch.partition.concurrency)", example = "8")
+		@RequestParam(value = "concurrency", required = false) Integer concurrency) throws Exception {
+
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLocalDate("startDate", startDate)
+			.addLocalDate("endDate", endDate)
+			.addLong("timestamp", System.currentTimeMillis());
+		if (gridSize != null) {
+			builder.addLong("gridSize", (long)gridSize);
+		}
+		if (concurrency != null) {
+			builder.addLong("concurrency", (long)concurrency);
+		}
+
+		JobExecution execution = jobLauncher.run(stockRollingStatsJob, builder.toJobParameters());
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/monthly-rank")
+	@Operation(
+		summary = "주식 월간 수익률 순위 배치 작업 실행 (월별 파티션)",
+		description = "지정된 날짜 범위가 걸친 월마다 시장 구분별 수익률 순위, 백분위, 십분위와 전체 순위를 다시 계산합니다. 월별 파티션으로 나누어 병렬 실행합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job monthlyRankJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runMonthlyRankBatch(
+		@Parameter(description = "시작 날짜 (YYYY-MM-DD 형식)", example = "2024-01-01")
+		@RequestParam("startDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate startDate,
+		@Parameter(description = "종료 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam("endDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate,
+		@Parameter(description = "동시 실행 Worker 수 (미지정 시 batch.partition.concurrency)", example = "8")
+		@RequestParam(value = "concurrency", required = false) Integer concurrency) throws Exception {
+
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLocalDate("startDate", startDate)
+			.addLocalDate("endDate", endDate)
+			.addLong("timestamp", System.currentTimeMillis());
+		if (concurrency != null) {
+			builder.addLong("concurrency", (long)concurrency);
+		}
+
+		JobExecution execution = jobLauncher.run(monthlyRankJob, builder.toJobParameters());
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/correlation")
+	@Operation(
+		summary = "종목-지수 베타·상관계수 배치 작업 실행",
+		description = "종료 날짜가 속한 월까지 windowMonths 개월의 월간 수익률로 종목별 지수 대비 베타와 상관계수를 계산합니다. stockPairs=true면 종목 간 상관계수도 계산합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "배치 작업이 성공적으로 완료됨",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job correlationJob completed with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "400", description = "잘못된 요청 파라미터"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> runCorrelationBatch(
+		@Parameter(description = "윈도우 마지막 월에 속한 날짜 (YYYY-MM-DD 형식)", example = "2024-12-31")
+		@RequestParam("endDate")
+		@DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+		LocalDate endDate,
+		@Parameter(description = "윈도우 개월 수", example = "36")
+		@RequestParam(value = "windowMonths", defaultValue = "36") int windowMonths,
+		@Parameter(description = "쌍별 최소 겹치는 월 수", example = "12")
+		@RequestParam(value = "minObservations", defaultValue = "12") int minObservations,
+		@Parameter(description = "종목 간 상관계수 계산 여부", example = "false")
+		@RequestParam(value = "stockPairs", defaultValue = "false") boolean stockPairs,
+		@Parameter(description = "계산 스레드 수 (미지정 시 가용 코어 수)", example = "8")
+		@RequestParam(value = "parallelism", required = false) Integer parallelism) throws Exception {
+
+		JobParametersBuilder builder = new JobParametersBuilder()
+			.addLocalDate("endDate", endDate)
+			.addLong("windowMonths", (long)windowMonths)
+			.addLong("minObservations", (long)minObservations)
+			.addString("stockPairs", String.valueOf(stockPairs))
+			.addLong("timestamp", System.currentTimeMillis());
+		if (parallelism != null) {
+			builder.addLong("parallelism", (long)parallelism);
+		}
+
+		JobExecution execution = jobLauncher.run(correlationJob, builder.toJobParameters());
+		return ResponseEntity.ok(
+			String.format("Job %s completed with status: %s", execution.getJobInstance().getJobName(),
+				execution.getStatus())
+		);
+	}
+
+	@PostMapping("/restart")
+	@Operation(
+		summary = "실패한 배치 작업 재시작",
+		description = "실패·중단된 JobExecution을 같은 JobParameters로 재시작합니다. "
+			+ "완료된 월·파티션은 건너뛰고, 실패한 Step은 마지막으로 커밋된 위치부터 다시 읽습니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(
+			responseCode = "200",
+			description = "재시작한 배치 작업이 끝남",
+			content = @Content(
+				mediaType = "text/plain",
+				examples = @ExampleObject(value = "Job calcStockPriceRangeJob (execution 42) restarted from execution 41 with status: COMPLETED")
+			)
+		),
+		@ApiResponse(responseCode = "404", description = "JobExecution이 없음"),
+		@ApiResponse(responseCode = "409", description = "재시작할 수 없는 상태 (완료·실행 중이거나 이미 재시작됨, 또는 같은 월을 다른 실행이 계산 중)"),
+		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
+	})
+	public ResponseEntity<String> restart(
+		@Parameter(description = "재시작할 JobExecution id", example = "41")
+		@RequestParam("executionId") long executionId) throws Exception {
+
+		JobExecution execution;
+		try {
+			execution = jobRestartService.restart(executionId);
+		} catch (NoSuchJobExecutionException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+		} catch (JobRestartException | JobExecutionAlreadyRunningException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+		return ResponseEntity.ok(
+			String.format("Job %s (execution %d) restarted from execution %d with status: %s",
+				execution.getJobInstance().getJobName(), execution.getId(), executionId, execution.getStatus())
+		);
+	}
+
+	/**
+	 * 같은 (구분, 월)을 계산 중인 실행이 있으면 그 실행에 합류하고, 나머지 월만 연속 구간마다 job으로 실행한 뒤 결과를 요약
+	 * 같은 파라미터의 이전 실행이 실패했으면 새로 시작하지 않고 그 JobInstance를 이어서 실행합니다.
+	 * rollup이면(롤업 Step이 없는 단일 월·파티션 Job) 모든 실행이 끝난 뒤 from~to의 분기·연 결과를 한 번만 롤업합니다.
+	 */
+	private String runCoalesced(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to, Job job,
+		BiFunction<YearMonth, YearMonth, JobParameters> parameters, boolean rollup) throws Exception {
+		List<JobExecution> executions = new ArrayList<>(CoalescingJobLauncher.await(coalescingJobLauncher.run(kind,
+			from, to, (runFrom, runTo) -> CompletableFuture.completedFuture(List.of(
+				jobLauncher.run(job, jobRestartService.stableParameters(job, parameters.apply(runFrom, runTo))))))));
+		if (rollup) {
+			JobExecution rollupExecution = periodRollupService.rollupAfter(kind, from, to, executions);
+			if (rollupExecution != null) {
+				executions.add(rollupExecution);
+			}
+		}
+		return executions.stream()
+			.map(execution -> String.format("Job %s (execution %d) completed with status: %s",
+				execution.getJobInstance().getJobName(), execution.getId(), execution.getStatus()))
+			.collect(Collectors.joining("\n"));
+	}
 }
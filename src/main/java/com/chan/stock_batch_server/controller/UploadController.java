@@ -1,22 +1,31 @@
 package com.chan.stock_batch_server.controller;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.net.URI;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.chan.stock_batch_server.batch.PriceFileSource;
+import com.chan.stock_batch_server.dto.IngestionStatus;
+import com.chan.stock_batch_server.service.IngestionManifestService;
+import com.chan.stock_batch_server.service.PriceIngestionService;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,39 +41,57 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class UploadController {
 
 	private final String uploadDir;
+	private final PriceIngestionService priceIngestionService;
+	private final IngestionManifestService ingestionManifestService;
 
-	public UploadController(@Value("${file.upload-dir}") String uploadDir) {
+	public UploadController(@Value("${file.upload-dir}") String uploadDir,
+		PriceIngestionService priceIngestionService, IngestionManifestService ingestionManifestService) {
 		this.uploadDir = uploadDir;
+		this.priceIngestionService = priceIngestionService;
+		this.ingestionManifestService = ingestionManifestService;
 	}
 
 	@PostMapping(value = "/upload-json", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	@Operation(
-		summary = "JSON 파일 업로드",
-		description = "여러 개의 JSON 파일을 업로드하여 서버에 저장합니다. 현재는 파일 저장만 수행하며, 향후 배치 작업 연동 예정입니다."
+		summary = "시세 파일 업로드",
+		description = "여러 개의 .json / .json.gz / .zip(안의 .json, .json.gz 항목) 파일을 서버에 저장한 뒤 "
+			+ "적재 요청을 대기열에 넣고 바로 202와 적재 id를 반환합니다. "
+			+ "파일은 병렬로 파싱되고 거래일 순서대로 커밋되며, 진행 상황은 Location의 /ingestions/{id}로 조회합니다. "
+			+ "이미 적재한 것과 내용(SHA-256)이 같은 파일은 건너뛰고, 내용이 바뀐 파일은 내용이 달라진 거래일만 다시 적재합니다."
 	)
 	@ApiResponses(value = {
 		@ApiResponse(
 			responseCode = "202",
-			description = "파일 업로드가 성공적으로 처리됨",
+			description = "적재 요청이 대기열에 등록됨",
 			content = @Content(
 				mediaType = "application/json",
-				schema = @Schema(implementation = List.class),
-				examples = @ExampleObject(value = "[\"file1.json — uploaded\", \"file2.json — uploaded\"]")
+				schema = @Schema(implementation = IngestionStatus.class),
+				examples = @ExampleObject(value = "{\"id\": \"3f2c...\", \"state\": \"QUEUED\", \"totalFiles\": 0, "
+					+ "\"committedFiles\": 0, \"records\": 0, \"skipped\": [\"readme.txt (unsupported)\"]}")
+			)
+		),
+		@ApiResponse(
+			responseCode = "200",
+			description = "모든 파일이 이미 적재된 내용이라 할 일이 없음",
+			content = @Content(
+				mediaType = "application/json",
+				examples = @ExampleObject(value = "[\"20240102.json (already ingested)\"]")
 			)
 		),
 		@ApiResponse(
 			responseCode = "400",
-			description = "업로드된 파일이 없거나 잘못된 파일 형식",
+			description = "업로드된 파일이 없거나 지원하는 형식의 파일이 없음",
 			content = @Content(
 				mediaType = "application/json",
 				examples = @ExampleObject(value = "[\"No files uploaded\"]")
 			)
 		),
+		@ApiResponse(responseCode = "429", description = "적재 대기열이 가득 참, Retry-After 후 재시도"),
 		@ApiResponse(responseCode = "500", description = "서버 내부 오류")
 	})
-	public ResponseEntity<List<String>> uploadJson(
+	public ResponseEntity<?> uploadJson(
 		@Parameter(
-			description = "업로드할 JSON 파일들 (여러 개 선택 가능)",
+			description = "업로드할 시세 파일들 (.json, .json.gz, .zip, 여러 개 선택 가능)",
 			required = true
 		)
 		@RequestParam("files") List<MultipartFile> files) throws Exception {
@@ -72,33 +99,61 @@ public class UploadController {
 			return ResponseEntity.badRequest().body(List.of("No files uploaded"));
 		}
 
-		List<String> results = new ArrayList<>();
+		List<IngestionManifestService.StoredUpload> saved = new ArrayList<>();
+		List<String> skipped = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
 
 		for (MultipartFile file : files) {
 			String original = file.getOriginalFilename();
-			if (original == null || !original.endsWith(".json")) {
-				results.add(original + " — skipped (not a .json)");
+			if (original == null || !PriceFileSource.isSupported(original)) {
+				skipped.add(original + " (unsupported)");
 				continue;
 			}
 
-			// 로컬에 저장
-			Path target = Paths.get(uploadDir).resolve(original);
-			Files.createDirectories(target.getParent());
-			Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+			// 복사하면서 내용 해시를 계산해 로컬에 저장 (압축은 적재 시 스트림으로 풉니다)
+			IngestionManifestService.StoredUpload stored = ingestionManifestService.store(Paths.get(uploadDir),
+				Paths.get(original).getFileName().toString(), file.getInputStream());
+			if (stored.alreadyIngested() || !seen.add(stored.sha256())) {
+				skipped.add(original + " (already ingested)");
+				continue;
+			}
+			saved.add(stored);
+		}
 
-			//            // 2) Batch Job 실행 (파일별로 독립 파라미터)
-			//            JobParameters params = new JobParametersBuilder()
-			//                    .addString("fileName", target.toString())
-			//                    .addLong("timestamp", System.currentTimeMillis())
-			//                    .toJobParameters();
-			//
-			//            JobExecution exec = jobLauncher.run(importJob, params);
-			//            results.add(original + " — job status: " + exec.getStatus());
+		if (saved.isEmpty()) {
+			if (skipped.stream().anyMatch(name -> name.endsWith("(already ingested)"))) {
+				// 같은 내용을 다시 보낸 경우는 할 일이 없는 정상 요청입니다.
+				return ResponseEntity.ok(skipped);
+			}
+			return ResponseEntity.badRequest().body(List.of("No .json, .json.gz or .zip files uploaded"));
 		}
-		// todo: job code
 
+		IngestionStatus status = priceIngestionService.submit(saved, skipped);
 		return ResponseEntity
-			.status(HttpStatus.ACCEPTED)
-			.body(results);
+			.accepted()
+			.location(URI.create("/api/v1/batch/ingestions/" + status.id()))
+			.body(status);
+	}
+
+	@GetMapping("/ingestions/{id}")
+	@Operation(
+		summary = "적재 진행 상황 조회",
+		description = "업로드 적재 요청의 상태, 커밋된 파일 수와 마지막으로 커밋된 거래일을 조회합니다."
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "조회 성공",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = IngestionStatus.class))),
+		@ApiResponse(responseCode = "404", description = "알 수 없거나 오래되어 정리된 적재 id")
+	})
+	public ResponseEntity<IngestionStatus> ingestion(
+		@Parameter(description = "업로드 응답의 적재 id", required = true)
+		@PathVariable String id) {
+		IngestionStatus status = priceIngestionService.status(id);
+		return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+	}
+
+	@ExceptionHandler(TaskRejectedException.class)
+	public ResponseEntity<String> handleRejected(TaskRejectedException e) {
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "60").body(e.getMessage());
 	}
 }
@@ -0,0 +1,31 @@
+package com.chan.stock_batch_server.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * from~to 기간에서 월별 결과를 다시 계산해야 하는 월 목록
+ * missing은 일별 시세는 있지만 월별 결과가 없는 칸, stale은 월별 결과 계산 이후 일별 시세가 바뀐 칸의 수입니다.
+ * ranges는 months를 연속 구간으로 묶은 것이며, launchedJobs는 실행 요청한 월별 Job 수(계획만 조회하면 0)입니다.
+ */
+public record BackfillPlan(
+        CalcPriceChangedEvent.Kind kind,
+        YearMonth from,
+        YearMonth to,
+        int instruments,
+        long missingCells,
+        long staleCells,
+        List<MonthNeed> months,
+        List<MonthRange> ranges,
+        int launchedJobs
+) {
+    public record MonthNeed(YearMonth month, int missing, int stale) {
+    }
+
+    public record MonthRange(YearMonth from, YearMonth to) {
+    }
+
+    public BackfillPlan withLaunchedJobs(int launchedJobs) {
+        return new BackfillPlan(kind, from, to, instruments, missingCells, staleCells, months, ranges, launchedJobs);
+    }
+}
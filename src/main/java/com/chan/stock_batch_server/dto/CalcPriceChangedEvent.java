@@ -0,0 +1,28 @@
+package com.chan.stock_batch_server.dto;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 월별 결과(calc_stock_price, calc_index_price)가 다시 쓰인 (종목 또는 지수, 월)을 알리는 이벤트
+ * 청크가 커밋된 뒤 조회 캐시가 해당 시계열과 월 단면을 비우고, 적용 범위 색인이 계산된 칸을 표시하는 데 사용합니다.
+ */
+public record CalcPriceChangedEvent(Kind kind, Map<Integer, Set<YearMonth>> monthsByInstrument) {
+
+    public enum Kind {
+        STOCK,
+        INDEX
+    }
+
+    public Set<Integer> instrumentIds() {
+        return monthsByInstrument.keySet();
+    }
+
+    public Set<YearMonth> months() {
+        Set<YearMonth> months = new HashSet<>();
+        monthsByInstrument.values().forEach(months::addAll);
+        return months;
+    }
+}
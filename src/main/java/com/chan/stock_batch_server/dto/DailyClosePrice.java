@@ -0,0 +1,17 @@
+package com.chan.stock_batch_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 종목(또는 지수) id 기준으로 정렬되어 흘러가는 일별 종가 한 건
+ */
+@Getter
+@AllArgsConstructor
+public class DailyClosePrice {
+    private Integer instrumentId;
+    private LocalDate baseDate;
+    private Double closePrice;
+}
@@ -0,0 +1,15 @@
+package com.chan.stock_batch_server.dto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 일별 시세(stock_price, index_price)가 새로 들어왔거나 바뀐 (종목 또는 지수, 월)을 알리는 이벤트
+ * 적재 Writer가 Dirty 테이블 표시와 함께 발행하며, 적용 범위 색인이 해당 칸을 다시 계산할 대상으로 표시합니다.
+ * correctedDaysByInstrument는 그 중 새 행이 아니라 이미 있던 행의 값이 바뀐 (종목, 일자)입니다(지수는 비어 있음).
+ */
+public record DailyPriceChangedEvent(CalcPriceChangedEvent.Kind kind, Map<Integer, Set<YearMonth>> monthsByInstrument,
+                                     Map<Integer, Set<LocalDate>> correctedDaysByInstrument) {
+}
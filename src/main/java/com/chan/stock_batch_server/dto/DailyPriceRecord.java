@@ -0,0 +1,50 @@
+package com.chan.stock_batch_server.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 업로드된 일별 시세 JSON 파일의 레코드 한 건 (공공데이터포털 주식/지수 시세 필드명)
+ * isinCd가 있으면 주식 시세, idxNm이 있으면 지수 시세로 처리합니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DailyPriceRecord {
+    private String basDt;
+    // 주식
+    private String srtnCd;
+    private String isinCd;
+    private String itmsNm;
+    private String mrktCtg;
+    private Long trPrc;
+    private Long lstgStCnt;
+    // 지수
+    private String idxNm;
+    private String idxCsf;
+    private Float lsYrEdVsFltRt;
+    // 공통
+    private Float clpr;
+    private Float mkp;
+    private Float hipr;
+    private Float lopr;
+    private Integer trqu;
+
+    public boolean isStock() {
+        return isinCd != null;
+    }
+
+    public boolean isIndex() {
+        return idxNm != null;
+    }
+
+    public LocalDate getBaseDate() {
+        return LocalDate.parse(basDt, DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
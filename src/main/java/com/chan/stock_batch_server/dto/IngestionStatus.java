@@ -0,0 +1,31 @@
+package com.chan.stock_batch_server.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 업로드 적재(ingestion) 진행 상황 스냅샷
+ * committedFiles는 거래일 순으로 커밋이 끝난 파일 수, lastCommittedDate는 마지막으로 커밋된 파일의 거래일입니다.
+ * unchangedDates는 내용이 마지막 적재와 같아 커밋하지 않은 (거래일, 구분) 수입니다.
+ */
+public record IngestionStatus(
+        String id,
+        State state,
+        int totalFiles,
+        int committedFiles,
+        long records,
+        int unchangedDates,
+        LocalDate lastCommittedDate,
+        List<String> skipped,
+        String error,
+        Instant startedAt,
+        Instant finishedAt
+) {
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
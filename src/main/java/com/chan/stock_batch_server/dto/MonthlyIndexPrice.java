@@ -1,6 +1,5 @@
 package com.chan.stock_batch_server.dto;
 
-import com.chan.stock_batch_server.model.IndexInfo;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -12,5 +11,6 @@ public class MonthlyIndexPrice {
     private Float startPrice;
     private Float endPrice;
     private Double averagePrice;
-    private IndexInfo indexInfo;
+    private Integer indexInfoId;
+    private Long tradingDays;
 }
@@ -0,0 +1,11 @@
+package com.chan.stock_batch_server.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Processor → Writer로 전달되는 (종목 또는 지수, 월)별 평균가와 월간 수익률, 거래일 수
+ * 엔티티 대신 외래키 id만 들고 다니므로 청크마다 영속성 컨텍스트에 엔티티가 쌓이지 않습니다.
+ * 조회 API 응답 행으로도 사용합니다.
+ */
+public record MonthlyReturn(int instrumentId, LocalDate baseDate, float price, float monthlyRor, int tradingDays) {
+}
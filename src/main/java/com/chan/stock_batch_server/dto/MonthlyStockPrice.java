@@ -1,6 +1,5 @@
 package com.chan.stock_batch_server.dto;
 
-import com.chan.stock_batch_server.model.Stock;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -12,5 +11,6 @@ public class MonthlyStockPrice {
     private Integer startPrice;
     private Integer endPrice;
     private Double averagePrice;
-    private Stock stock;
+    private Integer stockId;
+    private Long tradingDays;
 }
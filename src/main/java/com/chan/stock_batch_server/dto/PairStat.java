@@ -0,0 +1,8 @@
+package com.chan.stock_batch_server.dto;
+
+/**
+ * 두 월간 수익률 시계열(행 종목, 열 지수 또는 종목) 사이의 통계
+ * beta는 열 시계열 대비 행 시계열의 민감도, observations는 두 시계열이 모두 있는 월 수입니다.
+ */
+public record PairStat(int instrumentId, int peerId, int observations, double beta, double correlation) {
+}
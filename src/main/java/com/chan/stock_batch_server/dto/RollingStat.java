@@ -0,0 +1,12 @@
+package com.chan.stock_batch_server.dto;
+
+import java.time.LocalDate;
+
+/**
+ * (종목 또는 지수, 기준일)별 이동 통계
+ * 윈도우가 아직 채워지지 않은 값은 NaN이며 DB에는 NULL로 저장됩니다.
+ */
+public record RollingStat(int instrumentId, LocalDate baseDate,
+                          double ma20, double ma60, double ma120,
+                          double volatility20, double volatility60, double maxDrawdown120) {
+}
@@ -0,0 +1,41 @@
+package com.chan.stock_batch_server.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * CalcIndexPrice 월별 결과를 분기·연 단위로 묶은 결과
+ * price는 거래일 수 가중 평균가, periodRor는 월간 수익률을 복리로 누적한 기간 수익률입니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = { @UniqueConstraint(columnNames = { "index_info_id", "period", "base_date" }) })
+public class CalcIndexPeriodPrice {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private RollupPeriod period;
+
+    private Float price;
+    private Float periodRor;
+    private Integer tradingDays;
+    private Integer months;
+    private LocalDate baseDate;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "index_info_id")
+    private IndexInfo indexInfo;
+}
@@ -14,6 +14,9 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(uniqueConstraints = { @UniqueConstraint(columnNames = { "stock_id", "base_date" }) },
+        // 월 단면 조회(base_date = ?)용 인덱스
+        indexes = { @Index(name = "idx_calc_stock_price_date", columnList = "base_date") })
 public class CalcStockPrice {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,9 +25,20 @@ public class CalcStockPrice {
     private Float price;
     private Float monthlyRor;
     private LocalDate baseDate;
+    // 월 평균가 산출에 사용된 거래일 수, 분기·연 평균의 가중치로 사용합니다.
+    private Integer tradingDays;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stock_id")
     private Stock stock;
+
+    /**
+     * 같은 달을 다시 계산한 결과로 값을 갱신
+     */
+    public void update(Float price, Float monthlyRor, Integer tradingDays) {
+        this.price = price;
+        this.monthlyRor = monthlyRor;
+        this.tradingDays = tradingDays;
+    }
 }
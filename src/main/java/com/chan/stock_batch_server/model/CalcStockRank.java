@@ -0,0 +1,45 @@
+package com.chan.stock_batch_server.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 월간 수익률(CalcStockPrice.monthlyRor) 기준 종목 횡단면 순위
+ * 순위·백분위·십분위는 같은 marketCategory 안에서, overallRank는 전체 종목 중에서 매깁니다.
+ * 수익률이 같은 종목은 같은 순위를 가집니다(1, 2, 2, 4).
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = { @UniqueConstraint(columnNames = { "stock_id", "base_date" }) },
+        indexes = { @Index(name = "idx_calc_stock_rank_date_category", columnList = "base_date, market_category, ror_rank") })
+public class CalcStockRank {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    private LocalDate baseDate;
+    private String marketCategory;
+    private Float monthlyRor;
+    // 1 = 카테고리 내 최고 수익률 (RANK는 MySQL 예약어라 ror_rank로 저장)
+    private Integer rorRank;
+    private Integer categorySize;
+    // 카테고리 내 자신보다 수익률이 낮은 종목 비율 (0~1, PERCENT_RANK와 같은 정의)
+    private Float percentile;
+    // 1 = 상위 10%, 10 = 하위 10%
+    private Integer decile;
+    private Integer overallRank;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id")
+    private Stock stock;
+}
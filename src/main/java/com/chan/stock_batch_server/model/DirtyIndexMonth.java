@@ -0,0 +1,35 @@
+package com.chan.stock_batch_server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 일별 시세가 새로 들어왔거나 바뀌어 다시 계산해야 하는 (indexInfo, 월)
+ * baseDate는 해당 월의 1일입니다. 증분 Job이 claimedBy에 자신의 JobInstance id를 기록해 선점한 행만 다시 계산 후 삭제하며,
+ * 처리 중에 다시 표시되면 claimedBy가 비워져 다음 실행에서 처리됩니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = { @UniqueConstraint(columnNames = { "index_info_id", "base_date" }) })
+public class DirtyIndexMonth {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    private LocalDate baseDate;
+    private LocalDateTime dirtiedAt;
+    private Long claimedBy;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "index_info_id")
+    private IndexInfo indexInfo;
+}
@@ -14,6 +14,15 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@Table(
+    uniqueConstraints = { @UniqueConstraint(columnNames = { "index_info_id", "base_date" }) },
+    indexes = {
+        // 지수별 월 구간 조회(첫/마지막 종가, 평균)를 테이블 접근 없이 처리하는 커버링 인덱스
+        @Index(name = "idx_index_price_index_date_close", columnList = "index_info_id, base_date, close_price"),
+        // 한 달치 전 지수 스캔(window Reader)용 날짜 선두 커버링 인덱스
+        @Index(name = "idx_index_price_date_index_close", columnList = "base_date, index_info_id, close_price")
+    }
+)
 public class IndexPrice {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
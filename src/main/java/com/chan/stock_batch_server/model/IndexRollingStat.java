@@ -0,0 +1,39 @@
+package com.chan.stock_batch_server.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 기준일까지의 20/60/120 거래일 이동평균, 20/60일 연환산 변동성, 120일 최대 낙폭
+ * 윈도우만큼 이력이 쌓이지 않은 값은 NULL입니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = { @UniqueConstraint(columnNames = { "index_info_id", "base_date" }) })
+public class IndexRollingStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    private LocalDate baseDate;
+    private Double ma20;
+    private Double ma60;
+    private Double ma120;
+    private Double volatility20;
+    private Double volatility60;
+    private Double maxDrawdown120;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "index_info_id")
+    private IndexInfo indexInfo;
+}
@@ -0,0 +1,23 @@
+package com.chan.stock_batch_server.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 시세 테이블별로 증분 Job이 마지막으로 확인한 id
+ * 이 id 이후에 들어온 행의 (종목, 월)이 Dirty 테이블에 기록됩니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestWatermark {
+    @Id
+    private String name;
+    private Integer lastId;
+}
@@ -0,0 +1,35 @@
+package com.chan.stock_batch_server.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 적재가 끝난 업로드 파일 목록 (내용의 SHA-256 기준)
+ * 같은 내용의 파일이 다시 업로드되면 적재하지 않습니다. zip은 zip 파일 전체가 한 행입니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestedFile {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    private String fileName;
+    private Long rowCount;
+    // 파일에 들어 있는 거래일 수와 첫·마지막 거래일
+    private Integer tradingDays;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private LocalDateTime ingestedAt;
+}
@@ -0,0 +1,38 @@
+package com.chan.stock_batch_server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 소스(업로드 파일 이름, zip이면 항목 이름까지)·거래일·구분(STOCK, INDEX)별로 마지막으로 적재한 시세 내용의 해시
+ * 해시는 소스 하나의 레코드만 덮으므로 같은 거래일을 나눠 담은 다른 소스의 해시를 덮어쓰지 않게 소스별로 기록합니다.
+ * 새 파일의 거래일 해시가 어느 소스에든 이미 기록돼 있으면 파일 이름과 관계없이 다시 적재하지 않습니다(PriceDateGroup 참고).
+ * 소스 구분이 없던 ingested_price_date 테이블은 더 이상 사용하지 않습니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "ingested_price_source_date",
+        uniqueConstraints = { @UniqueConstraint(columnNames = { "kind", "base_date", "source" }) })
+public class IngestedPriceDate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(length = 8)
+    private String kind;
+    private LocalDate baseDate;
+    private String source;
+    @Column(length = 64)
+    private String contentHash;
+    private Integer rowCount;
+    private LocalDateTime ingestedAt;
+}
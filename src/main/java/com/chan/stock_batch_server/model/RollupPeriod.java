@@ -0,0 +1,20 @@
+package com.chan.stock_batch_server.model;
+
+/**
+ * 월별 결과를 묶어 계산하는 상위 기간
+ * baseDate는 각 기간의 첫날(분기 첫 달 1일, 1월 1일)입니다.
+ */
+public enum RollupPeriod {
+    QUARTER(3),
+    YEAR(12);
+
+    private final int months;
+
+    RollupPeriod(int months) {
+        this.months = months;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+}
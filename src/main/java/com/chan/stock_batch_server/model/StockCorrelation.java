@@ -0,0 +1,42 @@
+package com.chan.stock_batch_server.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * baseDate 월까지 windowMonths 개월 월간 수익률로 계산한 종목 간 상관계수
+ * 대칭이므로 stock id < peer stock id 인 쌍만 저장합니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "stock_id", "peer_stock_id", "base_date", "window_months" }) })
+public class StockCorrelation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    private LocalDate baseDate;
+    private Integer windowMonths;
+    private Integer observations;
+    private Float correlation;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id")
+    private Stock stock;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "peer_stock_id")
+    private Stock peerStock;
+}
@@ -0,0 +1,43 @@
+package com.chan.stock_batch_server.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * baseDate 월까지 windowMonths 개월 월간 수익률로 계산한 종목의 지수 대비 베타와 상관계수
+ * observations는 두 시계열이 모두 있는 월 수입니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "stock_id", "index_info_id", "base_date", "window_months" }) })
+public class StockIndexBeta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    private LocalDate baseDate;
+    private Integer windowMonths;
+    private Integer observations;
+    private Float beta;
+    private Float correlation;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id")
+    private Stock stock;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "index_info_id")
+    private IndexInfo indexInfo;
+}
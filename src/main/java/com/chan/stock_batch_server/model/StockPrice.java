@@ -14,6 +14,15 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@Table(
+    uniqueConstraints = { @UniqueConstraint(columnNames = { "stock_id", "base_date" }) },
+    indexes = {
+        // 종목별 월 구간 조회(첫/마지막 종가, 평균)를 테이블 접근 없이 처리하는 커버링 인덱스
+        @Index(name = "idx_stock_price_stock_date_close", columnList = "stock_id, base_date, close_price"),
+        // 한 달치 전 종목 스캔(window Reader)용 날짜 선두 커버링 인덱스
+        @Index(name = "idx_stock_price_date_stock_close", columnList = "base_date, stock_id, close_price")
+    }
+)
 public class StockPrice {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
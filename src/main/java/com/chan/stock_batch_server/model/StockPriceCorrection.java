@@ -0,0 +1,35 @@
+package com.chan.stock_batch_server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 이미 있던 일별 시세(stock_price) 행의 값이 UPSERT로 바뀐 기록
+ * UPSERT는 id를 바꾸지 않아 id 워터마크로는 보이지 않으므로, 적재 Writer가 같은 트랜잭션에서 남깁니다.
+ * 시세 스냅샷 Job이 해당 종목 파일을 다시 작성한 뒤 처리한 행을 삭제하며,
+ * 그 전까지 DailyPriceStore는 스냅샷 위에 이 행들의 현재 값을 덮어 씁니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(indexes = { @Index(name = "idx_stock_price_correction_date", columnList = "base_date, stock_id") })
+public class StockPriceCorrection {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private LocalDate baseDate;
+    private LocalDateTime correctedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id")
+    private Stock stock;
+}
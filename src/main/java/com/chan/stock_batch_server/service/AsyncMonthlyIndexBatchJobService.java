@@ -1,70 +1,95 @@
 package com.chan.stock_batch_server.service;
 
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Future;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AsyncMonthlyIndexBatchJobService {
-    private final JobLauncher jobLauncher;
-    private final Job calcIndexPriceJob;
+    private final BatchJobDispatcher batchJobDispatcher;
+    private final CoalescingJobLauncher coalescingJobLauncher;
+    private final JobRestartService jobRestartService;
+    private final Job calcIndexPriceRangeJob;
 
-    public AsyncMonthlyIndexBatchJobService(JobLauncher jobLauncher, @Qualifier("calcIndexPriceJob") Job calcIndexPriceJob) {
-        this.jobLauncher = jobLauncher;
-        this.calcIndexPriceJob = calcIndexPriceJob;
+    public AsyncMonthlyIndexBatchJobService(BatchJobDispatcher batchJobDispatcher,
+                                          CoalescingJobLauncher coalescingJobLauncher,
+                                          JobRestartService jobRestartService,
+                                          @Qualifier("calcIndexPriceRangeJob") Job calcIndexPriceRangeJob) {
+        this.batchJobDispatcher = batchJobDispatcher;
+        this.coalescingJobLauncher = coalescingJobLauncher;
+        this.jobRestartService = jobRestartService;
+        this.calcIndexPriceRangeJob = calcIndexPriceRangeJob;
     }
 
-
     /**
-     * 한 달 단위 비동기 실행
+     * 한 달 단위 배치 비동기 실행
      */
-    @Async
-    public Future<JobExecution> runMonthlyIndexBatch(int year, int month) throws Exception {
-        JobParameters params = new JobParametersBuilder()
-                .addLong("year", (long) year)
-                .addLong("month", (long) month)
-                .addLong("timestamp", System.currentTimeMillis()) // 중복 방지
-                .toJobParameters();
-
-        JobExecution execution = jobLauncher.run(calcIndexPriceJob, params);
-        return new AsyncResult<>(execution);
+    public CompletableFuture<List<JobExecution>> runMonthlyIndexBatch(int year, int month) {
+        return runMonthlyIndexBatchForMonths(List.of(YearMonth.of(year, month)));
     }
 
     /**
-     * 여러 달 단위 비동기 병렬 실행
+     * 범위를 batchTaskExecutor에 제출하여 비동기 실행 + 결과 추적
+     * 수용량을 넘는 범위는 TaskRejectedException으로 거절됩니다(이미 실행 중인 월의 처리는 runMonthlyIndexBatchForMonths 참고).
      */
-    @Async
-    public Future<List<JobExecution>> runMonthlyIndexBatchByRange(LocalDate startDate, LocalDate endDate) throws Exception {
+    public CompletableFuture<List<JobExecution>> runMonthlyIndexBatchByRange(LocalDate startDate, LocalDate endDate) {
         YearMonth startYm = YearMonth.from(startDate);
-        YearMonth endYm   = YearMonth.from(endDate);
-
-        List<Future<JobExecution>> futures = new ArrayList<>();
-        List<JobExecution> results = new ArrayList<>();
+        YearMonth endYm = YearMonth.from(endDate);
 
+        List<YearMonth> months = new ArrayList<>();
         for (YearMonth ym = startYm; !ym.isAfter(endYm); ym = ym.plusMonths(1)) {
-            // 병렬 실행을 위해 자기 자신을 통해 비동기 호출
-            Future<JobExecution> future = this.runMonthlyIndexBatch(ym.getYear(), ym.getMonthValue());
-            futures.add(future);
+            months.add(ym);
         }
+        return runMonthlyIndexBatchForMonths(months);
+    }
 
-        // 모든 Future 완료 대기
-        for (Future<JobExecution> future : futures) {
-            JobExecution exec = future.get(); // 완료될 때까지 블로킹
-            results.add(exec);
+    /**
+     * 지정한 월들만 batchTaskExecutor에 제출하여 비동기 실행 (BackfillPlannerService가 계산한 빈 월 채우기 등)
+     * 연속 구간마다 기간 Job 하나로 실행하므로 구간이 여럿이면 구간끼리 병렬로 실행됩니다.
+     * 이미 실행 중인 월은 새로 제출하지 않고 그 실행에 합류합니다(CoalescingJobLauncher).
+     * 남은 월은 연속 구간마다 한 번에 제출하므로 수용량을 넘는 구간은 한 달도 실행하지 않고 TaskRejectedException으로 거절되며,
+     * 그보다 앞 구간은 이미 제출된 상태로 남습니다.
+     */
+    public CompletableFuture<List<JobExecution>> runMonthlyIndexBatchForMonths(List<YearMonth> months) {
+        List<CompletableFuture<List<JobExecution>>> runs = new ArrayList<>();
+        YearMonth runFrom = null;
+        YearMonth runTo = null;
+        for (YearMonth month : new TreeSet<>(months)) {
+            if (runTo != null && !runTo.plusMonths(1).equals(month)) {
+                runs.add(coalescingJobLauncher.run(CalcPriceChangedEvent.Kind.INDEX, runFrom, runTo, this::submit));
+                runFrom = null;
+            }
+            runFrom = runFrom == null ? month : runFrom;
+            runTo = month;
+        }
+        if (runFrom != null) {
+            runs.add(coalescingJobLauncher.run(CalcPriceChangedEvent.Kind.INDEX, runFrom, runTo, this::submit));
         }
+        return CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new))
+                .thenApply(done -> runs.stream().flatMap(run -> run.join().stream()).distinct().toList());
+    }
 
-        return new AsyncResult<>(results);
+    /**
+     * 연속 구간 하나를 calcIndexPriceRangeJob 한 번으로 제출하여 일별 시세 스캔과 분기·연 롤업을 구간마다 한 번만 실행
+     * 같은 구간의 실패·중단된 실행이 있으면 이어서 실행합니다(JobRestartService.stableParameters).
+     */
+    private CompletableFuture<List<JobExecution>> submit(YearMonth from, YearMonth to) {
+        JobParameters params = jobRestartService.stableParameters(calcIndexPriceRangeJob, new JobParametersBuilder()
+                .addLocalDate("startDate", from.atDay(1))
+                .addLocalDate("endDate", to.atEndOfMonth())
+                .addLong("timestamp", System.currentTimeMillis(), false)
+                .toJobParameters());
+        return batchJobDispatcher.submit(calcIndexPriceRangeJob, params).thenApply(execution -> List.of(execution));
     }
 }
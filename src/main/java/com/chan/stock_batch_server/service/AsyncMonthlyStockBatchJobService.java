@@ -1,68 +1,95 @@
 package com.chan.stock_batch_server.service;
 
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Future;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AsyncMonthlyStockBatchJobService {
-    private final JobLauncher jobLauncher;
-    private final Job calcStockPriceJob;
+    private final BatchJobDispatcher batchJobDispatcher;
+    private final CoalescingJobLauncher coalescingJobLauncher;
+    private final JobRestartService jobRestartService;
+    private final Job calcStockPriceRangeJob;
 
-    public AsyncMonthlyStockBatchJobService(JobLauncher jobLauncher, @Qualifier("calcStockPriceJob") Job calcStockPriceJob) {
-        this.jobLauncher = jobLauncher;
-        this.calcStockPriceJob = calcStockPriceJob;
+    public AsyncMonthlyStockBatchJobService(BatchJobDispatcher batchJobDispatcher,
+                                          CoalescingJobLauncher coalescingJobLauncher,
+                                          JobRestartService jobRestartService,
+                                          @Qualifier("calcStockPriceRangeJob") Job calcStockPriceRangeJob) {
+        this.batchJobDispatcher = batchJobDispatcher;
+        this.coalescingJobLauncher = coalescingJobLauncher;
+        this.jobRestartService = jobRestartService;
+        this.calcStockPriceRangeJob = calcStockPriceRangeJob;
     }
 
     /**
      * 한 달 단위 배치 비동기 실행
      */
-    @Async
-    public Future<JobExecution> runMonthlyStockBatch(int year, int month) throws Exception {
-        JobParameters params = new JobParametersBuilder()
-                .addLong("year", (long) year)
-                .addLong("month", (long) month)
-                .addLong("timestamp", System.currentTimeMillis())
-                .toJobParameters();
-
-        JobExecution execution = jobLauncher.run(calcStockPriceJob, params);
-        return new AsyncResult<>(execution);
+    public CompletableFuture<List<JobExecution>> runMonthlyStockBatch(int year, int month) {
+        return runMonthlyStockBatchForMonths(List.of(YearMonth.of(year, month)));
     }
 
     /**
-     * 범위 내 모든 월 병렬 배치 실행 + 결과 추적
+     * 범위를 batchTaskExecutor에 제출하여 비동기 실행 + 결과 추적
+     * 수용량을 넘는 범위는 TaskRejectedException으로 거절됩니다(이미 실행 중인 월의 처리는 runMonthlyStockBatchForMonths 참고).
      */
-    @Async
-    public Future<List<JobExecution>> runMonthlyStockBatchByRange(LocalDate startDate, LocalDate endDate) throws Exception {
+    public CompletableFuture<List<JobExecution>> runMonthlyStockBatchByRange(LocalDate startDate, LocalDate endDate) {
         YearMonth startYm = YearMonth.from(startDate);
         YearMonth endYm = YearMonth.from(endDate);
 
-        List<Future<JobExecution>> futures = new ArrayList<>();
-        List<JobExecution> results = new ArrayList<>();
-
+        List<YearMonth> months = new ArrayList<>();
         for (YearMonth ym = startYm; !ym.isAfter(endYm); ym = ym.plusMonths(1)) {
-            Future<JobExecution> future = this.runMonthlyStockBatch(ym.getYear(), ym.getMonthValue());
-            futures.add(future);
+            months.add(ym);
         }
+        return runMonthlyStockBatchForMonths(months);
+    }
 
-        // 모든 비동기 배치 작업 완료 대기
-        for (Future<JobExecution> future : futures) {
-            JobExecution exec = future.get(); // 예외 발생 시 throw 됨
-            results.add(exec);
+    /**
+     * 지정한 월들만 batchTaskExecutor에 제출하여 비동기 실행 (BackfillPlannerService가 계산한 빈 월 채우기 등)
+     * 연속 구간마다 기간 Job 하나로 실행하므로 구간이 여럿이면 구간끼리 병렬로 실행됩니다.
+     * 이미 실행 중인 월은 새로 제출하지 않고 그 실행에 합류합니다(CoalescingJobLauncher).
+     * 남은 월은 연속 구간마다 한 번에 제출하므로 수용량을 넘는 구간은 한 달도 실행하지 않고 TaskRejectedException으로 거절되며,
+     * 그보다 앞 구간은 이미 제출된 상태로 남습니다.
+     */
+    public CompletableFuture<List<JobExecution>> runMonthlyStockBatchForMonths(List<YearMonth> months) {
+        List<CompletableFuture<List<JobExecution>>> runs = new ArrayList<>();
+        YearMonth runFrom = null;
+        YearMonth runTo = null;
+        for (YearMonth month : new TreeSet<>(months)) {
+            if (runTo != null && !runTo.plusMonths(1).equals(month)) {
+                runs.add(coalescingJobLauncher.run(CalcPriceChangedEvent.Kind.STOCK, runFrom, runTo, this::submit));
+                runFrom = null;
+            }
+            runFrom = runFrom == null ? month : runFrom;
+            runTo = month;
         }
+        if (runFrom != null) {
+            runs.add(coalescingJobLauncher.run(CalcPriceChangedEvent.Kind.STOCK, runFrom, runTo, this::submit));
+        }
+        return CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new))
+                .thenApply(done -> runs.stream().flatMap(run -> run.join().stream()).distinct().toList());
+    }
 
-        return new AsyncResult<>(results);
+    /**
+     * 연속 구간 하나를 calcStockPriceRangeJob 한 번으로 제출하여 일별 시세 스캔과 분기·연 롤업을 구간마다 한 번만 실행
+     * 같은 구간의 실패·중단된 실행이 있으면 이어서 실행합니다(JobRestartService.stableParameters).
+     */
+    private CompletableFuture<List<JobExecution>> submit(YearMonth from, YearMonth to) {
+        JobParameters params = jobRestartService.stableParameters(calcStockPriceRangeJob, new JobParametersBuilder()
+                .addLocalDate("startDate", from.atDay(1))
+                .addLocalDate("endDate", to.atEndOfMonth())
+                .addLong("timestamp", System.currentTimeMillis(), false)
+                .toJobParameters());
+        return batchJobDispatcher.submit(calcStockPriceRangeJob, params).thenApply(execution -> List.of(execution));
     }
 }
@@ -0,0 +1,183 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.batch.MonthCoverage;
+import com.chan.stock_batch_server.dto.BackfillPlan;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 월별 결과를 다시 계산해야 하는 (종목 또는 지수, 월)을 MonthCoverage 색인으로 찾아 최소한의 월만 실행하는 서비스
+ * 색인은 구분별로 처음 조회할 때 일별 시세·월별 결과·Dirty 테이블을 한 번씩 스캔해 만들고,
+ * 이후에는 적재 Writer(DailyPriceChangedEvent)와 월별 결과 Writer(CalcPriceChangedEvent)의 커밋 후 이벤트로 갱신합니다.
+ * 색인을 만드는 중에 들어온 이벤트도 새 색인에 반영하며, 다른 경로로 DB가 바뀌었으면 refresh로 다시 만듭니다.
+ */
+@Slf4j
+@Service
+public class BackfillPlannerService {
+    private record Tables(String dailyTable, String calcTable, String dirtyTable, String column) {
+    }
+
+    private static final Map<CalcPriceChangedEvent.Kind, Tables> TABLES = Map.of(
+            CalcPriceChangedEvent.Kind.STOCK,
+            new Tables("stock_price", "calc_stock_price", "dirty_stock_month", "stock_id"),
+            CalcPriceChangedEvent.Kind.INDEX,
+            new Tables("index_price", "calc_index_price", "dirty_index_month", "index_info_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AsyncMonthlyStockBatchJobService asyncMonthlyStockBatchJobService;
+    private final AsyncMonthlyIndexBatchJobService asyncMonthlyIndexBatchJobService;
+    // 구분별 현재 색인과 만들고 있는 색인, this로 보호합니다.
+    private final Map<CalcPriceChangedEvent.Kind, MonthCoverage> current = new EnumMap<>(CalcPriceChangedEvent.Kind.class);
+    private final Map<CalcPriceChangedEvent.Kind, MonthCoverage> loading = new EnumMap<>(CalcPriceChangedEvent.Kind.class);
+    // 색인 만들기는 수 초가 걸릴 수 있어 이벤트 처리(this)와 다른 잠금으로 직렬화합니다.
+    private final Object loadLock = new Object();
+
+    public BackfillPlannerService(JdbcTemplate jdbcTemplate,
+                                  AsyncMonthlyStockBatchJobService asyncMonthlyStockBatchJobService,
+                                  AsyncMonthlyIndexBatchJobService asyncMonthlyIndexBatchJobService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.asyncMonthlyStockBatchJobService = asyncMonthlyStockBatchJobService;
+        this.asyncMonthlyIndexBatchJobService = asyncMonthlyIndexBatchJobService;
+    }
+
+    /**
+     * from~to(포함) 기간에서 다시 계산해야 하는 월 목록, refresh면 색인을 DB에서 다시 만든 뒤 계산
+     */
+    public BackfillPlan plan(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to, boolean refresh) {
+        if (from.isBefore(YearMonth.of(1970, 1)) || from.isAfter(to)) {
+            throw new IllegalArgumentException("invalid month range: " + from + " ~ " + to);
+        }
+        return coverage(kind, refresh).plan(from, to);
+    }
+
+    /**
+     * plan의 월만 월별 Job으로 비동기 실행, 수용량을 넘으면 한 달도 실행하지 않고 TaskRejectedException으로 거절됩니다.
+     */
+    public BackfillPlan launch(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to, boolean refresh) {
+        BackfillPlan plan = plan(kind, from, to, refresh);
+        if (plan.months().isEmpty()) {
+            return plan;
+        }
+        List<YearMonth> months = plan.months().stream().map(BackfillPlan.MonthNeed::month).toList();
+        if (kind == CalcPriceChangedEvent.Kind.STOCK) {
+            asyncMonthlyStockBatchJobService.runMonthlyStockBatchForMonths(months);
+        } else {
+            asyncMonthlyIndexBatchJobService.runMonthlyIndexBatchForMonths(months);
+        }
+        log.info("backfill {} {}~{} launched {} monthly jobs in {} ranges", kind, from, to, months.size(),
+                plan.ranges().size());
+        return plan.withLaunchedJobs(months.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyPriceChanged(DailyPriceChangedEvent event) {
+        apply(event.kind(), event.monthsByInstrument(), MonthCoverage::markDaily);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalcPriceChanged(CalcPriceChangedEvent event) {
+        apply(event.kind(), event.monthsByInstrument(), MonthCoverage::markCalculated);
+    }
+
+    @FunctionalInterface
+    private interface CellMarker {
+        void mark(MonthCoverage coverage, int instrumentId, YearMonth month);
+    }
+
+    private void apply(CalcPriceChangedEvent.Kind kind, Map<Integer, Set<YearMonth>> monthsByInstrument,
+                       CellMarker marker) {
+        MonthCoverage loaded;
+        MonthCoverage building;
+        synchronized (this) {
+            loaded = current.get(kind);
+            building = loading.get(kind);
+        }
+        for (MonthCoverage coverage : new MonthCoverage[] { loaded, building }) {
+            if (coverage != null) {
+                monthsByInstrument.forEach((id, months) -> months.forEach(month -> marker.mark(coverage, id, month)));
+            }
+        }
+    }
+
+    private MonthCoverage coverage(CalcPriceChangedEvent.Kind kind, boolean refresh) {
+        synchronized (this) {
+            MonthCoverage loaded = current.get(kind);
+            if (loaded != null && !refresh) {
+                return loaded;
+            }
+        }
+        synchronized (loadLock) {
+            synchronized (this) {
+                if (!refresh && current.get(kind) != null) {
+                    return current.get(kind);
+                }
+            }
+            MonthCoverage building = new MonthCoverage(kind);
+            synchronized (this) {
+                loading.put(kind, building);
+            }
+            try {
+                load(kind, building);
+                synchronized (this) {
+                    current.put(kind, building);
+                }
+                return building;
+            } finally {
+                synchronized (this) {
+                    loading.remove(kind);
+                }
+            }
+        }
+    }
+
+    /**
+     * 일별 시세 → 월별 결과 → Dirty 순으로 스캔 (Dirty를 마지막에 읽어야 결과가 있는 칸의 낡음 표시가 남습니다)
+     */
+    private void load(CalcPriceChangedEvent.Kind kind, MonthCoverage coverage) {
+        Tables tables = TABLES.get(kind);
+        long started = System.currentTimeMillis();
+        long daily = scan("SELECT " + tables.column() + ", EXTRACT(YEAR_MONTH FROM base_date) AS ym FROM "
+                + tables.dailyTable() + " GROUP BY " + tables.column() + ", ym",
+                coverage::markDaily);
+        long calculated = scan("SELECT " + tables.column() + ", EXTRACT(YEAR_MONTH FROM base_date) FROM "
+                + tables.calcTable(), coverage::markCalculated);
+        long stale = scan("SELECT " + tables.column() + ", EXTRACT(YEAR_MONTH FROM base_date) FROM "
+                + tables.dirtyTable(), coverage::markStale);
+        log.info("month coverage {} loaded instruments={} dailyCells={} calculatedCells={} staleCells={} elapsed={}ms",
+                kind, coverage.instruments(), daily, calculated, stale, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * (id, yyyyMM) 두 열을 반환하는 sql을 스트리밍 결과셋으로 읽어 칸마다 marker를 호출하고 행 수를 반환
+     */
+    private long scan(String sql, MonthMarker marker) {
+        long[] rows = { 0 };
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            return ps;
+        }, rs -> {
+            int yearMonth = rs.getInt(2);
+            marker.mark(rs.getInt(1), YearMonth.of(yearMonth / 100, yearMonth % 100));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    @FunctionalInterface
+    private interface MonthMarker {
+        void mark(int instrumentId, YearMonth month);
+    }
+}
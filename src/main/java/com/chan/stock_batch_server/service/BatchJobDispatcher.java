@@ -0,0 +1,97 @@
+package com.chan.stock_batch_server.service;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * batchTaskExecutor를 통해 배치 Job을 실제로 병렬 실행하는 Dispatcher
+ * Executor의 동시 실행 수와 대기열 한도를 넘는 요청은 TaskRejectedException으로 거절합니다.
+ * 가상 스레드 모드의 Executor(SimpleAsyncTaskExecutor)는 대기열이 없으므로 실행 중인 Job 수를 직접 세어 한도와 비교합니다.
+ */
+@Service
+public class BatchJobDispatcher {
+    private final JobLauncher jobLauncher;
+    private final AsyncTaskExecutor batchTaskExecutor;
+    private final AtomicInteger running = new AtomicInteger();
+
+    public BatchJobDispatcher(JobLauncher jobLauncher,
+                              @Qualifier("batchTaskExecutor") AsyncTaskExecutor batchTaskExecutor) {
+        this.jobLauncher = jobLauncher;
+        this.batchTaskExecutor = batchTaskExecutor;
+    }
+
+    /**
+     * Job 하나를 Executor에 제출
+     */
+    public CompletableFuture<JobExecution> submit(Job job, JobParameters params) {
+        return submitAll(job, List.of(params)).get(0);
+    }
+
+    /**
+     * 여러 Job을 한꺼번에 제출
+     * 일부만 접수되는 일이 없도록 남은 수용량을 먼저 확인하고, 도중에 거절되면 이미 접수된 Job도 취소합니다.
+     */
+    public List<CompletableFuture<JobExecution>> submitAll(Job job, List<JobParameters> paramsList) {
+        int available = remainingCapacity();
+        if (paramsList.size() > available) {
+            throw new TaskRejectedException(String.format(
+                    "Batch executor is saturated: %d jobs requested, %d slots available (max-concurrency %d)",
+                    paramsList.size(), available, maxConcurrency()));
+        }
+
+        List<CompletableFuture<JobExecution>> futures = new ArrayList<>(paramsList.size());
+        try {
+            for (JobParameters params : paramsList) {
+                running.incrementAndGet();
+                try {
+                    futures.add(batchTaskExecutor.submitCompletable(() -> {
+                        try {
+                            return jobLauncher.run(job, params);
+                        } finally {
+                            running.decrementAndGet();
+                        }
+                    }));
+                } catch (TaskRejectedException e) {
+                    running.decrementAndGet();
+                    throw e;
+                }
+            }
+        } catch (TaskRejectedException e) {
+            // 아직 시작되지 않은 Job은 취소되어 실행되지 않습니다.
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        }
+        return futures;
+    }
+
+    /**
+     * 지금 바로 접수할 수 있는 Job 수 (유휴 스레드 + 대기열 여유, 가상 스레드 모드는 max-in-flight까지 남은 수)
+     */
+    public int remainingCapacity() {
+        if (batchTaskExecutor instanceof ThreadPoolTaskExecutor pool) {
+            int idleThreads = pool.getMaxPoolSize() - pool.getActiveCount();
+            return idleThreads + pool.getThreadPoolExecutor().getQueue().remainingCapacity();
+        }
+        return Math.max(maxConcurrency() - running.get(), 0);
+    }
+
+    private int maxConcurrency() {
+        if (batchTaskExecutor instanceof ThreadPoolTaskExecutor pool) {
+            return pool.getMaxPoolSize();
+        }
+        return ((SimpleAsyncTaskExecutor) batchTaskExecutor).getConcurrencyLimit();
+    }
+}
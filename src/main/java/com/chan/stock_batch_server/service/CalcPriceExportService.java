@@ -0,0 +1,181 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.batch.ColumnarBlockWriter;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 월별 결과(calc_stock_price, calc_index_price)를 전진 전용 JDBC 커서에서 바로 출력 스트림으로 내보내는 서비스
+ * MySQL 스트리밍 결과셋(fetchSize Integer.MIN_VALUE)을 행 단위로 쓰므로 결과 목록을 메모리에 만들지 않습니다.
+ * 형식은 CSV 또는 ColumnarBlockWriter의 블록 단위 열 지향 이진 형식이며, 선택적으로 gzip으로 압축합니다.
+ */
+@Slf4j
+@Service
+public class CalcPriceExportService {
+    public static final int MAX_INSTRUMENT_IDS = 1000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    public enum Format {
+        CSV,
+        BINARY
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CalcPriceExportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * from~to(포함, 없으면 전체) 기간과 instrumentIds(비어 있으면 전체)에 해당하는 행을 (id, 기준일) 순으로 out에 씀
+     * out은 닫지 않습니다.
+     */
+    public void export(CalcPriceChangedEvent.Kind kind, Format format, LocalDate from, LocalDate to,
+                       Collection<Integer> instrumentIds, boolean gzip, OutputStream out) throws IOException {
+        if (instrumentIds.size() > MAX_INSTRUMENT_IDS) {
+            throw new IllegalArgumentException("too many instrument ids: " + instrumentIds.size()
+                    + " (max " + MAX_INSTRUMENT_IDS + ")");
+        }
+        String table = kind == CalcPriceChangedEvent.Kind.STOCK ? "calc_stock_price" : "calc_index_price";
+        String column = kind == CalcPriceChangedEvent.Kind.STOCK ? "stock_id" : "index_info_id";
+
+        StringBuilder sql = new StringBuilder("SELECT c.").append(column)
+                .append(", c.base_date, c.price, c.monthly_ror, c.trading_days FROM ").append(table)
+                .append(" c WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND c.base_date >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND c.base_date <= ?");
+            args.add(to);
+        }
+        if (!instrumentIds.isEmpty()) {
+            sql.append(" AND c.").append(column).append(" IN (")
+                    .append(String.join(", ", Collections.nCopies(instrumentIds.size(), "?")))
+                    .append(")");
+            args.addAll(instrumentIds);
+        }
+        sql.append(" ORDER BY c.").append(column).append(", c.base_date");
+
+        long started = System.currentTimeMillis();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : null;
+        OutputStream target = new BufferedOutputStream(compressed != null ? compressed : out, BUFFER_BYTES);
+        long rows = format == Format.CSV
+                ? writeCsv(sql.toString(), args, target)
+                : writeBinary(sql.toString(), args, kind, target);
+        target.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+        log.info("calc price export kind={} format={} gzip={} rows={} elapsed={}ms",
+                kind, format, gzip, rows, System.currentTimeMillis() - started);
+    }
+
+    private long writeCsv(String sql, List<Object> args, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_BYTES);
+        writer.write("instrument_id,base_date,price,monthly_ror,trading_days\n");
+        long rows = stream(sql, args, rs -> {
+            writer.write(Integer.toString(rs.getInt(1)));
+            writer.write(',');
+            writer.write(rs.getObject(2, LocalDate.class).toString());
+            writer.write(',');
+            writeNullable(writer, rs.getFloat(3), rs.wasNull());
+            writer.write(',');
+            writeNullable(writer, rs.getFloat(4), rs.wasNull());
+            writer.write(',');
+            int tradingDays = rs.getInt(5);
+            if (!rs.wasNull()) {
+                writer.write(Integer.toString(tradingDays));
+            }
+            writer.write('\n');
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private long writeBinary(String sql, List<Object> args, CalcPriceChangedEvent.Kind kind, OutputStream out)
+            throws IOException {
+        ColumnarBlockWriter writer = new ColumnarBlockWriter(out, kind == CalcPriceChangedEvent.Kind.STOCK ? 0 : 1);
+        long rows = stream(sql, args, rs -> {
+            int instrumentId = rs.getInt(1);
+            LocalDate baseDate = rs.getObject(2, LocalDate.class);
+            float price = rs.getFloat(3);
+            if (rs.wasNull()) {
+                price = Float.NaN;
+            }
+            float ror = rs.getFloat(4);
+            if (rs.wasNull()) {
+                ror = Float.NaN;
+            }
+            int tradingDays = rs.getInt(5);
+            if (rs.wasNull()) {
+                tradingDays = -1;
+            }
+            writer.write(instrumentId, baseDate, price, ror, tradingDays);
+        });
+        writer.close();
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * 전진 전용·읽기 전용 스트리밍 결과셋으로 행마다 rowWriter를 호출하고 행 수를 반환
+     */
+    private long stream(String sql, List<Object> args, RowWriter rowWriter) throws IOException {
+        long[] rows = { 0 };
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Integer.MIN_VALUE);
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 연결을 끊은 경우 등: 커서를 닫고 원래 예외를 그대로 올립니다.
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private static void writeNullable(BufferedWriter writer, float value, boolean wasNull) throws IOException {
+        if (!wasNull) {
+            writer.write(Float.toString(value));
+        }
+    }
+}
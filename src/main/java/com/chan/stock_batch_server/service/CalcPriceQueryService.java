@@ -0,0 +1,192 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.MonthlyReturn;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * 월별 결과(calc_stock_price, calc_index_price) 조회 서비스
+ * 종목·지수별 전체 월 시계열과 월별 전체 종목 단면을 크기 제한 Caffeine 캐시에 올려 두고,
+ * 배치 Writer가 발행한 CalcPriceChangedEvent를 커밋 후 받아 바뀐 (종목, 월)에 해당하는 항목만 비웁니다.
+ * 응답의 ETag는 내용의 CRC32C, Last-Modified는 해당 키가 마지막으로 무효화된 시각(없으면 서버 시작 시각)입니다.
+ */
+@Slf4j
+@Service
+public class CalcPriceQueryService {
+    private static final String STOCK_SERIES_SQL = """
+            SELECT c.stock_id, c.base_date, c.price, c.monthly_ror, c.trading_days
+            FROM calc_stock_price c
+            WHERE c.stock_id = ?
+            ORDER BY c.base_date
+        """;
+
+    private static final String INDEX_SERIES_SQL = """
+            SELECT c.index_info_id, c.base_date, c.price, c.monthly_ror, c.trading_days
+            FROM calc_index_price c
+            WHERE c.index_info_id = ?
+            ORDER BY c.base_date
+        """;
+
+    private static final String STOCK_MONTH_SQL = """
+            SELECT c.stock_id, c.base_date, c.price, c.monthly_ror, c.trading_days
+            FROM calc_stock_price c
+            WHERE c.base_date = ?
+            ORDER BY c.stock_id
+        """;
+
+    private static final String INDEX_MONTH_SQL = """
+            SELECT c.index_info_id, c.base_date, c.price, c.monthly_ror, c.trading_days
+            FROM calc_index_price c
+            WHERE c.base_date = ?
+            ORDER BY c.index_info_id
+        """;
+
+    /**
+     * 캐시에 보관되는 조회 결과와 재검증용 값
+     */
+    public record CachedRows(List<MonthlyReturn> rows, String eTag, long lastModified) {
+    }
+
+    private record SeriesKey(CalcPriceChangedEvent.Kind kind, int instrumentId) {
+    }
+
+    private record MonthKey(CalcPriceChangedEvent.Kind kind, YearMonth month) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadingCache<SeriesKey, CachedRows> seriesCache;
+    private final LoadingCache<MonthKey, CachedRows> monthCache;
+    // 무효화된 적 있는 키의 마지막 변경 시각, 키 수는 종목·지수 수 + 월 수로 한정됩니다.
+    private final Map<Object, Long> modifiedAt = new ConcurrentHashMap<>();
+    private final long startedAt = truncateToSeconds(System.currentTimeMillis());
+
+    public CalcPriceQueryService(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${api.cache.series.maximum-size:20000}") long seriesMaximumSize,
+            @Value("${api.cache.month.maximum-rows:1000000}") long monthMaximumRows,
+            @Value("${api.cache.expire-after-write:PT6H}") Duration expireAfterWrite
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seriesCache = Caffeine.newBuilder()
+                .maximumSize(seriesMaximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(this::loadSeries);
+        // 월 단면은 한 항목이 전체 종목 수만큼 커서 항목 수 대신 행 수 합계로 제한합니다.
+        this.monthCache = Caffeine.newBuilder()
+                .maximumWeight(monthMaximumRows)
+                .weigher((MonthKey key, CachedRows value) -> Math.max(1, value.rows().size()))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(this::loadMonth);
+        CaffeineCacheMetrics.monitor(meterRegistry, seriesCache, "calcPriceSeries");
+        CaffeineCacheMetrics.monitor(meterRegistry, monthCache, "calcPriceMonth");
+    }
+
+    /**
+     * 종목(또는 지수)의 월별 시계열, from/to(월 기준일, 포함)가 없으면 전체 기간
+     */
+    public CachedRows series(CalcPriceChangedEvent.Kind kind, int instrumentId, LocalDate from, LocalDate to) {
+        CachedRows cached = seriesCache.get(new SeriesKey(kind, instrumentId));
+        if (from == null && to == null) {
+            return cached;
+        }
+        List<MonthlyReturn> rows = cached.rows().stream()
+                .filter(row -> from == null || !row.baseDate().isBefore(from))
+                .filter(row -> to == null || !row.baseDate().isAfter(to))
+                .toList();
+        return new CachedRows(rows, cached.eTag() + "-" + from + "-" + to, cached.lastModified());
+    }
+
+    /**
+     * month 월의 전체 종목(또는 지수) 단면
+     */
+    public CachedRows month(CalcPriceChangedEvent.Kind kind, YearMonth month) {
+        return monthCache.get(new MonthKey(kind, month));
+    }
+
+    /**
+     * 청크 커밋 후 바뀐 종목 시계열과 월 단면을 캐시에서 비움 (트랜잭션 밖에서 발행되면 즉시 처리)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalcPriceChanged(CalcPriceChangedEvent event) {
+        long now = truncateToSeconds(System.currentTimeMillis());
+        for (Integer instrumentId : event.instrumentIds()) {
+            SeriesKey key = new SeriesKey(event.kind(), instrumentId);
+            modifiedAt.put(key, now);
+            seriesCache.invalidate(key);
+        }
+        for (YearMonth month : event.months()) {
+            MonthKey key = new MonthKey(event.kind(), month);
+            modifiedAt.put(key, now);
+            monthCache.invalidate(key);
+        }
+        log.debug("calc price cache invalidated kind={} instruments={} months={}",
+                event.kind(), event.instrumentIds().size(), event.months());
+    }
+
+    private CachedRows loadSeries(SeriesKey key) {
+        String sql = key.kind() == CalcPriceChangedEvent.Kind.STOCK ? STOCK_SERIES_SQL : INDEX_SERIES_SQL;
+        return cached(key, jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs), key.instrumentId()));
+    }
+
+    private CachedRows loadMonth(MonthKey key) {
+        String sql = key.kind() == CalcPriceChangedEvent.Kind.STOCK ? STOCK_MONTH_SQL : INDEX_MONTH_SQL;
+        return cached(key, jdbcTemplate.query(sql, (rs, rowNum) -> mapRow(rs), key.month().atDay(1)));
+    }
+
+    private CachedRows cached(Object key, List<MonthlyReturn> rows) {
+        return new CachedRows(List.copyOf(rows), eTag(rows), modifiedAt.getOrDefault(key, startedAt));
+    }
+
+    private static MonthlyReturn mapRow(ResultSet rs) throws SQLException {
+        return new MonthlyReturn(
+                rs.getInt(1),
+                rs.getObject("base_date", LocalDate.class),
+                rs.getFloat("price"),
+                rs.getFloat("monthly_ror"),
+                rs.getInt("trading_days")
+        );
+    }
+
+    private static String eTag(List<MonthlyReturn> rows) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(24);
+        for (MonthlyReturn row : rows) {
+            buffer.clear();
+            buffer.putInt(row.instrumentId())
+                    .putLong(row.baseDate().toEpochDay())
+                    .putFloat(row.price())
+                    .putFloat(row.monthlyRor())
+                    .putInt(row.tradingDays());
+            buffer.flip();
+            crc.update(buffer);
+        }
+        return Long.toHexString(crc.getValue()) + "-" + rows.size();
+    }
+
+    // HTTP 날짜는 초 단위라 If-Modified-Since 비교가 맞도록 밀리초를 버립니다.
+    private static long truncateToSeconds(long millis) {
+        return millis / 1000 * 1000;
+    }
+}
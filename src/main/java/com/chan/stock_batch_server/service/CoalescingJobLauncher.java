@@ -0,0 +1,180 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 월별 결과(calc_stock_price, calc_index_price)를 계산하는 Job 요청을 (구분, 월) 단위로 합치는 실행기
+ * 요청 기간 중 이미 실행 중인 월은 그 실행의 완료를 함께 기다리고, 나머지 월만 연속 구간마다 새로 실행합니다.
+ * 단일 월·파티션·기간 Job은 같은 (구분, 월)의 결과를 쓰므로 같은 키로 취급합니다.
+ * 키는 실행이 끝나면(성공·실패 모두) 바로 풀리므로, 끝난 뒤의 재요청은 다시 실행됩니다.
+ */
+@Slf4j
+@Service
+public class CoalescingJobLauncher {
+
+    /**
+     * from~to(포함) 구간의 결과를 계산하는 Job을 실행하고 완료 시 끝나는 future를 반환
+     * 동기 실행이면 완료된 future를 반환하면 됩니다.
+     */
+    @FunctionalInterface
+    public interface RangeLauncher {
+        CompletableFuture<List<JobExecution>> launch(YearMonth from, YearMonth to) throws Exception;
+    }
+
+    private record MonthKey(CalcPriceChangedEvent.Kind kind, YearMonth month) {
+    }
+
+    // 실행 중인 (구분, 월)과 그 월을 계산하는 실행의 완료 future, this로 보호합니다.
+    private final Map<MonthKey, CompletableFuture<List<JobExecution>>> inFlight = new HashMap<>();
+
+    /**
+     * from~to(포함) 기간을 계산, 반환된 future는 새로 실행한 Job과 합류한 실행이 모두 끝나면 중복 없는 JobExecution 목록으로 완료됩니다.
+     * launcher가 던진 RuntimeException(TaskRejectedException 등)은 아직 실행하지 못한 월의 키를 풀고 그대로 던집니다.
+     */
+    public CompletableFuture<List<JobExecution>> run(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to,
+                                                     RangeLauncher launcher) {
+        Set<CompletableFuture<List<JobExecution>>> waitFor = new LinkedHashSet<>();
+        Map<YearMonth, YearMonth> runs = new LinkedHashMap<>();
+        Map<YearMonth, CompletableFuture<List<JobExecution>>> promises = new LinkedHashMap<>();
+        int attached = 0;
+
+        synchronized (this) {
+            YearMonth runStart = null;
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                CompletableFuture<List<JobExecution>> running = inFlight.get(new MonthKey(kind, month));
+                if (running != null) {
+                    waitFor.add(running);
+                    attached++;
+                    runStart = null;
+                    continue;
+                }
+                if (runStart == null) {
+                    runStart = month;
+                    promises.put(runStart, new CompletableFuture<>());
+                }
+                runs.put(runStart, month);
+                inFlight.put(new MonthKey(kind, month), promises.get(runStart));
+            }
+        }
+        if (attached > 0) {
+            log.info("coalesced {} {}~{}: {} months attached to running executions, {} new runs",
+                    kind, from, to, attached, runs.size());
+        }
+
+        List<Map.Entry<YearMonth, YearMonth>> pending = new ArrayList<>(runs.entrySet());
+        for (int i = 0; i < pending.size(); i++) {
+            YearMonth runFrom = pending.get(i).getKey();
+            YearMonth runTo = pending.get(i).getValue();
+            CompletableFuture<List<JobExecution>> promise = promises.get(runFrom);
+            waitFor.add(promise);
+            try {
+                launcher.launch(runFrom, runTo).whenComplete((executions, error) -> {
+                    release(kind, runFrom, runTo, promise);
+                    if (error != null) {
+                        promise.completeExceptionally(error);
+                    } else {
+                        promise.complete(executions);
+                    }
+                });
+            } catch (Exception e) {
+                // 실행하지 못한 구간의 키를 풀고, 이미 합류한 다른 요청도 같은 예외로 끝냅니다.
+                for (int j = i; j < pending.size(); j++) {
+                    CompletableFuture<List<JobExecution>> unlaunched = promises.get(pending.get(j).getKey());
+                    release(kind, pending.get(j).getKey(), pending.get(j).getValue(), unlaunched);
+                    unlaunched.completeExceptionally(e);
+                }
+                if (e instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        List<CompletableFuture<List<JobExecution>>> futures = new ArrayList<>(waitFor);
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    Map<Long, JobExecution> executions = new LinkedHashMap<>();
+                    for (CompletableFuture<List<JobExecution>> future : futures) {
+                        future.join().forEach(execution -> executions.putIfAbsent(execution.getId(), execution));
+                    }
+                    return List.copyOf(executions.values());
+                });
+    }
+
+    /**
+     * from~to(포함) 기간 전체를 실행 하나로 계산, 재시작처럼 기간을 나눠 실행할 수 없는 경우에 사용합니다.
+     * 기간 중 이미 실행 중인 월이 있으면 합류하지 않고 JobExecutionAlreadyRunningException으로 거절하며,
+     * 이 실행 중에 들어온 다른 요청은 겹치는 월에서 이 실행에 합류합니다.
+     */
+    public CompletableFuture<List<JobExecution>> runWhole(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to,
+                                                          RangeLauncher launcher)
+            throws JobExecutionAlreadyRunningException {
+        CompletableFuture<List<JobExecution>> promise = new CompletableFuture<>();
+        synchronized (this) {
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                if (inFlight.containsKey(new MonthKey(kind, month))) {
+                    throw new JobExecutionAlreadyRunningException(String.format(
+                            "%s %s is being calculated by another execution, retry after it ends", kind, month));
+                }
+            }
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                inFlight.put(new MonthKey(kind, month), promise);
+            }
+        }
+
+        try {
+            launcher.launch(from, to).whenComplete((executions, error) -> {
+                release(kind, from, to, promise);
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(executions);
+                }
+            });
+        } catch (Exception e) {
+            release(kind, from, to, promise);
+            promise.completeExceptionally(e);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            return CompletableFuture.failedFuture(e);
+        }
+        return promise;
+    }
+
+    /**
+     * 동기 호출부에서 결과를 기다림, Job 실행 중 발생한 예외는 원래 예외로 풀어서 던집니다.
+     */
+    public static List<JobExecution> await(CompletableFuture<List<JobExecution>> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized void release(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to,
+                                      CompletableFuture<List<JobExecution>> promise) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            inFlight.remove(new MonthKey(kind, month), promise);
+        }
+    }
+}
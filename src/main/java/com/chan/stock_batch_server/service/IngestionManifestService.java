@@ -0,0 +1,180 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.batch.PriceDateGroup;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 업로드 파일의 내용 기반 적재 목록(ingested_file)과 소스·거래일별 내용 해시(ingested_price_source_date) 관리
+ * 업로드 파일은 복사하면서 SHA-256을 계산해 "{sha256}-{원래 이름}"으로 저장하므로 같은 이름의 다른 파일이 덮어쓰지 않고,
+ * 이미 적재한 파일은 다시 적재하지 않습니다. 그 밖의 파일은 어느 소스에서도 같은 내용으로 적재된 적 없는 거래일만 적재합니다.
+ */
+@Slf4j
+@Service
+public class IngestionManifestService {
+    private static final String FILE_EXISTS_SQL = "SELECT COUNT(*) FROM ingested_file WHERE sha256 = ?";
+
+    private static final String UPSERT_FILE_SQL = """
+            INSERT INTO ingested_file (sha256, file_name, row_count, trading_days, first_date, last_date, ingested_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                file_name    = VALUES(file_name),
+                row_count    = VALUES(row_count),
+                trading_days = VALUES(trading_days),
+                first_date   = VALUES(first_date),
+                last_date    = VALUES(last_date),
+                ingested_at  = VALUES(ingested_at)
+        """;
+
+    private static final String UPSERT_DATE_SQL = """
+            INSERT INTO ingested_price_source_date (kind, base_date, source, content_hash, row_count, ingested_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                content_hash = VALUES(content_hash),
+                row_count    = VALUES(row_count),
+                ingested_at  = VALUES(ingested_at)
+        """;
+
+    /**
+     * 저장된 업로드 파일과 내용 해시, alreadyIngested면 같은 내용이 이미 적재된 파일입니다.
+     */
+    public record StoredUpload(Path path, String originalName, String sha256, boolean alreadyIngested) {
+    }
+
+    /**
+     * 파일 하나의 적재 결과 요약
+     */
+    public record FileCoverage(long rowCount, int tradingDays, LocalDate firstDate, LocalDate lastDate) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IngestionManifestService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * in을 uploadDir에 복사하면서 SHA-256을 계산하고 "{sha256}-{originalName}"으로 옮김
+     */
+    public StoredUpload store(Path uploadDir, String originalName, InputStream in) throws IOException {
+        Files.createDirectories(uploadDir);
+        MessageDigest digest = PriceDateGroup.sha256();
+        Path temp = Files.createTempFile(uploadDir, "upload-", ".part");
+        try (DigestInputStream digesting = new DigestInputStream(in, digest)) {
+            Files.copy(digesting, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        Path target = uploadDir.resolve(sha256 + "-" + originalName);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new StoredUpload(target, originalName, sha256, isIngested(sha256));
+    }
+
+    public boolean isIngested(String sha256) {
+        Integer count = jdbcTemplate.queryForObject(FILE_EXISTS_SQL, Integer.class, sha256);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 업로드 원래 이름과 zip 항목 이름으로 만든 소스 식별자, 내용이 바뀌어도 같은 파일이면 같은 값입니다.
+     */
+    public static String sourceName(StoredUpload upload, String entryName) {
+        return entryName == null ? upload.originalName() : upload.originalName() + "!" + entryName;
+    }
+
+    /**
+     * groups 중 같은 (구분, 거래일)에 같은 내용 해시가 기록된 적 없는 거래일만 반환
+     * 해시는 소스와 관계없이 비교하므로 같은 내용을 다른 이름으로 다시 보낸 파일도 건너뛰고,
+     * 한 거래일이 여러 파일로 나뉘어 오면 파일마다 해시가 달라 각각 적재됩니다.
+     * source는 로그에만 쓰고, 기록은 recordDates가 (구분, 거래일, 소스)별로 남깁니다.
+     */
+    public List<PriceDateGroup> changed(String source, List<PriceDateGroup> groups) {
+        if (groups.isEmpty()) {
+            return groups;
+        }
+        Set<String> kinds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        groups.forEach(group -> {
+            kinds.add(group.kind().name());
+            dates.add(group.baseDate());
+        });
+        // (kind, base_date, source) 유니크 인덱스의 앞 두 컬럼으로 찾습니다.
+        String sql = "SELECT kind, base_date, content_hash FROM ingested_price_source_date "
+                + "WHERE kind IN (" + String.join(", ", Collections.nCopies(kinds.size(), "?")) + ") "
+                + "AND base_date IN (" + String.join(", ", Collections.nCopies(dates.size(), "?")) + ")";
+        List<Object> args = new ArrayList<>(kinds.size() + dates.size());
+        args.addAll(kinds);
+        args.addAll(dates);
+        Map<PriceDateGroup.Key, Set<String>> stored = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            PriceDateGroup.Key key = new PriceDateGroup.Key(CalcPriceChangedEvent.Kind.valueOf(rs.getString(1)),
+                    rs.getObject(2, LocalDate.class));
+            stored.computeIfAbsent(key, k -> new HashSet<>()).add(rs.getString(3));
+        }, args.toArray());
+
+        List<PriceDateGroup> changed = new ArrayList<>(groups.size());
+        for (PriceDateGroup group : groups) {
+            if (!stored.getOrDefault(group.key(), Set.of()).contains(group.contentHash())) {
+                changed.add(group);
+            }
+        }
+        if (changed.size() < groups.size()) {
+            log.info("{}: {} of {} dates already ingested with the same content", source,
+                    groups.size() - changed.size(), groups.size());
+        }
+        return changed;
+    }
+
+    /**
+     * 커밋이 끝난 source의 거래일별 내용 해시를 기록
+     * 시세 커밋과 별도 트랜잭션이라 그 사이에 실패하면 다음 업로드에서 해당 거래일을 다시 적재할 뿐입니다(UPSERT).
+     */
+    public void recordDates(String source, List<PriceDateGroup> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_DATE_SQL, groups, groups.size(), (ps, group) -> {
+            ps.setString(1, group.kind().name());
+            ps.setObject(2, group.baseDate());
+            ps.setString(3, source);
+            ps.setString(4, group.contentHash());
+            ps.setInt(5, group.rowCount());
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    /**
+     * 파일의 모든 소스가 커밋된 뒤 적재 목록에 기록
+     */
+    public void recordFile(StoredUpload upload, FileCoverage coverage) {
+        jdbcTemplate.update(UPSERT_FILE_SQL, upload.sha256(), upload.originalName(), coverage.rowCount(),
+                coverage.tradingDays(), coverage.firstDate(), coverage.lastDate(),
+                Timestamp.valueOf(LocalDateTime.now()));
+        log.info("ingested file {} sha256={} rows={} dates={}~{}", upload.originalName(), upload.sha256(),
+                coverage.rowCount(), coverage.firstDate(), coverage.lastDate());
+    }
+}
@@ -0,0 +1,208 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.converter.DateToStringConverter;
+import org.springframework.batch.core.converter.LocalDateTimeToStringConverter;
+import org.springframework.batch.core.converter.LocalDateToStringConverter;
+import org.springframework.batch.core.converter.LocalTimeToStringConverter;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 기간·파티션 Job을 식별 파라미터(기간, 년월, 파티션 수)가 같은 JobInstance로 이어서 실행하는 서비스
+ * 재시작하면 완료된 Step과 파티션은 건너뛰고, 실패한 Step의 Reader는 ExecutionContext에 저장된 위치부터 다시 읽습니다.
+ * 월별 결과 Job의 재시작은 CoalescingJobLauncher로 같은 (구분, 월)을 계산 중인 실행과 겹치지 않게 합니다.
+ * 롤업 Step이 없는 단일 월·파티션 Job은 재시작이 완료되면 해당 월의 분기·연 결과를 롤업합니다.
+ */
+@Slf4j
+@Service
+public class JobRestartService {
+    /**
+     * 이미 완료된 JobInstance를 다시 계산할 때 더하는 식별 파라미터, 같은 업무 파라미터 안에서 1부터 차례로 붙습니다.
+     */
+    public static final String RERUN = "rerun";
+
+    private static final String LAST_RERUN_SQL = """
+            SELECT MAX(CAST(r.PARAMETER_VALUE AS SIGNED))
+            FROM BATCH_JOB_INSTANCE i
+            JOIN BATCH_JOB_EXECUTION e ON e.JOB_INSTANCE_ID = i.JOB_INSTANCE_ID
+            JOIN BATCH_JOB_EXECUTION_PARAMS r ON r.JOB_EXECUTION_ID = e.JOB_EXECUTION_ID
+             AND r.PARAMETER_NAME = 'rerun' AND r.IDENTIFYING = 'Y'
+            WHERE i.JOB_NAME = ?
+              AND (SELECT COUNT(*) FROM BATCH_JOB_EXECUTION_PARAMS c
+                   WHERE c.JOB_EXECUTION_ID = e.JOB_EXECUTION_ID AND c.IDENTIFYING = 'Y') = ?
+        """;
+
+    private static final String LAST_RERUN_PARAMETER_SQL = """
+              AND EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION_PARAMS p
+                          WHERE p.JOB_EXECUTION_ID = e.JOB_EXECUTION_ID AND p.IDENTIFYING = 'Y'
+                            AND p.PARAMETER_NAME = ? AND p.PARAMETER_TYPE = ? AND p.PARAMETER_VALUE = ?)
+        """;
+
+    /**
+     * JobRepository가 BATCH_JOB_EXECUTION_PARAMS.PARAMETER_VALUE에 쓰는 것과 같은 문자열 변환
+     */
+    private static final DefaultConversionService PARAMETER_VALUES = new DefaultConversionService();
+
+    static {
+        PARAMETER_VALUES.addConverter(new DateToStringConverter());
+        PARAMETER_VALUES.addConverter(new LocalDateToStringConverter());
+        PARAMETER_VALUES.addConverter(new LocalTimeToStringConverter());
+        PARAMETER_VALUES.addConverter(new LocalDateTimeToStringConverter());
+    }
+
+    private record MonthRange(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to, boolean rollup) {
+    }
+
+    private final JobLauncher jobLauncher;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final CoalescingJobLauncher coalescingJobLauncher;
+    private final PeriodRollupService periodRollupService;
+    private final Map<String, Job> jobsByName;
+
+    public JobRestartService(JobLauncher jobLauncher, JobRepository jobRepository, JobExplorer jobExplorer,
+                             JdbcTemplate jdbcTemplate, CoalescingJobLauncher coalescingJobLauncher, PeriodRollupService periodRollupService,
+                             List<Job> jobs) {
+        this.jobLauncher = jobLauncher;
+        this.jobRepository = jobRepository;
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.coalescingJobLauncher = coalescingJobLauncher;
+        this.periodRollupService = periodRollupService;
+        this.jobsByName = jobs.stream().collect(Collectors.toMap(Job::getName, Function.identity()));
+    }
+
+    /**
+     * 같은 업무 파라미터의 가장 최근 JobInstance(가장 큰 rerun, 없으면 rerun 없는 것)를 한 번의 조회로 찾아
+     * 그 마지막 실행이 실패·중단이면 그 파라미터를 반환해 이어서 실행하고,
+     * 완료(또는 포기)됐으면 다음 rerun 번호로 새 JobInstance를 만들어 다시 계산합니다.
+     * 실행 중이면 그 파라미터를 반환하므로 JobLauncher가 JobExecutionAlreadyRunningException으로 거절합니다.
+     */
+    public JobParameters stableParameters(Job job, JobParameters parameters) {
+        Long rerun = lastRerun(job.getName(), parameters);
+        JobParameters latest = rerun == null ? parameters
+                : new JobParametersBuilder(parameters).addLong(RERUN, rerun).toJobParameters();
+        JobExecution last = jobRepository.getLastJobExecution(job.getName(), latest);
+        if (last == null || !isFinished(last)) {
+            return latest;
+        }
+        return new JobParametersBuilder(parameters).addLong(RERUN, rerun == null ? 1 : rerun + 1).toJobParameters();
+    }
+
+    /**
+     * 식별 파라미터가 parameters와 rerun뿐인 jobName의 JobInstance 중 가장 큰 rerun, 없으면 null
+     * 식별 파라미터 수까지 맞춰 업무 파라미터가 더 많은(예: gridSize가 있는) JobInstance와 섞이지 않게 합니다.
+     */
+    private Long lastRerun(String jobName, JobParameters parameters) {
+        Map<String, JobParameter<?>> identifying = parameters.getIdentifyingParameters();
+        StringBuilder sql = new StringBuilder(LAST_RERUN_SQL);
+        List<Object> args = new ArrayList<>(2 + identifying.size() * 3);
+        args.add(jobName);
+        args.add(identifying.size() + 1);
+        identifying.forEach((name, parameter) -> {
+            sql.append(LAST_RERUN_PARAMETER_SQL);
+            args.add(name);
+            args.add(parameter.getType().getName());
+            args.add(PARAMETER_VALUES.convert(parameter.getValue(), String.class));
+        });
+        return jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+    }
+
+    /**
+     * 실패·중단된 JobExecution을 같은 JobParameters로 재시작
+     * 해당 JobInstance의 마지막 실행만 재시작할 수 있습니다.
+     */
+    public JobExecution restart(long executionId) throws Exception {
+        JobExecution previous = jobExplorer.getJobExecution(executionId);
+        if (previous == null) {
+            throw new NoSuchJobExecutionException("No JobExecution found with id " + executionId);
+        }
+
+        String jobName = previous.getJobInstance().getJobName();
+        Job job = jobsByName.get(jobName);
+        if (job == null || !job.isRestartable()) {
+            throw new JobRestartException("Job " + jobName + " is not restartable");
+        }
+        if (previous.getStatus() != BatchStatus.FAILED && previous.getStatus() != BatchStatus.STOPPED) {
+            throw new JobRestartException(String.format(
+                    "JobExecution %d is %s, only FAILED or STOPPED executions can be restarted",
+                    executionId, previous.getStatus()));
+        }
+        JobExecution last = jobRepository.getLastJobExecution(jobName, previous.getJobParameters());
+        if (last != null && !last.getId().equals(previous.getId())) {
+            throw new JobRestartException(String.format(
+                    "JobExecution %d was already restarted as execution %d", executionId, last.getId()));
+        }
+
+        JobParameters parameters = previous.getJobParameters();
+        MonthRange range = monthRange(jobName, parameters);
+        log.info("restarting {} execution {} with {}", jobName, executionId, parameters);
+        if (range == null) {
+            return jobLauncher.run(job, parameters);
+        }
+        // 재시작은 같은 JobInstance 하나로 기간 전체를 실행해야 하므로 나누지 않고 통째로 선점합니다.
+        List<JobExecution> executions = CoalescingJobLauncher.await(coalescingJobLauncher.runWhole(range.kind(),
+                range.from(), range.to(),
+                (from, to) -> CompletableFuture.completedFuture(List.of(jobLauncher.run(job, parameters)))));
+        if (range.rollup()) {
+            periodRollupService.rollupAfter(range.kind(), range.from(), range.to(), executions);
+        }
+        return executions.get(0);
+    }
+
+    private static boolean isFinished(JobExecution execution) {
+        return execution.getStatus() == BatchStatus.COMPLETED || execution.getStatus() == BatchStatus.ABANDONED;
+    }
+
+    /**
+     * 월별 결과 Job(calcStock*, calcIndex*)이 계산하는 (구분, 기간), 증분 Job 등 그 밖의 Job은 null
+     * 기간 Job은 startDate~endDate, 단일 월·파티션 Job은 year, month 파라미터에서 구하고, 롤업 Step이 없는 뒤쪽만 rollup입니다.
+     */
+    private static MonthRange monthRange(String jobName, JobParameters parameters) {
+        CalcPriceChangedEvent.Kind kind;
+        if (jobName.startsWith("calcStock")) {
+            kind = CalcPriceChangedEvent.Kind.STOCK;
+        } else if (jobName.startsWith("calcIndex")) {
+            kind = CalcPriceChangedEvent.Kind.INDEX;
+        } else {
+            return null;
+        }
+
+        LocalDate startDate = parameters.getLocalDate("startDate");
+        LocalDate endDate = parameters.getLocalDate("endDate");
+        if (startDate != null && endDate != null) {
+            return new MonthRange(kind, YearMonth.from(startDate), YearMonth.from(endDate), false);
+        }
+        Long year = parameters.getLong("year");
+        Long month = parameters.getLong("month");
+        if (year != null && month != null) {
+            YearMonth yearMonth = YearMonth.of(year.intValue(), month.intValue());
+            return new MonthRange(kind, yearMonth, yearMonth, true);
+        }
+        return null;
+    }
+}
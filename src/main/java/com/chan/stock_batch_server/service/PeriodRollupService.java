@@ -0,0 +1,53 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 롤업 Step이 없는 월별 결과 Job(단일 월, 파티션)이 끝난 뒤 분기·연 결과를 한 번만 다시 계산하는 서비스
+ * 월 Job마다 롤업하면 같은 연도 행을 여러 Job이 동시에 INSERT ... SELECT 하므로, 합쳐진 실행이 모두 끝난 뒤 한 번만 실행합니다.
+ */
+@Slf4j
+@Service
+public class PeriodRollupService {
+    private final JobLauncher jobLauncher;
+    private final Job rollupStockPriceJob;
+    private final Job rollupIndexPriceJob;
+
+    public PeriodRollupService(JobLauncher jobLauncher,
+                               @Qualifier("rollupStockPriceJob") Job rollupStockPriceJob,
+                               @Qualifier("rollupIndexPriceJob") Job rollupIndexPriceJob) {
+        this.jobLauncher = jobLauncher;
+        this.rollupStockPriceJob = rollupStockPriceJob;
+        this.rollupIndexPriceJob = rollupIndexPriceJob;
+    }
+
+    /**
+     * from~to가 걸친 분기·연 결과를 롤업, executions 중 완료되지 않은 실행이 있으면 롤업하지 않고 null 반환
+     * 실패한 월은 재시작이 끝난 뒤 다시 호출되어 롤업됩니다.
+     */
+    public JobExecution rollupAfter(CalcPriceChangedEvent.Kind kind, YearMonth from, YearMonth to,
+                                    List<JobExecution> executions) throws Exception {
+        if (executions.isEmpty()
+                || executions.stream().anyMatch(execution -> execution.getStatus() != BatchStatus.COMPLETED)) {
+            log.info("skipping {} rollup for {} → {}: not every monthly execution completed", kind, from, to);
+            return null;
+        }
+        Job job = kind == CalcPriceChangedEvent.Kind.STOCK ? rollupStockPriceJob : rollupIndexPriceJob;
+        return jobLauncher.run(job, new JobParametersBuilder()
+                .addLocalDate("startDate", from.atDay(1))
+                .addLocalDate("endDate", to.atEndOfMonth())
+                .addLong("timestamp", System.currentTimeMillis())
+                .toJobParameters());
+    }
+}
@@ -0,0 +1,344 @@
+package com.chan.stock_batch_server.service;
+
+import com.chan.stock_batch_server.batch.DailyPriceJdbcWriter;
+import com.chan.stock_batch_server.batch.InstrumentLookupCache;
+import com.chan.stock_batch_server.batch.JsonPriceItemReader;
+import com.chan.stock_batch_server.batch.PriceDateGroup;
+import com.chan.stock_batch_server.batch.PriceFileSource;
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+import com.chan.stock_batch_server.dto.IngestionStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드된 시세 파일을 요청 스레드 밖에서 적재하는 파이프라인
+ * 1) 파일(.json, .json.gz, zip 안의 항목)마다 첫 basDt만 읽어 거래일 순으로 정렬
+ * 2) 파싱 스레드가 파일을 스트리밍하며 거래일별 내용 해시만 계산(레코드는 남기지 않으므로 parse-threads 개 파일까지 앞서 수행)
+ * 3) 커밋은 전용 스레드 하나가 거래일 순서대로, 해시가 바뀐 거래일의 레코드만 파일을 다시 스트리밍하여 chunk-size 건씩 수행
+ * 4) 파싱 스레드가 읽어 두고 아직 커밋되지 않은 레코드는 max-in-flight-records 건까지만 두어,
+ *    Writer가 밀리면 파싱도 멈춥니다(back-pressure). 파일 크기와 관계없이 메모리 사용량이 일정합니다.
+ * 한 파일이라도 실패하면 그 이후 거래일은 커밋하지 않고 FAILED로 끝나며, 이미 커밋된 거래일은 남습니다.
+ * 커밋 스레드가 하나라 적재 요청끼리도 접수 순서대로 실행되며, 대기 중인 요청 수는 queue-capacity로 제한합니다.
+ * 거래일별 내용 해시가 마지막 적재와 같은 거래일은 커밋하지 않고, 모든 소스가 커밋된 파일은 적재 목록에 기록합니다(IngestionManifestService).
+ */
+@Slf4j
+@Service
+public class PriceIngestionService {
+    private static final int MAX_TRACKED = 200;
+    // 파일의 마지막 청크 뒤에 넣는 표식, 참조 비교로만 확인합니다.
+    private static final List<DailyPriceRecord> END_OF_SOURCE = new ArrayList<>(0);
+
+    private final ObjectMapper objectMapper;
+    private final DailyPriceJdbcWriter dailyPriceJdbcWriter;
+    private final InstrumentLookupCache instrumentLookupCache;
+    private final IngestionManifestService ingestionManifestService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int queuedChunks;
+    private final int scanAhead;
+    private final ExecutorService parseExecutor;
+    private final ThreadPoolExecutor commitExecutor;
+    // 최근 적재 요청 상태, 끝난 요청부터 MAX_TRACKED 개를 넘으면 지웁니다.
+    private final Map<String, Ingestion> ingestions = new LinkedHashMap<>();
+
+    public PriceIngestionService(
+            ObjectMapper objectMapper,
+            DailyPriceJdbcWriter dailyPriceJdbcWriter,
+            InstrumentLookupCache instrumentLookupCache,
+            IngestionManifestService ingestionManifestService,
+            PlatformTransactionManager txMgr,
+            @Value("${batch.import.chunk-size:5000}") int chunkSize,
+            @Value("${batch.ingest.parse-threads:0}") int parseThreads,
+            @Value("${batch.ingest.max-in-flight-records:20000}") int maxInFlightRecords,
+            @Value("${batch.ingest.queue-capacity:16}") int queueCapacity
+    ) {
+        this.objectMapper = objectMapper;
+        this.dailyPriceJdbcWriter = dailyPriceJdbcWriter;
+        this.instrumentLookupCache = instrumentLookupCache;
+        this.ingestionManifestService = ingestionManifestService;
+        this.transactionTemplate = new TransactionTemplate(txMgr);
+        this.chunkSize = chunkSize;
+        this.queuedChunks = Math.max(maxInFlightRecords / Math.max(chunkSize, 1), 1);
+        int threads = parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+        this.scanAhead = threads;
+        this.parseExecutor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("ingest-parse-", 0).factory());
+        this.commitExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("ingest-commit-", 0).factory());
+    }
+
+    /**
+     * 저장된 업로드 파일들을 적재 대기열에 넣고 즉시 상태를 반환
+     * 대기열이 가득 차면 TaskRejectedException으로 거절합니다.
+     */
+    public IngestionStatus submit(List<IngestionManifestService.StoredUpload> files, List<String> skipped) {
+        Ingestion ingestion = new Ingestion(UUID.randomUUID().toString(), files, List.copyOf(skipped));
+        try {
+            commitExecutor.execute(() -> run(ingestion));
+        } catch (RejectedExecutionException e) {
+            throw new TaskRejectedException(String.format("Ingestion queue is full (%d waiting)",
+                    commitExecutor.getQueue().size()), e);
+        }
+        synchronized (ingestions) {
+            ingestions.put(ingestion.id, ingestion);
+            ingestions.values().removeIf(tracked -> ingestions.size() > MAX_TRACKED && tracked.finishedAt != null);
+        }
+        return ingestion.snapshot();
+    }
+
+    public IngestionStatus status(String id) {
+        synchronized (ingestions) {
+            Ingestion ingestion = ingestions.get(id);
+            return ingestion == null ? null : ingestion.snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        commitExecutor.shutdownNow();
+        parseExecutor.shutdownNow();
+    }
+
+    private void run(Ingestion ingestion) {
+        ingestion.state = IngestionStatus.State.RUNNING;
+        long started = System.currentTimeMillis();
+        // 캐시 통계는 기동 이후 누적이므로 이번 적재 구간만 보도록 시작 시점 값을 뺍니다.
+        InstrumentLookupCache.Stats statsAtStart = instrumentLookupCache.stats();
+        Deque<CompletableFuture<List<PriceDateGroup>>> scanning = new ArrayDeque<>();
+        try {
+            List<DatedSource> sources = plan(ingestion);
+            ingestion.totalFiles.set(sources.size());
+            instrumentLookupCache.refresh();
+
+            int next = 0;
+            for (DatedSource committing : sources) {
+                // 거래일별 해시만 남으므로 커밋할 파일보다 파싱 스레드 수만큼 앞서 스캔합니다.
+                while (next < sources.size() && scanning.size() < scanAhead) {
+                    PriceFileSource source = sources.get(next++).source();
+                    scanning.addLast(CompletableFuture.supplyAsync(() -> scan(source), parseExecutor));
+                }
+                List<PriceDateGroup> groups = scanning.removeFirst().get();
+                String sourceName = IngestionManifestService.sourceName(committing.upload().stored,
+                        committing.source().entryName());
+                List<PriceDateGroup> changed = ingestionManifestService.changed(sourceName, groups);
+                long written = changed.isEmpty() ? 0 : commit(committing.source(), changed);
+                ingestionManifestService.recordDates(sourceName, changed);
+                ingestion.records.addAndGet(written);
+                ingestion.unchangedDates.addAndGet(groups.size() - changed.size());
+                ingestion.committedFiles.incrementAndGet();
+                ingestion.lastCommittedDate = committing.baseDate();
+                UploadProgress upload = committing.upload();
+                upload.committed(groups);
+                if (upload.remaining == 0) {
+                    ingestionManifestService.recordFile(upload.stored, upload.coverage());
+                }
+            }
+            ingestion.state = IngestionStatus.State.COMPLETED;
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("ingestion {} failed after {} files", ingestion.id, ingestion.committedFiles.get(), cause);
+            scanning.forEach(future -> future.cancel(true));
+            ingestion.error = cause.getMessage();
+            ingestion.state = IngestionStatus.State.FAILED;
+        } finally {
+            ingestion.finishedAt = Instant.now();
+        }
+
+        InstrumentLookupCache.Stats stats = instrumentLookupCache.stats().since(statsAtStart);
+        log.info("ingestion {} {} files={}/{} records={} unchangedDates={} elapsed={}ms instrument cache hitRate={}",
+                ingestion.id, ingestion.state, ingestion.committedFiles.get(), ingestion.totalFiles.get(),
+                ingestion.records.get(), ingestion.unchangedDates.get(), System.currentTimeMillis() - started,
+                String.format("%.4f", stats.hitRate()));
+    }
+
+    /**
+     * 업로드 파일을 소스로 펼치고 첫 basDt 기준으로 정렬, 레코드가 없는 파일은 맨 뒤로 보냅니다.
+     */
+    private List<DatedSource> plan(Ingestion ingestion) throws Exception {
+        List<DatedSource> sources = new ArrayList<>();
+        for (IngestionManifestService.StoredUpload file : ingestion.files) {
+            UploadProgress upload = new UploadProgress(file);
+            for (PriceFileSource source : PriceFileSource.expand(file.path())) {
+                sources.add(new DatedSource(JsonPriceItemReader.peekBaseDate(objectMapper, source), source, upload));
+                upload.remaining++;
+            }
+            if (upload.remaining == 0) {
+                // 시세 JSON이 하나도 없는 zip도 다시 업로드되면 건너뛰도록 기록합니다.
+                ingestionManifestService.recordFile(file, upload.coverage());
+            }
+        }
+        sources.sort(Comparator.comparing(DatedSource::baseDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(dated -> dated.source().name()));
+        return sources;
+    }
+
+    /**
+     * source를 스트리밍하며 거래일별 레코드 수와 내용 해시만 계산
+     */
+    private List<PriceDateGroup> scan(PriceFileSource source) {
+        PriceDateGroup.Digester digester = new PriceDateGroup.Digester();
+        read(source, digester::add);
+        return digester.groups();
+    }
+
+    /**
+     * source를 파싱 스레드에서 다시 스트리밍하며 changed 거래일의 레코드만 chunk-size 건씩 커밋
+     * importPriceStep과 같은 청크 크기와 Writer로 청크마다 트랜잭션을 나누며,
+     * 읽어 둔 청크는 queuedChunks 개까지만 대기하므로 메모리에 있는 레코드는 (queuedChunks + 2) × chunk-size 건 이하입니다.
+     */
+    private long commit(PriceFileSource source, List<PriceDateGroup> changed) throws Exception {
+        Set<PriceDateGroup.Key> keys = new HashSet<>();
+        changed.forEach(group -> keys.add(group.key()));
+        BlockingQueue<List<DailyPriceRecord>> chunks = new ArrayBlockingQueue<>(queuedChunks);
+        Future<?> reading = parseExecutor.submit(() -> {
+            List<DailyPriceRecord> pending = new ArrayList<>(chunkSize);
+            read(source, record -> {
+                if (!keys.contains(PriceDateGroup.Key.of(record))) {
+                    return;
+                }
+                pending.add(record);
+                if (pending.size() == chunkSize) {
+                    chunks.put(new ArrayList<>(pending));
+                    pending.clear();
+                }
+            });
+            if (!pending.isEmpty()) {
+                chunks.put(pending);
+            }
+            chunks.put(END_OF_SOURCE);
+            return null;
+        });
+
+        long written = 0;
+        try {
+            while (true) {
+                List<DailyPriceRecord> records = chunks.poll(1, TimeUnit.SECONDS);
+                if (records == null) {
+                    if (reading.isDone()) {
+                        // 파싱이 실패했으면 ExecutionException으로 던집니다.
+                        reading.get();
+                    }
+                    continue;
+                }
+                if (records == END_OF_SOURCE) {
+                    return written;
+                }
+                Chunk<DailyPriceRecord> chunk = new Chunk<>(records);
+                transactionTemplate.executeWithoutResult(status -> dailyPriceJdbcWriter.write(chunk));
+                written += records.size();
+            }
+        } finally {
+            // 커밋이 실패하면 대기열이 비지 않아 멈춰 있는 파싱 스레드를 깨워 끝냅니다.
+            reading.cancel(true);
+        }
+    }
+
+    private void read(PriceFileSource source, RecordSink sink) {
+        JsonPriceItemReader reader = new JsonPriceItemReader(objectMapper, source);
+        try {
+            reader.open(new ExecutionContext());
+            DailyPriceRecord record;
+            while ((record = reader.read()) != null) {
+                sink.accept(record);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("failed to parse " + source.name() + ": " + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordSink {
+        void accept(DailyPriceRecord record) throws InterruptedException;
+    }
+
+    private record DatedSource(LocalDate baseDate, PriceFileSource source, UploadProgress upload) {
+    }
+
+    /**
+     * 업로드 파일 하나의 남은 소스 수와 지금까지 커밋된 범위, 커밋 스레드에서만 접근합니다.
+     */
+    private static final class UploadProgress {
+        private final IngestionManifestService.StoredUpload stored;
+        private final Set<LocalDate> dates = new HashSet<>();
+        private int remaining;
+        private long rows;
+
+        private UploadProgress(IngestionManifestService.StoredUpload stored) {
+            this.stored = stored;
+        }
+
+        private void committed(List<PriceDateGroup> groups) {
+            remaining--;
+            for (PriceDateGroup group : groups) {
+                dates.add(group.baseDate());
+                rows += group.rowCount();
+            }
+        }
+
+        private IngestionManifestService.FileCoverage coverage() {
+            return new IngestionManifestService.FileCoverage(rows, dates.size(),
+                    dates.stream().min(LocalDate::compareTo).orElse(null),
+                    dates.stream().max(LocalDate::compareTo).orElse(null));
+        }
+    }
+
+    private static final class Ingestion {
+        private final String id;
+        private final List<IngestionManifestService.StoredUpload> files;
+        private final List<String> skipped;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger totalFiles = new AtomicInteger();
+        private final AtomicInteger committedFiles = new AtomicInteger();
+        private final AtomicLong records = new AtomicLong();
+        private final AtomicInteger unchangedDates = new AtomicInteger();
+        private volatile IngestionStatus.State state = IngestionStatus.State.QUEUED;
+        private volatile LocalDate lastCommittedDate;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Ingestion(String id, List<IngestionManifestService.StoredUpload> files, List<String> skipped) {
+            this.id = id;
+            this.files = files;
+            this.skipped = skipped;
+        }
+
+        private IngestionStatus snapshot() {
+            return new IngestionStatus(id, state, totalFiles.get(), committedFiles.get(), records.get(),
+                    unchangedDates.get(), lastCommittedDate, skipped, error, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnarBlockWriterTests {
+
+	@Test
+	void writesRowsInColumnBlocksWithEndMarker() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		int rows = ColumnarBlockWriter.BLOCK_ROWS + 2;
+		try (ColumnarBlockWriter writer = new ColumnarBlockWriter(bytes, 0)) {
+			for (int i = 0; i < rows; i++) {
+				writer.write(i, LocalDate.of(2024, 1, 1).plusMonths(i % 12), i * 10f, 0.01f, 20);
+			}
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		assertThat(in.readInt()).isEqualTo(ColumnarBlockWriter.MAGIC);
+		assertThat(in.readShort()).isEqualTo(ColumnarBlockWriter.VERSION);
+		assertThat(in.readByte()).isZero();
+
+		assertThat(in.readInt()).isEqualTo(ColumnarBlockWriter.BLOCK_ROWS);
+		assertThat(in.readInt()).isZero();
+		in.skipNBytes((ColumnarBlockWriter.BLOCK_ROWS - 1) * 4L);
+		assertThat(in.readInt()).isEqualTo((int)LocalDate.of(2024, 1, 1).toEpochDay());
+		in.skipNBytes((ColumnarBlockWriter.BLOCK_ROWS - 1) * 4L + ColumnarBlockWriter.BLOCK_ROWS * 12L);
+
+		assertThat(in.readInt()).isEqualTo(2);
+		assertThat(in.readInt()).isEqualTo(ColumnarBlockWriter.BLOCK_ROWS);
+		in.skipNBytes(4 + 2 * 4 * 4);
+		assertThat(in.readInt()).isZero();
+		assertThat(in.available()).isZero();
+	}
+}
@@ -0,0 +1,51 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DailyPriceSegmentTests {
+
+	@Test
+	void aggregateMonthUsesFirstLastAndAverageClose() {
+		DailyPriceSegment.Builder builder = new DailyPriceSegment.Builder(2024, 0);
+		builder.add(1, 10, LocalDate.of(2024, 1, 31), 90, 0, 0, 0, 0);
+		builder.add(2, 10, LocalDate.of(2024, 2, 1), 100, 0, 0, 0, 0);
+		builder.add(3, 10, LocalDate.of(2024, 2, 29), 110, 0, 0, 0, 0);
+		builder.add(4, 20, LocalDate.of(2024, 2, 15), 50, 0, 0, 0, 0);
+
+		List<double[]> result = aggregate(builder.build(), YearMonth.of(2024, 2));
+
+		assertThat(result).hasSize(2);
+		assertThat(result.get(0)).containsExactly(10, 100, 110, 105, 2);
+		assertThat(result.get(1)).containsExactly(20, 50, 50, 50, 1);
+	}
+
+	@Test
+	void mergePrefersAddedRowsForSameDay() {
+		DailyPriceSegment.Builder base = new DailyPriceSegment.Builder(2024, 0);
+		base.add(1, 10, LocalDate.of(2024, 3, 4), 100, 0, 0, 0, 0);
+		base.add(2, 10, LocalDate.of(2024, 3, 5), 100, 0, 0, 0, 0);
+		DailyPriceSegment.Builder added = new DailyPriceSegment.Builder(2024, 0);
+		added.add(7, 10, LocalDate.of(2024, 3, 5), 120, 0, 0, 0, 0);
+		added.add(8, 30, LocalDate.of(2024, 3, 5), 10, 0, 0, 0, 0);
+
+		DailyPriceSegment merged = base.build().merge(added.build());
+
+		assertThat(merged.rowCount()).isEqualTo(3);
+		assertThat(merged.maxId).isEqualTo(8);
+		assertThat(aggregate(merged, YearMonth.of(2024, 3)).get(0)).containsExactly(10, 100, 120, 110, 2);
+	}
+
+	private static List<double[]> aggregate(DailyPriceSegment segment, YearMonth month) {
+		List<double[]> result = new ArrayList<>();
+		segment.aggregateMonth(month, 0, Integer.MAX_VALUE,
+				(id, m, start, end, average, days) -> new double[] { id, start, end, average, days }, result);
+		return result;
+	}
+}
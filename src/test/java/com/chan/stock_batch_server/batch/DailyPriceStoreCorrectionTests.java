@@ -0,0 +1,108 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+
+/**
+ * 이미 적재된 일자의 시세를 UPSERT로 고치면 store Reader가 재시작 없이 고친 값으로 집계하고,
+ * 새 일자 INSERT는 적재된 연도를 내리지 않고 refresh()로 병합되는지 확인
+ */
+@SpringBootTest
+class DailyPriceStoreCorrectionTests {
+	private static final YearMonth MONTH = YearMonth.of(1990, 3);
+	private static final String ISIN = "KRTEST" + String.format("%06d", System.nanoTime() % 1_000_000);
+
+	@Autowired
+	private DailyPriceJdbcWriter dailyPriceJdbcWriter;
+
+	@Autowired
+	private DailyPriceStore dailyPriceStore;
+
+	@Autowired
+	private InstrumentLookupCache instrumentLookupCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager txMgr;
+
+	@AfterEach
+	void cleanUp() {
+		int stockId = instrumentLookupCache.stockIdByIsinCode(ISIN);
+		jdbcTemplate.update("DELETE FROM stock_price_correction WHERE stock_id = ?", stockId);
+		jdbcTemplate.update("DELETE FROM dirty_stock_month WHERE stock_id = ?", stockId);
+		jdbcTemplate.update("DELETE FROM stock_price WHERE stock_id = ?", stockId);
+		jdbcTemplate.update("DELETE FROM stock WHERE id = ?", stockId);
+		dailyPriceStore.invalidate(MONTH.getYear());
+	}
+
+	@Test
+	void upsertCorrectionChangesStoreReaderOutput() {
+		write(record("19900302", 100f), record("19900305", 110f));
+		int stockId = instrumentLookupCache.stockIdByIsinCode(ISIN);
+		assertThat(endPrice(stockId)).isEqualTo(110);
+
+		write(record("19900305", 120f));
+
+		assertThat(jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM stock_price_correction WHERE stock_id = ?", Integer.class, stockId)).isEqualTo(1);
+		assertThat(endPrice(stockId)).isEqualTo(120);
+	}
+
+	@Test
+	void plainInsertKeepsLoadedYearAndIsMergedByRefresh() {
+		write(record("19900302", 100f));
+		int stockId = instrumentLookupCache.stockIdByIsinCode(ISIN);
+		assertThat(endPrice(stockId)).isEqualTo(100);
+		long loadedBytes = dailyPriceStore.usedBytes();
+
+		write(record("19900306", 130f));
+
+		assertThat(dailyPriceStore.usedBytes()).isEqualTo(loadedBytes);
+		dailyPriceStore.refresh();
+		assertThat(endPrice(stockId)).isEqualTo(130);
+	}
+
+	private void write(DailyPriceRecord... records) {
+		new TransactionTemplate(txMgr).executeWithoutResult(
+			status -> dailyPriceJdbcWriter.write(new Chunk<>(List.of(records))));
+	}
+
+	private double endPrice(int stockId) {
+		List<Double> result = dailyPriceStore.aggregateMonth(MONTH, stockId, stockId,
+			(id, month, start, end, average, days) -> end);
+		assertThat(result).hasSize(1);
+		return result.get(0);
+	}
+
+	private static DailyPriceRecord record(String basDt, float close) {
+		DailyPriceRecord record = new DailyPriceRecord();
+		record.setBasDt(basDt);
+		record.setIsinCd(ISIN);
+		record.setSrtnCd(ISIN.substring(6));
+		record.setItmsNm("테스트종목");
+		record.setMrktCtg("KOSPI");
+		record.setClpr(close);
+		record.setMkp(close);
+		record.setHipr(close);
+		record.setLopr(close);
+		record.setTrqu(1000);
+		record.setTrPrc(100_000L);
+		record.setLstgStCnt(1_000_000L);
+		return record;
+	}
+}
@@ -0,0 +1,53 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+import com.chan.stock_batch_server.dto.BackfillPlan;
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+
+class MonthCoverageTests {
+
+	@Test
+	void plansOnlyMissingAndStaleMonthsAsContiguousRanges() {
+		MonthCoverage coverage = new MonthCoverage(CalcPriceChangedEvent.Kind.STOCK);
+		for (YearMonth month = YearMonth.of(2020, 1); !month.isAfter(YearMonth.of(2020, 12)); month = month.plusMonths(1)) {
+			coverage.markDaily(1, month);
+			coverage.markDaily(2, month);
+			coverage.markCalculated(1, month);
+			if (month.getMonthValue() != 3 && month.getMonthValue() != 4) {
+				coverage.markCalculated(2, month);
+			}
+		}
+		// 계산 이후 9월 일별 시세가 바뀜
+		coverage.markDaily(1, YearMonth.of(2020, 9));
+
+		BackfillPlan plan = coverage.plan(YearMonth.of(2020, 1), YearMonth.of(2020, 12));
+
+		assertThat(plan.instruments()).isEqualTo(2);
+		assertThat(plan.missingCells()).isEqualTo(2);
+		assertThat(plan.staleCells()).isEqualTo(1);
+		assertThat(plan.months()).containsExactly(
+			new BackfillPlan.MonthNeed(YearMonth.of(2020, 3), 1, 0),
+			new BackfillPlan.MonthNeed(YearMonth.of(2020, 4), 1, 0),
+			new BackfillPlan.MonthNeed(YearMonth.of(2020, 9), 0, 1));
+		assertThat(plan.ranges()).containsExactly(
+			new BackfillPlan.MonthRange(YearMonth.of(2020, 3), YearMonth.of(2020, 4)),
+			new BackfillPlan.MonthRange(YearMonth.of(2020, 9), YearMonth.of(2020, 9)));
+	}
+
+	@Test
+	void recalculationClearsStaleAndRangeOutsideDataIsEmpty() {
+		MonthCoverage coverage = new MonthCoverage(CalcPriceChangedEvent.Kind.INDEX);
+		coverage.markDaily(7, YearMonth.of(2021, 6));
+		coverage.markCalculated(7, YearMonth.of(2021, 6));
+		coverage.markStale(7, YearMonth.of(2021, 6));
+		coverage.markCalculated(7, YearMonth.of(2021, 6));
+
+		assertThat(coverage.plan(YearMonth.of(2021, 1), YearMonth.of(2021, 12)).months()).isEmpty();
+		assertThat(coverage.plan(YearMonth.of(1999, 1), YearMonth.of(1999, 12)).months()).isEmpty();
+	}
+}
@@ -0,0 +1,63 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+
+import com.chan.stock_batch_server.dto.DailyClosePrice;
+
+class MonthlyAggregatingItemReaderTests {
+
+	private static final List<DailyClosePrice> ROWS = List.of(
+		new DailyClosePrice(1, LocalDate.of(2024, 1, 2), 100.0),
+		new DailyClosePrice(1, LocalDate.of(2024, 1, 3), 110.0),
+		new DailyClosePrice(1, LocalDate.of(2024, 2, 1), 120.0),
+		new DailyClosePrice(2, LocalDate.of(2024, 1, 2), 50.0),
+		new DailyClosePrice(2, LocalDate.of(2024, 2, 1), 60.0));
+
+	private final List<String> queries = new ArrayList<>();
+
+	@Test
+	void restartResumesAfterLastCommittedMonthWithoutRereading() throws Exception {
+		ExecutionContext context = new ExecutionContext();
+		MonthlyAggregatingItemReader<String> first = reader();
+		first.open(context);
+		assertThat(first.read()).isEqualTo("1 2024-01 2");
+		assertThat(first.read()).isEqualTo("1 2024-02 1");
+		first.update(context);
+		// 다음 청크를 커밋하지 못하고 실패
+		first.read();
+		first.close();
+
+		MonthlyAggregatingItemReader<String> restarted = reader();
+		restarted.open(context);
+		List<String> rest = new ArrayList<>();
+		for (String item = restarted.read(); item != null; item = restarted.read()) {
+			rest.add(item);
+		}
+
+		assertThat(rest).containsExactly("2 2024-01 1", "2 2024-02 1");
+		assertThat(queries).containsExactly("from start", "after 1 2024-02");
+	}
+
+	private MonthlyAggregatingItemReader<String> reader() {
+		return new MonthlyAggregatingItemReader<>("testReader", (lastId, lastMonth) -> {
+			queries.add(lastMonth == null ? "from start" : "after " + lastId + " " + lastMonth);
+			LocalDate fromDate = lastMonth == null ? LocalDate.MIN : lastMonth.plusMonths(1).atDay(1);
+			int fromId = lastMonth == null ? 0 : lastId;
+			Iterator<DailyClosePrice> rows = ROWS.stream()
+				.filter(row -> row.getInstrumentId() > fromId
+					|| (row.getInstrumentId() == fromId && !row.getBaseDate().isBefore(fromDate)))
+				.iterator();
+			return (ItemStreamReader<DailyClosePrice>)() -> rows.hasNext() ? rows.next() : null;
+		}, (instrumentId, month, startPrice, endPrice, averagePrice, tradingDays) ->
+			instrumentId + " " + month + " " + tradingDays);
+	}
+}
@@ -0,0 +1,33 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MonthlyRankTaskletTests {
+
+	@Test
+	void ranksWithinCategoryAndOverall() {
+		byte[] category = { 0, 0, 1, 0, 1 };
+		float[] ror = { 0.10f, -0.05f, 0.30f, 0.20f, -0.20f };
+
+		MonthlyRankTasklet.Ranks ranks = MonthlyRankTasklet.rank(category, ror);
+
+		assertThat(ranks.categoryRank).containsExactly(2, 3, 1, 1, 2);
+		assertThat(ranks.categorySize).containsExactly(3, 3, 2, 3, 2);
+		assertThat(ranks.overallRank).containsExactly(3, 4, 1, 2, 5);
+		assertThat(ranks.percentile).containsExactly(0.5f, 0f, 1f, 1f, 0f);
+		assertThat(ranks.decile).containsExactly(4, 7, 1, 1, 6);
+	}
+
+	@Test
+	void tiesShareRankAndPercentile() {
+		byte[] category = { 0, 0, 0, 0 };
+		float[] ror = { 0.01f, 0.05f, 0.01f, -0.0f };
+
+		MonthlyRankTasklet.Ranks ranks = MonthlyRankTasklet.rank(category, ror);
+
+		assertThat(ranks.categoryRank).containsExactly(2, 1, 2, 4);
+		assertThat(ranks.percentile[0]).isEqualTo(ranks.percentile[2]).isEqualTo(1f / 3);
+	}
+}
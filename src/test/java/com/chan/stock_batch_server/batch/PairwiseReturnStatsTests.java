@@ -0,0 +1,52 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class PairwiseReturnStatsTests {
+
+	@Test
+	void betaAndCorrelationUseOnlyOverlappingMonths() {
+		MonthlyReturnMatrix.Builder stocks = new MonthlyReturnMatrix.Builder(4);
+		// 종목 1 = 지수 x 2, 마지막 달은 지수 값이 없어 제외되어야 함
+		stocks.put(1, 0, 0.02);
+		stocks.put(1, 1, -0.04);
+		stocks.put(1, 2, 0.06);
+		stocks.put(1, 3, 0.50);
+		MonthlyReturnMatrix.Builder indices = new MonthlyReturnMatrix.Builder(4);
+		indices.put(10, 0, 0.01);
+		indices.put(10, 1, -0.02);
+		indices.put(10, 2, 0.03);
+
+		PairwiseReturnStats stats = PairwiseReturnStats.compute(stocks.build(), indices.build(),
+			ForkJoinPool.commonPool());
+
+		assertThat(stats.observations[0]).isEqualTo((short)3);
+		assertThat((double)stats.beta[0]).isCloseTo(2.0, within(1e-5));
+		assertThat((double)stats.correlation[0]).isCloseTo(1.0, within(1e-5));
+	}
+
+	@Test
+	void symmetricMatrixFillsUpperTriangleAcrossBlocks() {
+		int count = PairwiseReturnStats.BLOCK * 2 + 3;
+		MonthlyReturnMatrix.Builder builder = new MonthlyReturnMatrix.Builder(6);
+		for (int id = 0; id < count; id++) {
+			for (int month = 0; month < 6; month++) {
+				builder.put(id, month, Math.sin(id * 0.7 + month) * 0.1);
+			}
+		}
+		MonthlyReturnMatrix stocks = builder.build();
+
+		PairwiseReturnStats stats = PairwiseReturnStats.compute(stocks, stocks, new ForkJoinPool(4));
+
+		assertThat(stats.observations[count - 1]).isEqualTo((short)6);
+		assertThat(stats.observations[(count - 1) * count]).isZero();
+		assertThat(stats.observations[5 * count + 5]).isZero();
+		assertThat((double)stats.correlation[3 * count + 3 + PairwiseReturnStats.BLOCK])
+			.isBetween(-1.0, 1.0);
+	}
+}
@@ -0,0 +1,70 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+
+class PriceDateGroupTests {
+
+	@Test
+	void groupsByDateAndKindWithOrderIndependentHash() {
+		DailyPriceRecord a = stock("20240102", "KR7005930003", 70000f);
+		DailyPriceRecord b = stock("20240102", "KR7000660001", 140000f);
+		DailyPriceRecord c = stock("20240103", "KR7005930003", 71000f);
+		DailyPriceRecord kospi = index("20240102", "코스피", 2600f);
+
+		List<PriceDateGroup> groups = PriceDateGroup.group(List.of(a, b, kospi, c));
+		List<PriceDateGroup> reordered = PriceDateGroup.group(List.of(c, kospi, b, a));
+
+		assertThat(groups).extracting(PriceDateGroup::kind, PriceDateGroup::baseDate)
+			.containsExactly(
+				tuple(CalcPriceChangedEvent.Kind.STOCK, LocalDate.of(2024, 1, 2)),
+				tuple(CalcPriceChangedEvent.Kind.INDEX, LocalDate.of(2024, 1, 2)),
+				tuple(CalcPriceChangedEvent.Kind.STOCK, LocalDate.of(2024, 1, 3)));
+		assertThat(groups).extracting(PriceDateGroup::rowCount).containsExactly(2, 1, 1);
+		assertThat(hash(reordered, CalcPriceChangedEvent.Kind.STOCK, "2024-01-02"))
+			.isEqualTo(hash(groups, CalcPriceChangedEvent.Kind.STOCK, "2024-01-02"));
+	}
+
+	@Test
+	void hashChangesOnlyForTheDateWhoseContentChanged() {
+		List<PriceDateGroup> before = PriceDateGroup.group(List.of(
+			stock("20240102", "KR7005930003", 70000f), stock("20240103", "KR7005930003", 71000f)));
+		List<PriceDateGroup> after = PriceDateGroup.group(List.of(
+			stock("20240102", "KR7005930003", 70000f), stock("20240103", "KR7005930003", 71500f)));
+
+		assertThat(after.get(0).contentHash()).isEqualTo(before.get(0).contentHash());
+		assertThat(after.get(1).contentHash()).isNotEqualTo(before.get(1).contentHash());
+	}
+
+	private static String hash(List<PriceDateGroup> groups, CalcPriceChangedEvent.Kind kind, String date) {
+		return groups.stream()
+			.filter(group -> group.kind() == kind && group.baseDate().equals(LocalDate.parse(date)))
+			.findFirst()
+			.orElseThrow()
+			.contentHash();
+	}
+
+	private static DailyPriceRecord stock(String basDt, String isinCd, float clpr) {
+		DailyPriceRecord record = new DailyPriceRecord();
+		record.setBasDt(basDt);
+		record.setIsinCd(isinCd);
+		record.setClpr(clpr);
+		return record;
+	}
+
+	private static DailyPriceRecord index(String basDt, String idxNm, float clpr) {
+		DailyPriceRecord record = new DailyPriceRecord();
+		record.setBasDt(basDt);
+		record.setIdxNm(idxNm);
+		record.setClpr(clpr);
+		return record;
+	}
+}
@@ -0,0 +1,71 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PriceFileSourceTests {
+
+	private static final String JSON = "{\"response\":{\"body\":{\"items\":{\"item\":[{\"basDt\":\"%s\"}]}}}}";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void expandsZipEntriesAndReadsCompressedJson() throws IOException {
+		Path zip = dir.resolve("prices.zip");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			out.putNextEntry(new ZipEntry("20240103.json"));
+			out.write(JSON.formatted("20240103").getBytes(StandardCharsets.UTF_8));
+			out.putNextEntry(new ZipEntry("20240102.json.gz"));
+			out.write(gzip(JSON.formatted("20240102")));
+			out.putNextEntry(new ZipEntry("readme.txt"));
+			out.write("skip".getBytes(StandardCharsets.UTF_8));
+		}
+
+		List<PriceFileSource> sources = PriceFileSource.expand(zip);
+
+		assertThat(sources).extracting(PriceFileSource::name)
+			.containsExactly("prices.zip!20240103.json", "prices.zip!20240102.json.gz");
+		assertThat(JsonPriceItemReader.peekBaseDate(objectMapper, sources.get(0))).isEqualTo(LocalDate.of(2024, 1, 3));
+		assertThat(JsonPriceItemReader.peekBaseDate(objectMapper, sources.get(1))).isEqualTo(LocalDate.of(2024, 1, 2));
+	}
+
+	@Test
+	void readsGzipFileAsSingleSource() throws IOException {
+		Path file = dir.resolve("20240104.json.gz");
+		Files.write(file, gzip(JSON.formatted("20240104")));
+
+		List<PriceFileSource> sources = PriceFileSource.expand(file);
+
+		assertThat(sources).containsExactly(new PriceFileSource(file, null));
+		assertThat(JsonPriceItemReader.peekBaseDate(objectMapper, sources.get(0))).isEqualTo(LocalDate.of(2024, 1, 4));
+		assertThat(PriceFileSource.isSupported("a.json.gz")).isTrue();
+		assertThat(PriceFileSource.isSupported("a.csv")).isFalse();
+	}
+
+	private static byte[] gzip(String json) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,114 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PriceSnapshotTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void writeAppendAndLoadYear() throws Exception {
+		PriceSnapshot.Rows rows = new PriceSnapshot.Rows();
+		rows.add(LocalDate.of(2023, 12, 28), 95, 94, 96, 93, 1000);
+		rows.add(LocalDate.of(2024, 1, 2), 100, 99, 101, 98, 2000);
+		PriceSnapshot.writeInstrument(directory, 7, rows);
+
+		PriceSnapshot.Rows appended = new PriceSnapshot.Rows();
+		appended.add(LocalDate.of(2024, 1, 3), 110, 100, 112, 99, 3000);
+		assertThat(PriceSnapshot.appendInstrument(directory, 7, appended)).isTrue();
+		assertThat(PriceSnapshot.appendInstrument(directory, 7, appended)).isFalse();
+		PriceSnapshot.writeManifest(directory, 42);
+
+		PriceSnapshot snapshot = new PriceSnapshot(directory, true);
+		snapshot.reload();
+		assertThat(snapshot.isAvailable()).isTrue();
+		assertThat(snapshot.maxId()).isEqualTo(42);
+
+		DailyPriceSegment.Builder builder = new DailyPriceSegment.Builder(2024, 0);
+		snapshot.loadYear(2024, builder);
+		DailyPriceSegment segment = builder.build();
+		assertThat(segment.rowCount()).isEqualTo(2);
+		assertThat(segment.high[1]).isEqualTo(112);
+
+		List<double[]> result = new ArrayList<>();
+		segment.aggregateMonth(YearMonth.of(2024, 1), 0, Integer.MAX_VALUE,
+				(id, month, start, end, average, days) -> new double[] { id, start, end, average }, result);
+		assertThat(result.get(0)).containsExactly(7, 100, 110, 105);
+	}
+
+	@Test
+	void appendReplacesFileWithoutChangingMappedSnapshotUntilReload() throws Exception {
+		PriceSnapshot.Rows rows = new PriceSnapshot.Rows();
+		rows.add(LocalDate.of(2024, 1, 2), 100, 99, 101, 98, 2000);
+		PriceSnapshot.writeInstrument(directory, 7, rows);
+		PriceSnapshot.writeManifest(directory, 1);
+		PriceSnapshot snapshot = new PriceSnapshot(directory, true);
+		snapshot.reload();
+
+		PriceSnapshot.Rows appended = new PriceSnapshot.Rows();
+		appended.add(LocalDate.of(2024, 1, 3), 110, 100, 112, 99, 3000);
+		assertThat(PriceSnapshot.appendInstrument(directory, 7, appended)).isTrue();
+
+		DailyPriceSegment.Builder before = new DailyPriceSegment.Builder(2024, 0);
+		snapshot.loadYear(2024, before);
+		assertThat(before.build().rowCount()).isEqualTo(1);
+
+		snapshot.reload();
+		assertThat(snapshot.isAvailable()).isTrue();
+		DailyPriceSegment.Builder after = new DailyPriceSegment.Builder(2024, 0);
+		snapshot.loadYear(2024, after);
+		assertThat(after.build().rowCount()).isEqualTo(2);
+	}
+
+	@Test
+	void corruptedHeaderDisablesSnapshot() throws Exception {
+		PriceSnapshot.Rows rows = new PriceSnapshot.Rows();
+		rows.add(LocalDate.of(2024, 1, 2), 100, 99, 101, 98, 2000);
+		PriceSnapshot.writeInstrument(directory, 1, rows);
+		PriceSnapshot.writeManifest(directory, 1);
+
+		try (FileChannel channel = FileChannel.open(binFile(), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 1 }), PriceSnapshot.LAST_CLOSE_OFFSET);
+		}
+
+		PriceSnapshot snapshot = new PriceSnapshot(directory, true);
+		snapshot.reload();
+		assertThat(snapshot.isAvailable()).isFalse();
+	}
+
+	@Test
+	void corruptedFileDisablesSnapshot() throws Exception {
+		PriceSnapshot.Rows rows = new PriceSnapshot.Rows();
+		rows.add(LocalDate.of(2024, 1, 2), 100, 99, 101, 98, 2000);
+		PriceSnapshot.writeInstrument(directory, 1, rows);
+		PriceSnapshot.writeManifest(directory, 1);
+
+		try (FileChannel channel = FileChannel.open(binFile(), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 1 }), PriceSnapshot.HEADER_BYTES + 3);
+		}
+
+		PriceSnapshot snapshot = new PriceSnapshot(directory, true);
+		snapshot.reload();
+		assertThat(snapshot.isAvailable()).isFalse();
+	}
+
+	private Path binFile() throws Exception {
+		try (var files = Files.list(directory)) {
+			return files.filter(path -> path.toString().endsWith(".bin")).findFirst().orElseThrow();
+		}
+	}
+}
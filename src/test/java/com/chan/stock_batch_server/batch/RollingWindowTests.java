@@ -0,0 +1,51 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class RollingWindowTests {
+
+	@Test
+	void keepsOnlyLastCapacityValues() {
+		RollingWindow window = new RollingWindow(3);
+		window.add(1);
+		window.add(2);
+		assertThat(window.isFull()).isFalse();
+
+		window.add(3);
+		window.add(4);
+
+		assertThat(window.isFull()).isTrue();
+		assertThat(window.mean()).isCloseTo(3.0, within(1e-9));
+		assertThat(window.variance()).isCloseTo(1.0, within(1e-9));
+	}
+
+	@Test
+	void maxDrawdownMeasuresFromRunningPeak() {
+		RollingWindow window = new RollingWindow(5);
+		for (double close : new double[] { 100, 120, 90, 110, 60 }) {
+			window.add(close);
+		}
+
+		assertThat(window.maxDrawdown()).isCloseTo(-0.5, within(1e-9));
+
+		window.add(130);
+		window.add(65);
+
+		// 100, 120이 밀려난 뒤: 110 -> 60 (-45%), 130 -> 65 (-50%)
+		assertThat(window.maxDrawdown()).isCloseTo(-0.5, within(1e-9));
+	}
+
+	@Test
+	void clearResetsState() {
+		RollingWindow window = new RollingWindow(2);
+		window.add(5);
+		window.add(7);
+		window.clear();
+
+		assertThat(window.isFull()).isFalse();
+		assertThat(window.mean()).isNaN();
+	}
+}
@@ -0,0 +1,44 @@
+package com.chan.stock_batch_server.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class StringIntHashMapTests {
+
+	@Test
+	void putAndGetAcrossResize() {
+		StringIntHashMap map = new StringIntHashMap(4);
+		for (int i = 0; i < 10_000; i++) {
+			map.put("KR" + i, i);
+		}
+
+		assertThat(map.size()).isEqualTo(10_000);
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(map.get("KR" + i)).isEqualTo(i);
+		}
+		assertThat(map.get("missing")).isEqualTo(StringIntHashMap.NO_VALUE);
+		assertThat(map.get(null)).isEqualTo(StringIntHashMap.NO_VALUE);
+	}
+
+	@Test
+	void putOverwritesExistingKey() {
+		StringIntHashMap map = new StringIntHashMap(8);
+		map.put("KR7005930003", 1);
+		map.put("KR7005930003", 2);
+
+		assertThat(map.size()).isEqualTo(1);
+		assertThat(map.get("KR7005930003")).isEqualTo(2);
+	}
+
+	@Test
+	void copyIsIndependentOfSource() {
+		StringIntHashMap source = new StringIntHashMap(8);
+		source.put("a", 1);
+		StringIntHashMap copy = StringIntHashMap.copyOf(source, 1);
+		copy.put("b", 2);
+
+		assertThat(copy.get("a")).isEqualTo(1);
+		assertThat(source.get("b")).isEqualTo(StringIntHashMap.NO_VALUE);
+	}
+}
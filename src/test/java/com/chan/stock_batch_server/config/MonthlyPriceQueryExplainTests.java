@@ -0,0 +1,155 @@
+package com.chan.stock_batch_server.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 월별 집계 쿼리가 base_date 인덱스 범위 스캔을 사용할 수 있는지 EXPLAIN으로 확인하는 회귀 테스트
+ * 날짜 컬럼에 함수가 씌워지면 인덱스를 타지 못해 테이블이 커질수록 풀 스캔이 됩니다.
+ * subquery 모드는 손으로 옮긴 SQL이 아니라 Reader가 실제로 실행한 SQL을 EXPLAIN 합니다.
+ * 기간 Job 쿼리는 재시작 위치 조건이 (id, base_date) 인덱스의 범위 스캔이 되는지 확인합니다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+	+ "com.chan.stock_batch_server.config.MonthlyPriceQueryExplainTests$CapturingStatementInspector")
+class MonthlyPriceQueryExplainTests {
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+	private static final LocalDate END = START.plusMonths(1);
+	private static final int PAGE_SIZE = 100;
+	private static final int RESUME_ID = 1000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Test
+	void stockWindowQueryUsesDateIndex() {
+		assertUsesIndex(priceRows(explain(MonthlyStockPriceBatchConfig.WINDOW_SQL, START, END, 0, Integer.MAX_VALUE)),
+			"idx_stock_price_date_stock_close");
+	}
+
+	@Test
+	void indexWindowQueryUsesDateIndex() {
+		assertUsesIndex(priceRows(explain(MonthlyIndexBatchConfig.WINDOW_SQL, START, END, 0, Integer.MAX_VALUE)),
+			"idx_index_price_date_index_close");
+	}
+
+	@Test
+	void stockRangeQueryResumesWithIndexRangeScan() {
+		assertUsesIndex(priceRows(explain(MonthlyStockPriceBatchConfig.RANGE_SQL, START, END,
+			RESUME_ID, RESUME_ID, START.plusDays(14))), "idx_stock_price_stock_date_close");
+	}
+
+	@Test
+	void indexRangeQueryResumesWithIndexRangeScan() {
+		assertUsesIndex(priceRows(explain(MonthlyIndexBatchConfig.RANGE_SQL, START, END,
+			RESUME_ID, RESUME_ID, START.plusDays(14))), "idx_index_price_index_date_close");
+	}
+
+	@Test
+	void stockSubqueryReaderUsesCompositeIndex() throws Exception {
+		List<Map<String, Object>> plan = explainReader(MonthlyStockPriceBatchConfig.SUBQUERY_JPQL,
+			MonthlyStockPriceBatchConfig.subqueryReader(emf, START.getYear(), START.getMonthValue(), 0, Integer.MAX_VALUE));
+		assertUsesIndex(subqueryRows(plan), "idx_stock_price_stock_date_close");
+	}
+
+	@Test
+	void indexSubqueryReaderUsesCompositeIndex() throws Exception {
+		List<Map<String, Object>> plan = explainReader(MonthlyIndexBatchConfig.SUBQUERY_JPQL,
+			MonthlyIndexBatchConfig.subqueryReader(emf, START.getYear(), START.getMonthValue(), 0, Integer.MAX_VALUE));
+		assertUsesIndex(subqueryRows(plan), "idx_index_price_index_date_close");
+	}
+
+	private List<Map<String, Object>> explain(String sql, Object... args) {
+		return jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+	}
+
+	/**
+	 * subquery Reader의 첫 페이지를 실제로 읽어 Hibernate가 만든 SQL을 잡고, 같은 값을 바인딩해 EXPLAIN
+	 * Hibernate는 JPQL에 나온 순서대로 파라미터를 바인딩하며, 남는 자리는 첫 페이지의 LIMIT(, OFFSET)입니다.
+	 */
+	private List<Map<String, Object>> explainReader(String jpql, JpaPagingItemReader<?> reader) throws Exception {
+		CapturingStatementInspector.SQL.clear();
+		reader.open(new ExecutionContext());
+		try {
+			reader.read();
+		} finally {
+			reader.close();
+		}
+		String sql = CapturingStatementInspector.SQL.stream()
+			.filter(captured -> captured.toLowerCase().contains("min("))
+			.reduce((first, second) -> second)
+			.orElseThrow();
+
+		Map<String, Object> values = Map.of("startDate", START, "endDate", END,
+			"fromId", 0, "toId", Integer.MAX_VALUE);
+		List<Object> args = new ArrayList<>();
+		Matcher parameter = Pattern.compile(":(\\w+)").matcher(jpql);
+		while (parameter.find()) {
+			args.add(values.get(parameter.group(1)));
+		}
+		long placeholders = sql.chars().filter(c -> c == '?').count();
+		if (placeholders - args.size() == 2) {
+			args.add(0);
+		}
+		if (placeholders > args.size()) {
+			args.add(PAGE_SIZE);
+		}
+		assertThat(args).hasSize((int)placeholders);
+		return explain(sql, args.toArray());
+	}
+
+	private static List<Map<String, Object>> subqueryRows(List<Map<String, Object>> plan) {
+		List<Map<String, Object>> rows = plan.stream()
+			.filter(row -> String.valueOf(row.get("select_type")).contains("SUBQUERY"))
+			.toList();
+		assertThat(rows).isNotEmpty();
+		return rows;
+	}
+
+	private static List<Map<String, Object>> priceRows(List<Map<String, Object>> plan) {
+		Map<String, Object> priceRow = plan.stream()
+			.filter(row -> "p".equals(row.get("table")))
+			.findFirst()
+			.orElseThrow();
+		return List.of(priceRow);
+	}
+
+	private static void assertUsesIndex(List<Map<String, Object>> rows, String indexName) {
+		for (Map<String, Object> row : rows) {
+			assertThat(row.get("key")).as("key of %s", row).isEqualTo(indexName);
+			assertThat(row.get("type")).as("type of %s", row).isIn("range", "ref");
+		}
+	}
+
+	/**
+	 * Hibernate가 실행하는 SQL을 그대로 모으는 StatementInspector
+	 */
+	public static class CapturingStatementInspector implements StatementInspector {
+		static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			SQL.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.chan.stock_batch_server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.chan.stock_batch_server.dto.CalcPriceChangedEvent;
+
+class CoalescingJobLauncherTests {
+
+	private static final CalcPriceChangedEvent.Kind STOCK = CalcPriceChangedEvent.Kind.STOCK;
+
+	private final CoalescingJobLauncher launcher = new CoalescingJobLauncher();
+
+	@Test
+	void overlappingRequestAttachesAndLaunchesOnlyUncoveredMonths() {
+		CompletableFuture<List<JobExecution>> first = new CompletableFuture<>();
+		CompletableFuture<List<JobExecution>> firstResult = launcher.run(STOCK, YearMonth.of(2024, 3),
+			YearMonth.of(2024, 5), (from, to) -> first);
+
+		List<String> launched = new ArrayList<>();
+		CompletableFuture<List<JobExecution>> secondResult = launcher.run(STOCK, YearMonth.of(2024, 1),
+			YearMonth.of(2024, 6), (from, to) -> {
+				launched.add(from + "~" + to);
+				return CompletableFuture.completedFuture(List.of(new JobExecution(10L + launched.size())));
+			});
+
+		assertThat(launched).containsExactly("2024-01~2024-02", "2024-06~2024-06");
+		assertThat(secondResult).isNotDone();
+
+		first.complete(List.of(new JobExecution(1L)));
+
+		assertThat(firstResult.join()).extracting(JobExecution::getId).containsExactly(1L);
+		assertThat(secondResult.join()).extracting(JobExecution::getId).containsExactlyInAnyOrder(1L, 11L, 12L);
+	}
+
+	@Test
+	void monthsAreReleasedWhenExecutionEndsOrLaunchIsRejected() {
+		launcher.run(STOCK, YearMonth.of(2024, 1), YearMonth.of(2024, 1),
+			(from, to) -> CompletableFuture.completedFuture(List.of(new JobExecution(1L))));
+		assertThatThrownBy(() -> launcher.run(STOCK, YearMonth.of(2024, 2), YearMonth.of(2024, 2), (from, to) -> {
+			throw new TaskRejectedException("saturated");
+		})).isInstanceOf(TaskRejectedException.class);
+
+		List<String> launched = new ArrayList<>();
+		launcher.run(STOCK, YearMonth.of(2024, 1), YearMonth.of(2024, 2), (from, to) -> {
+			launched.add(from + "~" + to);
+			return CompletableFuture.completedFuture(List.of(new JobExecution(2L)));
+		});
+
+		assertThat(launched).containsExactly("2024-01~2024-02");
+	}
+
+	@Test
+	void wholeRangeIsRejectedWhileAnyMonthIsInFlightAndOthersAttachToIt() throws Exception {
+		CompletableFuture<List<JobExecution>> first = new CompletableFuture<>();
+		launcher.run(STOCK, YearMonth.of(2024, 2), YearMonth.of(2024, 2), (from, to) -> first);
+
+		assertThatThrownBy(() -> launcher.runWhole(STOCK, YearMonth.of(2024, 1), YearMonth.of(2024, 3),
+			(from, to) -> CompletableFuture.completedFuture(List.of(new JobExecution(2L)))))
+			.isInstanceOf(JobExecutionAlreadyRunningException.class);
+		first.complete(List.of(new JobExecution(1L)));
+
+		CompletableFuture<List<JobExecution>> restart = new CompletableFuture<>();
+		List<String> launched = new ArrayList<>();
+		CompletableFuture<List<JobExecution>> restartResult = launcher.runWhole(STOCK, YearMonth.of(2024, 1),
+			YearMonth.of(2024, 3), (from, to) -> {
+				launched.add(from + "~" + to);
+				return restart;
+			});
+		CompletableFuture<List<JobExecution>> attached = launcher.run(STOCK, YearMonth.of(2024, 3),
+			YearMonth.of(2024, 3), (from, to) -> {
+				launched.add(from + "~" + to);
+				return CompletableFuture.completedFuture(List.of(new JobExecution(4L)));
+			});
+		restart.complete(List.of(new JobExecution(3L)));
+
+		assertThat(launched).containsExactly("2024-01~2024-03");
+		assertThat(restartResult.join()).extracting(JobExecution::getId).containsExactly(3L);
+		assertThat(attached.join()).extracting(JobExecution::getId).containsExactly(3L);
+	}
+}
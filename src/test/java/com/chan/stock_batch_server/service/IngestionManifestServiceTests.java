@@ -0,0 +1,69 @@
+package com.chan.stock_batch_server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.chan.stock_batch_server.batch.PriceDateGroup;
+import com.chan.stock_batch_server.dto.DailyPriceRecord;
+
+/**
+ * 거래일별 내용 해시가 파일 이름과 관계없이 비교되는지 확인하는 테스트
+ * 실제 시세와 겹치지 않도록 1999년 거래일을 쓰고, 끝나면 기록한 행을 지웁니다.
+ */
+@SpringBootTest
+class IngestionManifestServiceTests {
+	private static final String FIRST = "test-manifest-daily.csv";
+	private static final String RESENT = "test-manifest-resend.csv";
+
+	@Autowired
+	private IngestionManifestService ingestionManifestService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM ingested_price_source_date WHERE source IN (?, ?)", FIRST, RESENT);
+	}
+
+	@Test
+	void overlappingFileUnderAnotherNameOnlyLoadsNewOrDifferentDates() {
+		ingestionManifestService.recordDates(FIRST, PriceDateGroup.group(List.of(
+			stock("19990104", "KR7005930003", 70000f), stock("19990105", "KR7005930003", 71000f))));
+
+		List<PriceDateGroup> changed = ingestionManifestService.changed(RESENT, PriceDateGroup.group(List.of(
+			stock("19990105", "KR7005930003", 71000f),
+			stock("19990104", "KR7005930003", 70500f),
+			stock("19990106", "KR7005930003", 72000f))));
+
+		assertThat(changed).extracting(PriceDateGroup::baseDate)
+			.containsExactly(LocalDate.of(1999, 1, 4), LocalDate.of(1999, 1, 6));
+	}
+
+	@Test
+	void dateSplitAcrossFilesIsLoadedFromEachFile() {
+		ingestionManifestService.recordDates(FIRST, PriceDateGroup.group(List.of(
+			stock("19990104", "KR7005930003", 70000f))));
+
+		List<PriceDateGroup> changed = ingestionManifestService.changed(RESENT, PriceDateGroup.group(List.of(
+			stock("19990104", "KR7000660001", 140000f))));
+
+		assertThat(changed).extracting(PriceDateGroup::baseDate).containsExactly(LocalDate.of(1999, 1, 4));
+	}
+
+	private static DailyPriceRecord stock(String basDt, String isinCd, float clpr) {
+		DailyPriceRecord record = new DailyPriceRecord();
+		record.setBasDt(basDt);
+		record.setIsinCd(isinCd);
+		record.setClpr(clpr);
+		return record;
+	}
+}